@@ -0,0 +1,102 @@
+package com.example.weatherforecast;
+
+import androidx.annotation.VisibleForTesting;
+
+import com.example.weatherforecast.repository.WeatherRepository;
+import com.example.weatherforecast.service.OutfitService;
+import com.example.weatherforecast.service.WeatherService;
+import com.example.weatherforecast.service.WeatherTranslator;
+import com.example.weatherforecast.util.WeatherIconMapper;
+
+/**
+ * Clase que crea y comparte los servicios de la aplicación (sin estado por pantalla).
+ * Cada uno se crea la primera vez que se pide y se reutiliza en todas las pantallas,
+ * así Retrofit, los mapas de iconos y las traducciones solo se construyen una vez
+ */
+public final class ServiceLocator {
+    private static volatile WeatherRepository weatherRepository;
+    private static volatile WeatherIconMapper iconMapper;
+    private static volatile WeatherTranslator translator;
+    private static volatile WeatherService weatherService;
+    private static volatile OutfitService outfitService;
+
+    private ServiceLocator() {
+    }
+
+    public static WeatherRepository getWeatherRepository() {
+        if (weatherRepository == null) {
+            synchronized (ServiceLocator.class) {
+                if (weatherRepository == null) {
+                    weatherRepository = new WeatherRepository();
+                }
+            }
+        }
+        return weatherRepository;
+    }
+
+    public static WeatherIconMapper getIconMapper() {
+        if (iconMapper == null) {
+            synchronized (ServiceLocator.class) {
+                if (iconMapper == null) {
+                    iconMapper = new WeatherIconMapper();
+                }
+            }
+        }
+        return iconMapper;
+    }
+
+    public static WeatherTranslator getTranslator() {
+        if (translator == null) {
+            synchronized (ServiceLocator.class) {
+                if (translator == null) {
+                    translator = new WeatherTranslator();
+                }
+            }
+        }
+        return translator;
+    }
+
+    public static WeatherService getWeatherService() {
+        if (weatherService == null) {
+            synchronized (ServiceLocator.class) {
+                if (weatherService == null) {
+                    weatherService = new WeatherService(getWeatherRepository(), getIconMapper(), getTranslator());
+                }
+            }
+        }
+        return weatherService;
+    }
+
+    public static OutfitService getOutfitService() {
+        if (outfitService == null) {
+            synchronized (ServiceLocator.class) {
+                if (outfitService == null) {
+                    outfitService = new OutfitService();
+                }
+            }
+        }
+        return outfitService;
+    }
+
+    // ---- Para tests: sustituir servicios por versiones falsas ----
+
+    @VisibleForTesting
+    public static synchronized void setWeatherService(WeatherService service) {
+        weatherService = service;
+    }
+
+    @VisibleForTesting
+    public static synchronized void setOutfitService(OutfitService service) {
+        outfitService = service;
+    }
+
+    // Vuelve a crear todo la próxima vez que se pida
+    @VisibleForTesting
+    public static synchronized void reset() {
+        weatherRepository = null;
+        iconMapper = null;
+        translator = null;
+        weatherService = null;
+        outfitService = null;
+    }
+}
@@ -1,32 +1,81 @@
 package com.example.weatherforecast;
 
 import android.app.Application;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
 
 import com.example.weatherforecast.model.CurrentWeather;
-import com.example.weatherforecast.model.DailyForecast;
-import com.example.weatherforecast.model.HourlyForecast;
+import com.example.weatherforecast.model.ForecastSeries;
+import com.example.weatherforecast.data.AppDatabase;
 import com.example.weatherforecast.data.WeatherCache;
-
-import java.util.ArrayList;
-import java.util.List;
+import com.example.weatherforecast.util.AppStartup;
+import com.example.weatherforecast.util.DateCodec;
+import com.example.weatherforecast.util.HttpClientProvider;
+import com.example.weatherforecast.util.WeatherConditions;
+import com.example.weatherforecast.util.WeatherIconMapper;
 
 /**
  * Clase de aplicación principal que inicializa componentes globales
- * y proporciona valores predeterminados para cuando no hay datos disponibles
+ * y proporciona valores predeterminados para cuando no hay datos disponibles.
+ * Solo el cliente HTTP se crea en el hilo principal; la caché se prepara en segundo plano
  */
 public class WeatherApplication extends Application {
-    private WeatherCache weatherCache;
+    // Tareas de arranque, en orden de dependencias
+    public static final String INIT_HTTP_CLIENT = "http_client";
+    public static final String INIT_WEATHER_CACHE = "weather_cache";
+    public static final String INIT_DEFAULT_DATA = "default_weather_data";
+    public static final String INIT_DATABASE = "database";
+
+    private final AppStartup startup = new AppStartup();
+    private volatile WeatherCache weatherCache;
 
     @Override
     public void onCreate() {
         super.onCreate();
 
-        // Inicializar la caché
-        weatherCache = new WeatherCache(this);
+        // DateCodec guarda la zona horaria; se actualiza cuando el usuario la cambia
+        registerReceiver(new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                DateCodec.refreshTimeZone();
+            }
+        }, new IntentFilter(Intent.ACTION_TIMEZONE_CHANGED));
+
+        // Cliente HTTP compartido con caché en disco. Es barato y tiene que existir
+        // antes de cualquier petición, así que se crea aquí mismo
+        startup.runNow(INIT_HTTP_CLIENT, () -> HttpClientProvider.init(this));
+
+        // Abrir la caché (migración incluida) y cargar en memoria la última ciudad
+        startup.register(INIT_WEATHER_CACHE, () -> {
+            WeatherCache cache = new WeatherCache(this);
+            String lastCity = cache.getLastCity();
+            if (lastCity != null) {
+                cache.preload(lastCity);
+            }
+            weatherCache = cache;
+        });
+
+        // Si no hay ninguna ciudad en caché, inicializar con valores predeterminados
+        startup.register(INIT_DEFAULT_DATA, () -> {
+            if (weatherCache.getCachedCities().isEmpty()) {
+                initializeDefaultWeatherData();
+            }
+        }, INIT_WEATHER_CACHE);
+
+        // Abrir la base de datos (y migrarla si hace falta) antes de la primera consulta
+        startup.register(INIT_DATABASE, () -> AppDatabase.getInstance(this).open());
+    }
 
-        // Si no hay datos en caché, inicializar con valores predeterminados
-        if (weatherCache.getCurrentWeather() == null) {
-            initializeDefaultWeatherData();
+    // Ejecuta callback en el hilo principal cuando la caché del clima esté lista para leer
+    // (al momento si ya lo está). Mientras tanto las pantallas muestran su estado de carga
+    public static void whenWeatherCacheReady(Context context, Runnable callback) {
+        Context appContext = context.getApplicationContext();
+        if (appContext instanceof WeatherApplication) {
+            ((WeatherApplication) appContext).startup.whenDone(INIT_DEFAULT_DATA, callback);
+        } else {
+            callback.run();
         }
     }
 
@@ -36,58 +85,42 @@ public class WeatherApplication extends Application {
      */
     private void initializeDefaultWeatherData() {
         // Crear datos del clima actual por defecto
-        CurrentWeather defaultWeather = new CurrentWeather();
-        defaultWeather.setLocation("Palma de Mallorca");
-        defaultWeather.setCountry("España");
-        defaultWeather.setTemperature(22.5f);
-        defaultWeather.setMaxTemperature(25.0f);
-        defaultWeather.setMinTemperature(18.5f);
-        defaultWeather.setHumidity(65);
-        defaultWeather.setWeatherCondition("Soleado");
-        defaultWeather.setWeatherIcon("☀️");
-        defaultWeather.setSummary("Día soleado con algunas nubes");
-
-        // Guardar en caché
-        weatherCache.saveCurrentWeather(defaultWeather);
-
-        // Crear pronóstico por horas por defecto
-        List<HourlyForecast> hourlyForecasts = new ArrayList<>();
-        String[] hours = {"09:00", "10:00", "11:00", "12:00", "13:00", "14:00", "15:00", "16:00"};
+        CurrentWeather defaultWeather = new CurrentWeather(
+                "Palma de Mallorca", "España", 22.5f, 25.0f, 18.5f,
+                "Soleado", "☀️", "Día soleado con algunas nubes", 65, WeatherConditions.CLEAR);
+
+        long today = DateCodec.toEpochDay(System.currentTimeMillis());
+        long todayStart = DateCodec.startOfDay(today);
+
+        // Crear pronóstico por horas por defecto (de 09:00 a 16:00 de hoy)
         String[] icons = {"🌤️", "☀️", "☀️", "☀️", "🌤️", "🌤️", "🌥️", "🌥️"};
         float[] temps = {19.5f, 21.0f, 22.5f, 23.8f, 24.5f, 24.2f, 23.0f, 21.5f};
+        long[] hours = new long[temps.length];
+        byte[] conditions = new byte[temps.length];
 
-        for (int i = 0; i < hours.length; i++) {
-            HourlyForecast forecast = new HourlyForecast();
-            forecast.setHour(hours[i]);
-            forecast.setWeatherIcon(icons[i]);
-            forecast.setTemperature(temps[i]);
-            hourlyForecasts.add(forecast);
+        for (int i = 0; i < temps.length; i++) {
+            hours[i] = todayStart + (9 + i) * 60 * 60 * 1000L;
+            conditions[i] = WeatherIconMapper.getConditionCodeFromEmoji(icons[i]);
         }
 
-        // Guardar en caché
-        weatherCache.saveHourlyForecast(hourlyForecasts);
+        ForecastSeries hourlyForecast = ForecastSeries.hourly(hours, temps, conditions);
 
-        // Crear pronóstico diario por defecto
-        List<DailyForecast> dailyForecasts = new ArrayList<>();
-        String[] days = {"Lunes", "Martes", "Miércoles", "Jueves", "Viernes"};
+        // Crear pronóstico diario por defecto (a partir de hoy)
         String[] dailyIcons = {"☀️", "🌤️", "🌥️", "🌦️", "🌧️"};
         float[] maxTemps = {25.0f, 24.5f, 23.0f, 22.0f, 20.0f};
         float[] minTemps = {18.5f, 19.0f, 17.5f, 16.0f, 15.0f};
+        long[] days = new long[maxTemps.length];
+        byte[] dailyConditions = new byte[maxTemps.length];
 
-        for (int i = 0; i < days.length; i++) {
-            DailyForecast forecast = new DailyForecast();
-            forecast.setDay(days[i]);
-            forecast.setWeatherIcon(dailyIcons[i]);
-            forecast.setMaxTemperature(maxTemps[i]);
-            forecast.setMinTemperature(minTemps[i]);
-            dailyForecasts.add(forecast);
+        for (int i = 0; i < maxTemps.length; i++) {
+            days[i] = DateCodec.startOfDay(today + i);
+            dailyConditions[i] = WeatherIconMapper.getConditionCodeFromEmoji(dailyIcons[i]);
         }
 
-        // Guardar en caché
-        weatherCache.saveDailyForecast(dailyForecasts);
-    }
+        ForecastSeries dailyForecast = ForecastSeries.daily(days, minTemps, maxTemps, dailyConditions);
 
-    public WeatherCache getWeatherCache() {
-        return weatherCache;
+        // Guardar en caché como datos caducados (savedAt = 0): se muestran mientras llegan los reales
+        weatherCache.saveSnapshot(defaultWeather.getLocation(), defaultWeather,
+                hourlyForecast, dailyForecast, 0);
     }
 }
\ No newline at end of file
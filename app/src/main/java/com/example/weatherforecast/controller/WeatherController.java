@@ -2,28 +2,66 @@ package com.example.weatherforecast.controller;
 
 import android.content.Context;
 
+import com.example.weatherforecast.ServiceLocator;
+import com.example.weatherforecast.WeatherApplication;
+import com.example.weatherforecast.data.WeatherCache;
 import com.example.weatherforecast.model.CurrentWeather;
-import com.example.weatherforecast.model.DailyForecast;
-import com.example.weatherforecast.model.HourlyForecast;
+import com.example.weatherforecast.model.ForecastSeries;
+import com.example.weatherforecast.model.WeatherSnapshot;
 import com.example.weatherforecast.service.WeatherService;
-
-import java.util.List;
+import com.example.weatherforecast.util.LocationKey;
 
 /**
  * Controlador que se encarga de cargar y mostrar datos del clima.
+ * Sigue la política stale-while-revalidate: muestra al momento lo que hay en caché,
+ * pide datos nuevos en segundo plano si algo falta o ha caducado y solo vuelve a pintar
+ * lo que ha cambiado
  */
 public class WeatherController {
     private final WeatherService weatherService;
+    private WeatherCache weatherCache; // null hasta que la caché termina de prepararse
     private WeatherView view;
 
+    // Carga pedida antes de que la caché estuviera lista; se hace en cuanto lo está
+    private String pendingCity;
+    private boolean pendingForceRefresh;
+
+    // Lo último que se ha enviado a la vista, para no repintar valores iguales
+    private String shownCityKey;
+    private CurrentWeather shownWeather;
+    private ForecastSeries shownHourlyForecast;
+    private ForecastSeries shownDailyForecast;
+
+    // Identifica la última carga: las respuestas de cargas anteriores se descartan
+    private int requestCount = 0;
+
     public WeatherController(Context context) {
-        weatherService = new WeatherService();
+        weatherService = ServiceLocator.getWeatherService();
+        // La caché se prepara al arrancar la app en segundo plano: no se espera en el hilo principal
+        Context appContext = context.getApplicationContext();
+        WeatherApplication.whenWeatherCacheReady(appContext, () -> {
+            weatherCache = new WeatherCache(appContext);
+            if (pendingCity != null) {
+                String city = pendingCity;
+                pendingCity = null;
+                loadWeatherData(city, pendingForceRefresh);
+            }
+        });
+    }
+
+    // Estado de los datos que está mostrando la vista
+    public enum Freshness {
+        FRESH,         // Datos vigentes (de la caché o recién descargados)
+        REVALIDATING,  // Se muestran datos caducados o incompletos mientras se piden los nuevos
+        STALE,         // No se pudieron actualizar: se siguen mostrando los guardados
+        MISSING        // No hay datos que mostrar
     }
 
     public interface WeatherView {
         void displayCurrentWeather(CurrentWeather weather);
-        void displayHourlyForecast(List<HourlyForecast> forecasts);
-        void displayDailyForecast(List<DailyForecast> forecasts);
+        void displayHourlyForecast(ForecastSeries forecast);
+        void displayDailyForecast(ForecastSeries forecast);
+        void showFreshness(Freshness freshness);
         void showError(String message);
         void showLoading(boolean isLoading);
     }
@@ -33,40 +71,92 @@ public class WeatherController {
     }
 
     public void loadWeatherData(String city) {
+        loadWeatherData(city, false);
+    }
+
+    // forceRefresh pide datos a la red aunque la caché esté vigente
+    public void loadWeatherData(String city, boolean forceRefresh) {
         if (view == null) {
             return;
         }
+        if (weatherCache == null) {
+            // Se queda el indicador de carga hasta que la caché esté lista
+            pendingCity = city;
+            pendingForceRefresh = forceRefresh;
+            view.showLoading(true);
+            return;
+        }
+
+        final int request = ++requestCount;
+
+        // Al cambiar de ciudad lo mostrado deja de servir para comparar
+        String cityKey = LocationKey.canonical(city);
+        if (!cityKey.equals(shownCityKey)) {
+            shownCityKey = cityKey;
+            shownWeather = null;
+            shownHourlyForecast = null;
+            shownDailyForecast = null;
+        }
+
+        // 1. Pintar lo que haya en caché: al momento si está en memoria; si hay que leerlo del
+        // disco, cuando llegue (mientras tanto sigue lo que ya se mostraba)
+        weatherCache.load(city, (cachedWeather, cachedHourly, cachedDaily) -> {
+            if (view == null || request != requestCount) {
+                return;
+            }
+            showIfChanged(cachedWeather.getValue(), cachedHourly.getValue(), cachedDaily.getValue());
+
+            if (!forceRefresh && cachedWeather.isFresh() && cachedHourly.isFresh() && cachedDaily.isFresh()) {
+                view.showFreshness(Freshness.FRESH);
+                view.showLoading(false);
+                return;
+            }
 
-        view.showLoading(true);
+            // 2. Revalidar en segundo plano
+            view.showFreshness(hasShownData() ? Freshness.REVALIDATING : Freshness.MISSING);
+            view.showLoading(true);
+            revalidate(city, request);
+        });
+    }
 
+    private void revalidate(String city, int request) {
         try {
             weatherService.getWeatherData(city, new WeatherService.WeatherCallback() {
                 @Override
-                public void onWeatherLoaded(CurrentWeather currentWeather) {
-                    if (view != null) {
-                        view.displayCurrentWeather(currentWeather);
+                public void onWeatherDataLoaded(WeatherSnapshot snapshot) {
+                    CurrentWeather weather = snapshot.hasCurrentWeather() ? snapshot.getCurrentWeather() : null;
+                    ForecastSeries hourly = snapshot.hasForecast() ? snapshot.getHourlyForecast() : null;
+                    ForecastSeries daily = snapshot.hasForecast() ? snapshot.getDailyForecast() : null;
+
+                    // Una carga posterior ya ha sustituido a esta: su respuesta (quizá más antigua
+                    // que la de la carga nueva) no se guarda ni se pinta
+                    if (request != requestCount) {
+                        return;
                     }
-                }
+                    weatherCache.saveSnapshot(city, weather, hourly, daily, System.currentTimeMillis());
 
-                @Override
-                public void onHourlyForecastLoaded(List<HourlyForecast> hourlyForecasts) {
-                    if (view != null) {
-                        view.displayHourlyForecast(hourlyForecasts);
+                    if (view == null) {
+                        return;
                     }
-                }
 
-                @Override
-                public void onDailyForecastLoaded(List<DailyForecast> dailyForecasts) {
-                    if (view != null) {
-                        view.displayDailyForecast(dailyForecasts);
-                        view.showLoading(false);
+                    // 3. Pintar solo lo que ha cambiado
+                    showIfChanged(weather, hourly, daily);
+
+                    // Fallo parcial: se muestra lo que ha llegado y se avisa del resto
+                    if (snapshot.getCurrentWeatherError() != null) {
+                        view.showError(snapshot.getCurrentWeatherError());
+                    } else if (snapshot.getForecastError() != null) {
+                        view.showError(snapshot.getForecastError());
                     }
+                    view.showFreshness(snapshot.isPartial() ? Freshness.STALE : Freshness.FRESH);
+                    view.showLoading(false);
                 }
 
                 @Override
                 public void onError(String message) {
-                    if (view != null) {
+                    if (view != null && request == requestCount) {
                         view.showError(message);
+                        view.showFreshness(hasShownData() ? Freshness.STALE : Freshness.MISSING);
                         view.showLoading(false);
                     }
                 }
@@ -74,12 +164,33 @@ public class WeatherController {
         } catch (Exception e) {
             if (view != null) {
                 view.showError("Error: " + e.getMessage());
+                view.showFreshness(hasShownData() ? Freshness.STALE : Freshness.MISSING);
                 view.showLoading(false);
             }
         }
     }
 
+    // Envía a la vista solo los valores no nulos que difieren de los ya mostrados
+    private void showIfChanged(CurrentWeather weather, ForecastSeries hourly, ForecastSeries daily) {
+        if (weather != null && !weather.equals(shownWeather)) {
+            shownWeather = weather;
+            view.displayCurrentWeather(weather);
+        }
+        if (hourly != null && !hourly.isEmpty() && !hourly.equals(shownHourlyForecast)) {
+            shownHourlyForecast = hourly;
+            view.displayHourlyForecast(hourly);
+        }
+        if (daily != null && !daily.isEmpty() && !daily.equals(shownDailyForecast)) {
+            shownDailyForecast = daily;
+            view.displayDailyForecast(daily);
+        }
+    }
+
+    private boolean hasShownData() {
+        return shownWeather != null || shownHourlyForecast != null || shownDailyForecast != null;
+    }
+
     public void onDestroy() {
         view = null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,214 @@
+package com.example.weatherforecast.data;
+
+import android.content.Context;
+import android.net.Uri;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.weatherforecast.model.CurrentWeather;
+import com.example.weatherforecast.model.OutfitRecommendation;
+import com.example.weatherforecast.model.SavedOutfitEntry;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Acceso asíncrono a la base de datos de la aplicación.
+ * Hay un único DBHelper (con WAL) para todo el proceso: las escrituras van en orden por un
+ * solo hilo y las lecturas por un pool pequeño, que con WAL no esperan a las escrituras.
+ * Los resultados llegan como LiveData, así que ninguna consulta toca el disco en el hilo principal
+ */
+public final class AppDatabase {
+    private static final int READ_THREADS = 2;
+
+    private static volatile AppDatabase instance;
+
+    private final Context context;
+    private final DBHelper helper;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor();
+    private final ExecutorService readers = Executors.newFixedThreadPool(READ_THREADS);
+    private final UserPreferencesStore preferencesStore;
+
+    private AppDatabase(Context context) {
+        this.context = context.getApplicationContext();
+        helper = new DBHelper(this.context);
+        preferencesStore = new UserPreferencesStore(context, this);
+    }
+
+    public static AppDatabase getInstance(Context context) {
+        if (instance == null) {
+            synchronized (AppDatabase.class) {
+                if (instance == null) {
+                    instance = new AppDatabase(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    // Abre la base de datos (y aplica las migraciones pendientes) en el hilo de escritura.
+    // Se llama al arrancar la aplicación para que la primera consulta no tenga que esperar
+    public void open() {
+        writer.execute(helper::getWritableDatabase);
+    }
+
+    // ---- Usuarios ----
+
+    public LiveData<Boolean> registerUser(String username, String password) {
+        return write(() -> helper.registerUser(username, password), false);
+    }
+
+    // Comprueba las credenciales y, si son correctas, registra el inicio de sesión y pasa al
+    // usuario el historial antiguo de OutfitPrefs si todavía existe y es suyo (ver LegacyOutfitLog)
+    public LiveData<Boolean> login(String username, String password) {
+        return write(() -> {
+            boolean isValid = helper.checkUser(username, password);
+            if (isValid) {
+                helper.recordLogin(username);
+                migrateLegacyOutfitLog(username);
+            }
+            return isValid;
+        }, false);
+    }
+
+    // Un error en la migración no debe impedir el inicio de sesión
+    private void migrateLegacyOutfitLog(String username) {
+        try {
+            LegacyOutfitLog.migrate(context, helper, username);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    // ---- Preferencias ----
+
+    // Las preferencias se leen y guardan a través de su copia en memoria
+    public UserPreferencesStore getPreferencesStore() {
+        return preferencesStore;
+    }
+
+    // ---- Outfits ----
+
+    public LiveData<Boolean> saveOutfit(String username, OutfitRecommendation outfit,
+                                        CurrentWeather weather, Date date) {
+        return write(() -> helper.saveOutfit(username, outfit, weather, date), false);
+    }
+
+    public LiveData<SavedOutfitEntry> getOutfitByDate(String username, Date date) {
+        return read(() -> helper.getOutfitByDate(username, date), null);
+    }
+
+    public LiveData<List<SavedOutfitEntry>> getOutfitsBetween(String username, Date from, Date to) {
+        return read(() -> helper.getOutfitsBetween(username, from, to), null);
+    }
+
+    // Página del historial con los outfits anteriores a beforeEpochDay (del más reciente al más antiguo)
+    public LiveData<List<SavedOutfitEntry>> getOutfitHistoryBefore(String username, long beforeEpochDay, int pageSize) {
+        return read(() -> helper.getOutfitsBefore(username, beforeEpochDay, pageSize), null);
+    }
+
+    // Página del historial con los outfits posteriores a afterEpochDay, en el mismo orden que
+    // getOutfitHistoryBefore (del más reciente al más antiguo)
+    public LiveData<List<SavedOutfitEntry>> getOutfitHistoryAfter(String username, long afterEpochDay, int pageSize) {
+        return read(() -> {
+            List<SavedOutfitEntry> page = helper.getOutfitsAfter(username, afterEpochDay, pageSize);
+            Collections.reverse(page);
+            return page;
+        }, null);
+    }
+
+    public LiveData<SavedOutfitEntry> getLatestOutfit(String username) {
+        return read(() -> helper.getLatestOutfit(username), null);
+    }
+
+    public LiveData<String> getMostWornGarment(String username, double belowTemperature) {
+        return read(() -> helper.getMostWornGarment(username, belowTemperature), null);
+    }
+
+    // ---- Copias de seguridad (ver OutfitBackup) ----
+
+    // Exporta los outfits y preferencias del usuario al documento elegido (Storage Access Framework).
+    // Devuelve el número de outfits exportados, o -1 si hay un error. El documento se trunca antes
+    // de escribir
+    public LiveData<Integer> exportUserData(String username, Uri document) {
+        return read(() -> {
+            try (OutputStream stream = context.getContentResolver().openOutputStream(document, "wt")) {
+                if (stream == null) {
+                    throw new IOException("No se pudo abrir " + document);
+                }
+                Writer out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+                int count = OutfitBackup.export(helper, username, out);
+                out.flush();
+                return count;
+            }
+        }, -1);
+    }
+
+    // Importa una copia como datos del usuario. Devuelve el número de outfits importados, o -1
+    // si hay un error (los lotes ya guardados se conservan)
+    public LiveData<Integer> importUserData(String username, Uri document) {
+        return write(() -> {
+            try (InputStream stream = context.getContentResolver().openInputStream(document)) {
+                if (stream == null) {
+                    throw new IOException("No se pudo abrir " + document);
+                }
+                Reader in = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+                return OutfitBackup.importFrom(helper, username, in);
+            } finally {
+                // La copia puede traer preferencias: la versión en memoria se vuelve a leer
+                preferencesStore.reload(username);
+            }
+        }, -1);
+    }
+
+    // ---- Ejecución ----
+
+    DBHelper getHelper() {
+        return helper;
+    }
+
+    // Para las clases del paquete que programan su propio trabajo (ver UserPreferencesStore)
+    void executeRead(Runnable task) {
+        readers.execute(task);
+    }
+    void executeWrite(Runnable task) {
+        writer.execute(task);
+    }
+
+    // Cada llamada devuelve su propio LiveData con un único valor (fallback si hay un error)
+    private <T> LiveData<T> read(Callable<T> query, T fallback) {
+        return submit(readers, query, fallback);
+    }
+
+    private <T> LiveData<T> write(Callable<T> update, T fallback) {
+        return submit(writer, update, fallback);
+    }
+
+    private static <T> LiveData<T> submit(ExecutorService executor, Callable<T> task, T fallback) {
+        MutableLiveData<T> result = new MutableLiveData<>();
+        executor.execute(() -> {
+            try {
+                result.postValue(task.call());
+            } catch (Exception e) {
+                e.printStackTrace();
+                result.postValue(fallback);
+            }
+        });
+        return result;
+    }
+}
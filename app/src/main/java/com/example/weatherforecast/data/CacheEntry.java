@@ -0,0 +1,57 @@
+package com.example.weatherforecast.data;
+
+/**
+ * Resultado de una lectura de la caché: el valor (si existe), cuándo se guardó
+ * y si sigue dentro de su tiempo de validez
+ */
+public class CacheEntry<T> {
+    public enum Freshness {
+        FRESH,   // Dentro de su TTL
+        STALE,   // Hay datos pero han caducado
+        MISSING  // No hay datos para esa ubicación
+    }
+
+    private static final CacheEntry<?> MISSING_ENTRY = new CacheEntry<>(null, 0, Freshness.MISSING);
+
+    private final T value;
+    private final long savedAt;
+    private final Freshness freshness;
+
+    CacheEntry(T value, long savedAt, Freshness freshness) {
+        this.value = value;
+        this.savedAt = savedAt;
+        this.freshness = freshness;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> CacheEntry<T> missing() {
+        return (CacheEntry<T>) MISSING_ENTRY;
+    }
+
+    static <T> CacheEntry<T> of(T value, long savedAt, long ttlMillis) {
+        if (value == null) {
+            return missing();
+        }
+        boolean fresh = System.currentTimeMillis() - savedAt < ttlMillis;
+        return new CacheEntry<>(value, savedAt, fresh ? Freshness.FRESH : Freshness.STALE);
+    }
+
+    // Getters
+    public T getValue() {
+        return value;
+    }
+    public long getSavedAt() {
+        return savedAt;
+    }
+    public Freshness getFreshness() {
+        return freshness;
+    }
+
+    public boolean isFresh() {
+        return freshness == Freshness.FRESH;
+    }
+
+    public boolean isPresent() {
+        return value != null;
+    }
+}
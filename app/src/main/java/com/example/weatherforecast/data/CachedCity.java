@@ -0,0 +1,45 @@
+package com.example.weatherforecast.data;
+
+import com.example.weatherforecast.model.CurrentWeather;
+import com.example.weatherforecast.model.ForecastSeries;
+
+/**
+ * Datos guardados de una ciudad: clima actual, pronóstico por horas y diario,
+ * cada uno con el momento en que se guardó. Es inmutable; guardar crea una copia
+ */
+final class CachedCity {
+    static final CachedCity EMPTY = new CachedCity(null, 0, null, 0, null, 0);
+
+    final CurrentWeather currentWeather;
+    final long currentWeatherSavedAt;
+    final ForecastSeries hourlyForecast;
+    final long hourlyForecastSavedAt;
+    final ForecastSeries dailyForecast;
+    final long dailyForecastSavedAt;
+
+    CachedCity(CurrentWeather currentWeather, long currentWeatherSavedAt,
+               ForecastSeries hourlyForecast, long hourlyForecastSavedAt,
+               ForecastSeries dailyForecast, long dailyForecastSavedAt) {
+        this.currentWeather = currentWeather;
+        this.currentWeatherSavedAt = currentWeatherSavedAt;
+        this.hourlyForecast = hourlyForecast;
+        this.hourlyForecastSavedAt = hourlyForecastSavedAt;
+        this.dailyForecast = dailyForecast;
+        this.dailyForecastSavedAt = dailyForecastSavedAt;
+    }
+
+    // Sustituye los datos no nulos y conserva el resto
+    CachedCity with(CurrentWeather weather, ForecastSeries hourly, ForecastSeries daily, long savedAt) {
+        boolean hasHourly = hourly != null && !hourly.isEmpty();
+        boolean hasDaily = daily != null && !daily.isEmpty();
+
+        return new CachedCity(
+                weather != null ? weather : currentWeather,
+                weather != null ? savedAt : currentWeatherSavedAt,
+                hasHourly ? hourly : hourlyForecast,
+                hasHourly ? savedAt : hourlyForecastSavedAt,
+                hasDaily ? daily : dailyForecast,
+                hasDaily ? savedAt : dailyForecastSavedAt
+        );
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.weatherforecast.data;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.example.weatherforecast.util.Geohash;
+import com.example.weatherforecast.util.HttpClientProvider;
+
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caché en memoria del clima por coordenadas (/weather?lat=..&lon=..).
+ * La clave es el geohash del punto, así que los puntos cercanos (misma celda) y las rutas
+ * repetidas comparten la respuesta mientras esté vigente. Si ya hay una petición en curso
+ * para la misma celda, las demás esperan su resultado en lugar de lanzar otra
+ */
+public final class CoordinateWeatherCache {
+    private static final String WEATHER_URL = "https://api.openweathermap.org/data/2.5/weather";
+
+    public static final int DEFAULT_PRECISION = 6;                    // Celdas de ~1,2 x 0,6 km
+    public static final long DEFAULT_TTL_MILLIS = 15 * 60 * 1000L;    // 15 minutos
+    public static final int DEFAULT_MAX_ENTRIES = 128;
+
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private static final Object LOCK = new Object();
+
+    private static int precision = DEFAULT_PRECISION;
+    private static long ttlMillis = DEFAULT_TTL_MILLIS;
+    private static int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    // Respuestas por geohash en orden de acceso: la primera es la menos usada
+    private static final LinkedHashMap<String, CachedResponse> entries =
+            new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+
+    // Peticiones en curso por geohash
+    private static final Map<String, List<Waiter>> inFlight = new HashMap<>();
+
+    private CoordinateWeatherCache() {
+    }
+
+    // Permite cambiar el tamaño de celda, la validez y el número máximo de celdas guardadas.
+    // Al cambiar la precisión las claves antiguas dejan de coincidir, así que se vacía la caché
+    public static void configure(int newPrecision, long newTtlMillis, int newMaxEntries) {
+        if (newPrecision < 1 || newPrecision > Geohash.MAX_PRECISION || newTtlMillis < 0 || newMaxEntries < 1) {
+            throw new IllegalArgumentException("Configuración de caché no válida");
+        }
+        synchronized (LOCK) {
+            if (newPrecision != precision) {
+                entries.clear();
+            }
+            precision = newPrecision;
+            ttlMillis = newTtlMillis;
+            maxEntries = newMaxEntries;
+        }
+    }
+
+    public static void clear() {
+        synchronized (LOCK) {
+            entries.clear();
+        }
+    }
+
+    // Entrega el JSON del clima para las coordenadas en el hilo principal, desde la caché
+    // si la celda tiene una respuesta vigente o desde la red en caso contrario
+    public static void getWeather(double lat, double lon, String apiKey,
+                                  HttpClientProvider.JsonListener listener,
+                                  HttpClientProvider.ErrorListener errorListener) {
+        String cell;
+        synchronized (LOCK) {
+            cell = Geohash.encode(lat, lon, precision);
+
+            CachedResponse cached = entries.get(cell);
+            if (cached != null) {
+                if (System.currentTimeMillis() - cached.savedAt < ttlMillis) {
+                    mainHandler.post(() -> listener.onResponse(cached.json));
+                    return;
+                }
+                entries.remove(cell);
+            }
+
+            List<Waiter> waiters = inFlight.get(cell);
+            if (waiters != null) {
+                waiters.add(new Waiter(listener, errorListener));
+                return;
+            }
+            waiters = new ArrayList<>();
+            waiters.add(new Waiter(listener, errorListener));
+            inFlight.put(cell, waiters);
+        }
+
+        String url = WEATHER_URL +
+                "?lat=" + lat +
+                "&lon=" + lon +
+                "&units=metric" +
+                "&appid=" + apiKey;
+
+        // HttpClientProvider ya entrega en el hilo principal
+        HttpClientProvider.getJson(url, json -> {
+            List<Waiter> waiters;
+            synchronized (LOCK) {
+                entries.put(cell, new CachedResponse(json, System.currentTimeMillis()));
+                waiters = inFlight.remove(cell);
+            }
+            for (Waiter waiter : waiters) {
+                waiter.listener.onResponse(json);
+            }
+        }, error -> {
+            List<Waiter> waiters;
+            synchronized (LOCK) {
+                waiters = inFlight.remove(cell);
+            }
+            for (Waiter waiter : waiters) {
+                waiter.errorListener.onError(error);
+            }
+        });
+    }
+
+    // Respuesta guardada; los consumidores solo la leen
+    private static final class CachedResponse {
+        final JSONObject json;
+        final long savedAt;
+
+        CachedResponse(JSONObject json, long savedAt) {
+            this.json = json;
+            this.savedAt = savedAt;
+        }
+    }
+
+    private static final class Waiter {
+        final HttpClientProvider.JsonListener listener;
+        final HttpClientProvider.ErrorListener errorListener;
+
+        Waiter(HttpClientProvider.JsonListener listener, HttpClientProvider.ErrorListener errorListener) {
+            this.listener = listener;
+            this.errorListener = errorListener;
+        }
+    }
+}
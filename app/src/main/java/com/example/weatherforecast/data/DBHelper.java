@@ -3,33 +3,47 @@ package com.example.weatherforecast.data;
 import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import android.os.Build;
 import android.util.Log;
 
 import com.example.weatherforecast.model.CurrentWeather;
 import com.example.weatherforecast.model.OutfitRecommendation;
 import com.example.weatherforecast.model.SavedOutfitEntry;
 import com.example.weatherforecast.model.UserPreferences;
+import com.example.weatherforecast.util.DateCodec;
+import com.example.weatherforecast.util.GsonProvider;
+import com.example.weatherforecast.util.WeatherConditions;
+import com.example.weatherforecast.util.WeatherIconMapper;
 import com.google.gson.Gson;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
 
 /**
  * Clase encargada de gestionar la base de datos SQLite.
  * Gestiona usuarios, preferencias y outfits guardados.
+ * Cada outfit guarda el clima en columnas y sus prendas en tablas aparte (garments y
+ * outfit_garments), así las estadísticas se resuelven con SQL sin decodificar JSON
  */
 public class DBHelper extends SQLiteOpenHelper {
     private static final String TAG = "DBHelper";
 
     // Información de la base de datos
     private static final String DATABASE_NAME = "weather_forecast.db";
-    private static final int DATABASE_VERSION = 1;
+    // 1: esquema inicial
+    // 2: índice único (username, date) en saved_outfits para el upsert
+    // 3: saved_outfits.date pasa de texto dd-MM-yyyy a día epoch (INTEGER)
+    // 4: outfit y clima en columnas y tablas de prendas en lugar de JSON
+    // 5: columna conditions con la máscara de WeatherConditions del clima
+    private static final int DATABASE_VERSION = 5;
 
     // Tabla de usuarios
     public static final String TABLE_USERS = "users";
@@ -44,18 +58,101 @@ public class DBHelper extends SQLiteOpenHelper {
     public static final String COLUMN_COLD_TOLERANCE = "cold_tolerance";
     public static final String COLUMN_HEAT_TOLERANCE = "heat_tolerance";
 
-    // Tabla de outfits guardados
+    // Tabla de outfits guardados (uno por usuario y día, con el clima de ese momento)
     public static final String TABLE_SAVED_OUTFITS = "saved_outfits";
-    public static final String COLUMN_DATE = "date";
-    public static final String COLUMN_OUTFIT_JSON = "outfit_json";
-    public static final String COLUMN_WEATHER_JSON = "weather_json";
+    public static final String COLUMN_ID = "_id";
+    public static final String COLUMN_DATE = "date"; // Día epoch (días desde 1970-01-01 en hora local)
     public static final String COLUMN_CITY = "city";
-
-    // Formato de fecha usado en la app
-    private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("dd-MM-yyyy", Locale.getDefault());
+    public static final String COLUMN_STYLE = "style";
+    public static final String COLUMN_COUNTRY = "country";
+    public static final String COLUMN_TEMPERATURE = "temperature";
+    public static final String COLUMN_MAX_TEMPERATURE = "max_temperature";
+    public static final String COLUMN_MIN_TEMPERATURE = "min_temperature";
+    public static final String COLUMN_HUMIDITY = "humidity";
+    public static final String COLUMN_WEATHER_CONDITION = "weather_condition";
+    public static final String COLUMN_CONDITION_CODE = "condition_code"; // Ver WeatherIconMapper
+    public static final String COLUMN_CONDITIONS = "conditions"; // Máscara de WeatherConditions
+    public static final String COLUMN_WEATHER_ICON = "weather_icon";
+    public static final String COLUMN_SUMMARY = "summary";
+    private static final String INDEX_SAVED_OUTFITS_USER_DATE = "idx_saved_outfits_user_date";
+    private static final String INDEX_SAVED_OUTFITS_USER_TEMPERATURE = "idx_saved_outfits_user_temperature";
+
+    // Columnas JSON de la versión 3, solo se usan en la migración
+    private static final String LEGACY_COLUMN_OUTFIT_JSON = "outfit_json";
+    private static final String LEGACY_COLUMN_WEATHER_JSON = "weather_json";
+    // Nombre temporal de la tabla de la versión 3 mientras se migra a la 4
+    private static final String LEGACY_TABLE_SAVED_OUTFITS = TABLE_SAVED_OUTFITS + "_json";
+
+    // Tabla de prendas (cada nombre aparece una sola vez)
+    public static final String TABLE_GARMENTS = "garments";
+    public static final String COLUMN_GARMENT_NAME = "name";
+
+    // Tabla de prendas de cada outfit
+    public static final String TABLE_OUTFIT_GARMENTS = "outfit_garments";
+    public static final String COLUMN_OUTFIT_ID = "outfit_id";
+    public static final String COLUMN_GARMENT_ID = "garment_id";
+    public static final String COLUMN_CATEGORY = "category";
+    public static final String COLUMN_POSITION = "position"; // Orden dentro de la categoría
+    private static final String INDEX_OUTFIT_GARMENTS_GARMENT = "idx_outfit_garments_garment";
+
+    // Categorías de prenda (posición en OutfitRecommendation)
+    static final int CATEGORY_TOP = 0;
+    static final int CATEGORY_BOTTOM = 1;
+    static final int CATEGORY_FOOTWEAR = 2;
+    static final int CATEGORY_OUTERWEAR = 3;
+    static final int CATEGORY_ACCESSORIES = 4;
+    static final int CATEGORY_COUNT = 5;
+
+    // Columnas de valor de un outfit, en el orden en que se enlazan en las sentencias
+    static final String[] OUTFIT_VALUE_COLUMNS = {
+            COLUMN_CITY, COLUMN_STYLE, COLUMN_COUNTRY, COLUMN_TEMPERATURE, COLUMN_MAX_TEMPERATURE,
+            COLUMN_MIN_TEMPERATURE, COLUMN_HUMIDITY, COLUMN_WEATHER_CONDITION, COLUMN_CONDITION_CODE,
+            COLUMN_CONDITIONS, COLUMN_WEATHER_ICON, COLUMN_SUMMARY
+    };
+
+    // Índice único: búsqueda por (usuario, fecha) sin recorrer la tabla, base del upsert
+    // y de las consultas por rango de fechas
+    static final String SQL_CREATE_SAVED_OUTFITS_INDEX = "CREATE UNIQUE INDEX IF NOT EXISTS " +
+            INDEX_SAVED_OUTFITS_USER_DATE + " ON " + TABLE_SAVED_OUTFITS + " (" + COLUMN_USERNAME + ", " +
+            COLUMN_DATE + ")";
+
+    // Upsert de outfits: en SQLite 3.24+ (Android 11+) con ON CONFLICT; antes, UPDATE y si no
+    // afecta a ninguna fila, INSERT, dentro de la misma transacción
+    static final String SQL_UPSERT_OUTFIT = buildInsertOutfitSql() +
+            " ON CONFLICT(" + COLUMN_USERNAME + ", " + COLUMN_DATE + ") DO UPDATE SET " +
+            joinColumns(" = excluded.", true);
+    static final String SQL_UPDATE_OUTFIT = "UPDATE " + TABLE_SAVED_OUTFITS + " SET " +
+            joinColumns(" = ?", false) +
+            " WHERE " + COLUMN_USERNAME + " = ? AND " + COLUMN_DATE + " = ?";
+    static final String SQL_INSERT_OUTFIT = buildInsertOutfitSql();
+    static final String SQL_SELECT_OUTFIT_ID = "SELECT " + COLUMN_ID + " FROM " + TABLE_SAVED_OUTFITS +
+            " WHERE " + COLUMN_USERNAME + " = ? AND " + COLUMN_DATE + " = ?";
+    private static final String SQL_DELETE_OUTFIT_GARMENTS = "DELETE FROM " + TABLE_OUTFIT_GARMENTS +
+            " WHERE " + COLUMN_OUTFIT_ID + " = ?";
+    static final String SQL_INSERT_GARMENT = "INSERT OR IGNORE INTO " + TABLE_GARMENTS +
+            " (" + COLUMN_GARMENT_NAME + ") VALUES (?)";
+    static final String SQL_SELECT_GARMENT_ID = "SELECT " + COLUMN_ID + " FROM " + TABLE_GARMENTS +
+            " WHERE " + COLUMN_GARMENT_NAME + " = ?";
+    static final String SQL_INSERT_OUTFIT_GARMENT = "INSERT INTO " + TABLE_OUTFIT_GARMENTS + " (" +
+            COLUMN_OUTFIT_ID + ", " + COLUMN_GARMENT_ID + ", " + COLUMN_CATEGORY + ", " + COLUMN_POSITION +
+            ") VALUES (?, ?, ?, ?)";
+    private static final boolean SUPPORTS_UPSERT = Build.VERSION.SDK_INT >= Build.VERSION_CODES.R;
+
+    // Sentencias precompiladas, ligadas a la conexión con la que se compilaron
+    private SQLiteDatabase statementsDb;
+    private SQLiteStatement upsertOutfitStatement;
+    private SQLiteStatement updateOutfitStatement;
+    private SQLiteStatement insertOutfitStatement;
+    private SQLiteStatement selectOutfitIdStatement;
+    private SQLiteStatement deleteOutfitGarmentsStatement;
+    private SQLiteStatement insertGarmentStatement;
+    private SQLiteStatement selectGarmentIdStatement;
+    private SQLiteStatement insertOutfitGarmentStatement;
 
     public DBHelper(Context context) {
         super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        // WAL: las lecturas no se bloquean mientras se escribe (ver AppDatabase)
+        setWriteAheadLoggingEnabled(true);
     }
 
     @Override
@@ -76,29 +173,189 @@ public class DBHelper extends SQLiteOpenHelper {
                 "FOREIGN KEY (" + COLUMN_USERNAME + ") REFERENCES " +
                 TABLE_USERS + "(" + COLUMN_USERNAME + "))";
 
-        // Crear tabla de outfits guardados
-        String createSavedOutfitsTable = "CREATE TABLE " + TABLE_SAVED_OUTFITS + " (" +
-                "_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+        db.execSQL(createUsersTable);
+        db.execSQL(createPreferencesTable);
+
+        // Crear tablas de outfits guardados y prendas
+        createOutfitTables(db);
+    }
+
+    // Tablas de outfits (versión 4) con sus índices
+    private void createOutfitTables(SQLiteDatabase db) {
+        for (String sql : outfitTablesSql()) {
+            db.execSQL(sql);
+        }
+    }
+
+    // Sentencias que crean las tablas de outfits (versión 4) y sus índices, en orden
+    static String[] outfitTablesSql() {
+        return new String[]{
+                "CREATE TABLE " + TABLE_SAVED_OUTFITS + " (" +
+                        COLUMN_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                        COLUMN_USERNAME + " TEXT NOT NULL, " +
+                        COLUMN_DATE + " INTEGER NOT NULL, " +
+                        COLUMN_CITY + " TEXT NOT NULL, " +
+                        COLUMN_STYLE + " TEXT, " +
+                        COLUMN_COUNTRY + " TEXT, " +
+                        COLUMN_TEMPERATURE + " REAL, " +
+                        COLUMN_MAX_TEMPERATURE + " REAL, " +
+                        COLUMN_MIN_TEMPERATURE + " REAL, " +
+                        COLUMN_HUMIDITY + " INTEGER, " +
+                        COLUMN_WEATHER_CONDITION + " TEXT, " +
+                        COLUMN_CONDITION_CODE + " INTEGER, " +
+                        COLUMN_CONDITIONS + " INTEGER, " +
+                        COLUMN_WEATHER_ICON + " TEXT, " +
+                        COLUMN_SUMMARY + " TEXT, " +
+                        "FOREIGN KEY (" + COLUMN_USERNAME + ") REFERENCES " +
+                        TABLE_USERS + "(" + COLUMN_USERNAME + "))",
+
+                "CREATE TABLE " + TABLE_GARMENTS + " (" +
+                        COLUMN_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                        COLUMN_GARMENT_NAME + " TEXT NOT NULL UNIQUE)",
+
+                "CREATE TABLE " + TABLE_OUTFIT_GARMENTS + " (" +
+                        COLUMN_OUTFIT_ID + " INTEGER NOT NULL, " +
+                        COLUMN_GARMENT_ID + " INTEGER NOT NULL, " +
+                        COLUMN_CATEGORY + " INTEGER NOT NULL, " +
+                        COLUMN_POSITION + " INTEGER NOT NULL, " +
+                        "PRIMARY KEY (" + COLUMN_OUTFIT_ID + ", " + COLUMN_CATEGORY + ", " + COLUMN_POSITION + "), " +
+                        "FOREIGN KEY (" + COLUMN_OUTFIT_ID + ") REFERENCES " +
+                        TABLE_SAVED_OUTFITS + "(" + COLUMN_ID + "), " +
+                        "FOREIGN KEY (" + COLUMN_GARMENT_ID + ") REFERENCES " +
+                        TABLE_GARMENTS + "(" + COLUMN_ID + "))",
+
+                SQL_CREATE_SAVED_OUTFITS_INDEX,
+                // Estadísticas por temperatura y por prenda
+                "CREATE INDEX IF NOT EXISTS " + INDEX_SAVED_OUTFITS_USER_TEMPERATURE +
+                        " ON " + TABLE_SAVED_OUTFITS + " (" + COLUMN_USERNAME + ", " + COLUMN_TEMPERATURE + ")",
+                "CREATE INDEX IF NOT EXISTS " + INDEX_OUTFIT_GARMENTS_GARMENT +
+                        " ON " + TABLE_OUTFIT_GARMENTS + " (" + COLUMN_GARMENT_ID + ")"
+        };
+    }
+
+    // Tabla de outfits de la versión 3 (con JSON), solo para las migraciones anteriores a la 4
+    static String createLegacyOutfitsTableSql(String tableName) {
+        return "CREATE TABLE " + tableName + " (" +
+                COLUMN_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, " +
                 COLUMN_USERNAME + " TEXT NOT NULL, " +
-                COLUMN_DATE + " TEXT NOT NULL, " +
+                COLUMN_DATE + " INTEGER NOT NULL, " +
                 COLUMN_CITY + " TEXT NOT NULL, " +
-                COLUMN_OUTFIT_JSON + " TEXT NOT NULL, " +
-                COLUMN_WEATHER_JSON + " TEXT NOT NULL, " +
+                LEGACY_COLUMN_OUTFIT_JSON + " TEXT NOT NULL, " +
+                LEGACY_COLUMN_WEATHER_JSON + " TEXT NOT NULL, " +
                 "FOREIGN KEY (" + COLUMN_USERNAME + ") REFERENCES " +
                 TABLE_USERS + "(" + COLUMN_USERNAME + "))";
-
-        db.execSQL(createUsersTable);
-        db.execSQL(createPreferencesTable);
-        db.execSQL(createSavedOutfitsTable);
     }
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        // En caso de actualización de la BD, eliminar tablas y recrearlas
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_SAVED_OUTFITS);
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_PREFERENCES);
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_USERS);
-        onCreate(db);
+        // Migraciones paso a paso para no perder usuarios ni outfits
+        if (oldVersion < 2) {
+            // Quedarse con el último outfit de cada (usuario, fecha) antes de crear el índice único
+            db.execSQL("DELETE FROM " + TABLE_SAVED_OUTFITS + " WHERE _id NOT IN (" +
+                    "SELECT MAX(_id) FROM " + TABLE_SAVED_OUTFITS +
+                    " GROUP BY " + COLUMN_USERNAME + ", " + COLUMN_DATE + ")");
+            createSavedOutfitsIndex(db);
+        }
+        if (oldVersion < 3) {
+            migrateOutfitDatesToEpochDay(db);
+        }
+        if (oldVersion < 4) {
+            // Crea directamente las tablas de la versión actual (ya con conditions)
+            migrateOutfitsToColumns(db);
+        } else if (oldVersion < 5) {
+            for (String sql : addConditionsColumnSql()) {
+                db.execSQL(sql);
+            }
+        }
+    }
+
+    // Sentencias que añaden la columna conditions a la versión 4. En las filas existentes la máscara
+    // se deduce de condition_code, que es lo único que se guardaba del clima
+    static String[] addConditionsColumnSql() {
+        StringBuilder fromCode = new StringBuilder("CASE " + COLUMN_CONDITION_CODE);
+        for (int code = 0; code <= Byte.MAX_VALUE; code++) {
+            int conditions = WeatherConditions.fromConditionCode((byte) code);
+            if (conditions != WeatherConditions.NONE) {
+                fromCode.append(" WHEN ").append(code).append(" THEN ").append(conditions);
+            }
+        }
+        fromCode.append(" ELSE ").append(WeatherConditions.NONE).append(" END");
+
+        return new String[]{
+                "ALTER TABLE " + TABLE_SAVED_OUTFITS + " ADD COLUMN " + COLUMN_CONDITIONS + " INTEGER",
+                "UPDATE " + TABLE_SAVED_OUTFITS + " SET " + COLUMN_CONDITIONS + " = " + fromCode
+        };
+    }
+
+    // SQLite no permite cambiar el tipo de una columna: se copia a una tabla nueva convirtiendo
+    // dd-MM-yyyy a día epoch con julianday() (2440587.5 = 1970-01-01). Las filas con fechas
+    // que no se pueden interpretar se descartan
+    private void migrateOutfitDatesToEpochDay(SQLiteDatabase db) {
+        String newTable = TABLE_SAVED_OUTFITS + "_new";
+        String epochDay = "CAST(julianday(substr(" + COLUMN_DATE + ", 7, 4) || '-' || " +
+                "substr(" + COLUMN_DATE + ", 4, 2) || '-' || substr(" + COLUMN_DATE + ", 1, 2)) " +
+                "- 2440587.5 AS INTEGER)";
+
+        db.execSQL(createLegacyOutfitsTableSql(newTable));
+        db.execSQL("INSERT INTO " + newTable + " (_id, " + COLUMN_USERNAME + ", " + COLUMN_DATE + ", " +
+                COLUMN_CITY + ", " + LEGACY_COLUMN_OUTFIT_JSON + ", " + LEGACY_COLUMN_WEATHER_JSON + ") " +
+                "SELECT _id, " + COLUMN_USERNAME + ", " + epochDay + ", " +
+                COLUMN_CITY + ", " + LEGACY_COLUMN_OUTFIT_JSON + ", " + LEGACY_COLUMN_WEATHER_JSON +
+                " FROM " + TABLE_SAVED_OUTFITS +
+                " WHERE " + epochDay + " IS NOT NULL");
+        db.execSQL("DROP TABLE " + TABLE_SAVED_OUTFITS);
+        db.execSQL("ALTER TABLE " + newTable + " RENAME TO " + TABLE_SAVED_OUTFITS);
+        createSavedOutfitsIndex(db);
+    }
+
+    // Decodifica una vez cada fila JSON de la versión 3 y la vuelve a escribir en las tablas nuevas.
+    // Las filas que no se pueden decodificar se descartan
+    private void migrateOutfitsToColumns(SQLiteDatabase db) {
+        for (String sql : prepareColumnsMigrationSql()) {
+            db.execSQL(sql);
+        }
+        prepareStatements(db);
+
+        Gson gson = GsonProvider.get();
+        try (Cursor cursor = db.rawQuery(SQL_SELECT_LEGACY_OUTFITS, null)) {
+            while (cursor.moveToNext()) {
+                try {
+                    OutfitRecommendation outfit = gson.fromJson(cursor.getString(2), OutfitRecommendation.class);
+                    CurrentWeather weather = gson.fromJson(cursor.getString(3), CurrentWeather.class);
+
+                    insertOutfitStatement.clearBindings();
+                    insertOutfitStatement.bindString(1, cursor.getString(0));
+                    insertOutfitStatement.bindLong(2, cursor.getLong(1));
+                    bindOutfitValues(insertOutfitStatement, 3, outfit, weather);
+                    long outfitId = insertOutfitStatement.executeInsert();
+
+                    writeOutfitGarments(outfitId, outfit);
+                } catch (Exception e) {
+                    Log.e(TAG, "Outfit no migrado", e);
+                }
+            }
+        }
+
+        db.execSQL(SQL_DROP_LEGACY_OUTFITS);
+    }
+
+    // Sentencias que apartan la tabla de la versión 3 y crean las de la 4, en orden.
+    // El índice se va con la tabla renombrada; se borra para reutilizar su nombre
+    static String[] prepareColumnsMigrationSql() {
+        String[] tables = outfitTablesSql();
+        String[] sql = new String[tables.length + 2];
+        sql[0] = "ALTER TABLE " + TABLE_SAVED_OUTFITS + " RENAME TO " + LEGACY_TABLE_SAVED_OUTFITS;
+        sql[1] = "DROP INDEX IF EXISTS " + INDEX_SAVED_OUTFITS_USER_DATE;
+        System.arraycopy(tables, 0, sql, 2, tables.length);
+        return sql;
+    }
+
+    static final String SQL_SELECT_LEGACY_OUTFITS = "SELECT " + COLUMN_USERNAME + ", " + COLUMN_DATE + ", " +
+            LEGACY_COLUMN_OUTFIT_JSON + ", " + LEGACY_COLUMN_WEATHER_JSON + " FROM " + LEGACY_TABLE_SAVED_OUTFITS;
+    static final String SQL_DROP_LEGACY_OUTFITS = "DROP TABLE " + LEGACY_TABLE_SAVED_OUTFITS;
+
+    private void createSavedOutfitsIndex(SQLiteDatabase db) {
+        db.execSQL(SQL_CREATE_SAVED_OUTFITS_INDEX);
     }
 
     // Método que registra un nuevo usuario
@@ -139,6 +396,11 @@ public class DBHelper extends SQLiteOpenHelper {
         return exists;
     }
 
+    // Número de cuentas registradas en el dispositivo
+    long getUserCount() {
+        return DatabaseUtils.queryNumEntries(this.getReadableDatabase(), TABLE_USERS);
+    }
+
     // Método que verifica si el usuario y contraseña son válidos
     public boolean checkUser(String username, String password) {
         SQLiteDatabase db = this.getReadableDatabase();
@@ -162,8 +424,7 @@ public class DBHelper extends SQLiteOpenHelper {
         ContentValues values = new ContentValues();
 
         // Fecha actual en formato String
-        String currentDate = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault())
-                .format(new Date());
+        String currentDate = DateCodec.formatDateTime(System.currentTimeMillis());
 
         values.put(COLUMN_LAST_LOGIN, currentDate);
 
@@ -219,130 +480,430 @@ public class DBHelper extends SQLiteOpenHelper {
 
         Cursor cursor = db.rawQuery(query, new String[] {username});
 
-        UserPreferences preferences = new UserPreferences();
-        preferences.setName(username); // Establecer el nombre
+        UserPreferences preferences = new UserPreferences().withName(username); // Establecer el nombre
 
         if (cursor.moveToFirst()) {
-            preferences.setSurname(cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_SURNAME)));
-
-            // Convertir string a enum para género
-            String genderStr = cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_GENDER));
-            UserPreferences.Gender gender = UserPreferences.Gender.valueOf(genderStr);
-            preferences.setGender(gender);
-
-            // Convertir string a enum para tolerancia al frío
-            String coldToleranceStr = cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_COLD_TOLERANCE));
-            UserPreferences.Tolerance coldTolerance = UserPreferences.Tolerance.valueOf(coldToleranceStr);
-            preferences.setColdTolerance(coldTolerance);
-
-            // Convertir string a enum para tolerancia al calor
-            String heatToleranceStr = cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_HEAT_TOLERANCE));
-            UserPreferences.Tolerance heatTolerance = UserPreferences.Tolerance.valueOf(heatToleranceStr);
-            preferences.setHeatTolerance(heatTolerance);
+            // Convertir los textos guardados a sus enums
+            String surname = cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_SURNAME));
+            UserPreferences.Gender gender = UserPreferences.Gender.valueOf(
+                    cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_GENDER)));
+            UserPreferences.Tolerance coldTolerance = UserPreferences.Tolerance.valueOf(
+                    cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_COLD_TOLERANCE)));
+            UserPreferences.Tolerance heatTolerance = UserPreferences.Tolerance.valueOf(
+                    cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_HEAT_TOLERANCE)));
+
+            preferences = new UserPreferences(username, surname, gender, coldTolerance, heatTolerance);
         }
 
         cursor.close();
         return preferences;
     }
 
-    // Método que guarda un outfit en la base de datos
-    public boolean saveOutfit(String username, OutfitRecommendation outfit, CurrentWeather weather, Date date) {
+    // Método que guarda un outfit en la base de datos (uno por usuario y día; si ya existe se reemplaza)
+    public synchronized boolean saveOutfit(String username, OutfitRecommendation outfit, CurrentWeather weather, Date date) {
         SQLiteDatabase db = this.getWritableDatabase();
-        ContentValues values = new ContentValues();
 
-        // Convertir outfit y clima a JSON
-        Gson gson = new Gson();
-        String outfitJson = gson.toJson(outfit);
-        String weatherJson = gson.toJson(weather);
-        String dateStr = DATE_FORMAT.format(date);
+        db.beginTransaction();
+        try {
+            writeOutfit(db, username, DateCodec.toEpochDay(date.getTime()), outfit, weather);
+            db.setTransactionSuccessful();
+            return true;
+        } catch (SQLException | IllegalArgumentException | NullPointerException e) {
+            // IllegalArgumentException / NullPointerException: falta algún valor obligatorio
+            Log.e(TAG, "Error al guardar el outfit", e);
+            return false;
+        } finally {
+            db.endTransaction();
+        }
+    }
 
-        values.put(COLUMN_USERNAME, username);
-        values.put(COLUMN_DATE, dateStr);
-        values.put(COLUMN_CITY, weather.getLocation());
-        values.put(COLUMN_OUTFIT_JSON, outfitJson);
-        values.put(COLUMN_WEATHER_JSON, weatherJson);
+    // Guarda (o reemplaza) el outfit de un día con sus prendas. Se llama dentro de una
+    // transacción: la de saveOutfit o la de un lote de importación (ver OutfitBackup)
+    synchronized void writeOutfit(SQLiteDatabase db, String username, long epochDay,
+                                  OutfitRecommendation outfit, CurrentWeather weather) {
+        prepareStatements(db);
+
+        if (SUPPORTS_UPSERT) {
+            upsertOutfitStatement.clearBindings();
+            upsertOutfitStatement.bindString(1, username);
+            upsertOutfitStatement.bindLong(2, epochDay);
+            bindOutfitValues(upsertOutfitStatement, 3, outfit, weather);
+            upsertOutfitStatement.executeInsert();
+        } else {
+            updateOutfitStatement.clearBindings();
+            int next = bindOutfitValues(updateOutfitStatement, 1, outfit, weather);
+            updateOutfitStatement.bindString(next, username);
+            updateOutfitStatement.bindLong(next + 1, epochDay);
+
+            if (updateOutfitStatement.executeUpdateDelete() == 0) {
+                insertOutfitStatement.clearBindings();
+                insertOutfitStatement.bindString(1, username);
+                insertOutfitStatement.bindLong(2, epochDay);
+                bindOutfitValues(insertOutfitStatement, 3, outfit, weather);
+                insertOutfitStatement.executeInsert();
+            }
+        }
 
-        // Verificar si ya existe un outfit para esta fecha y usuario
-        String query = "SELECT * FROM " + TABLE_SAVED_OUTFITS +
-                " WHERE " + COLUMN_USERNAME + " = ? AND " +
-                COLUMN_DATE + " = ?";
+        // El upsert no devuelve el _id de la fila actualizada: se busca por (usuario, fecha)
+        selectOutfitIdStatement.clearBindings();
+        selectOutfitIdStatement.bindString(1, username);
+        selectOutfitIdStatement.bindLong(2, epochDay);
+        long outfitId = selectOutfitIdStatement.simpleQueryForLong();
+
+        // Las prendas anteriores del día se sustituyen por las nuevas
+        deleteOutfitGarmentsStatement.bindLong(1, outfitId);
+        deleteOutfitGarmentsStatement.executeUpdateDelete();
+        writeOutfitGarments(outfitId, outfit);
+    }
 
-        Cursor cursor = db.rawQuery(query, new String[] {username, dateStr});
+    // Indica si el usuario ya tiene un outfit guardado para ese día
+    boolean hasOutfit(SQLiteDatabase db, String username, long epochDay) {
+        try (Cursor cursor = db.rawQuery("SELECT 1 FROM " + TABLE_SAVED_OUTFITS + " WHERE " +
+                COLUMN_USERNAME + " = ? AND " + COLUMN_DATE + " = ?",
+                new String[]{username, String.valueOf(epochDay)})) {
+            return cursor.moveToFirst();
+        }
+    }
+
+    // Enlaza las columnas de OUTFIT_VALUE_COLUMNS a partir de la posición first.
+    // Devuelve la siguiente posición libre
+    private static int bindOutfitValues(SQLiteStatement statement, int first, OutfitRecommendation outfit,
+                                        CurrentWeather weather) {
+        int i = first;
+        statement.bindString(i++, weather.getLocation());
+        bindNullable(statement, i++, outfit.getStyle() != null ? outfit.getStyle().name() : null);
+        bindNullable(statement, i++, weather.getCountry());
+        statement.bindDouble(i++, weather.getTemperature());
+        statement.bindDouble(i++, weather.getMaxTemperature());
+        statement.bindDouble(i++, weather.getMinTemperature());
+        statement.bindLong(i++, weather.getHumidity());
+        bindNullable(statement, i++, weather.getWeatherCondition());
+        statement.bindLong(i++, WeatherIconMapper.getConditionCodeFromEmoji(weather.getWeatherIcon()));
+        statement.bindLong(i++, conditionsOf(weather));
+        bindNullable(statement, i++, weather.getWeatherIcon());
+        bindNullable(statement, i++, weather.getSummary());
+        return i;
+    }
 
-        long result;
-        if (cursor.getCount() > 0) {
-            // Actualizar el outfit existente
-            result = db.update(TABLE_SAVED_OUTFITS, values,
-                    COLUMN_USERNAME + " = ? AND " + COLUMN_DATE + " = ?",
-                    new String[] {username, dateStr});
+    // Máscara de condiciones del clima. Los datos antiguos (JSON de la versión 3, OutfitPrefs) no
+    // la tienen y se deduce del emoji
+    static int conditionsOf(CurrentWeather weather) {
+        int conditions = weather.getConditions();
+        return conditions != WeatherConditions.NONE ? conditions : WeatherConditions.fromEmoji(weather.getWeatherIcon());
+    }
+
+    private static void bindNullable(SQLiteStatement statement, int index, String value) {
+        if (value == null) {
+            statement.bindNull(index);
         } else {
-            // Insertar nuevo outfit
-            result = db.insert(TABLE_SAVED_OUTFITS, null, values);
+            statement.bindString(index, value);
         }
+    }
 
-        cursor.close();
-        return result != -1;
+    // Escribe las prendas de un outfit por categoría y en orden. Cada nombre se guarda una
+    // sola vez en garments. Se llama dentro de una transacción
+    private void writeOutfitGarments(long outfitId, OutfitRecommendation outfit) {
+        List<List<String>> categories = garmentsByCategory(outfit);
+        for (int category = 0; category < CATEGORY_COUNT; category++) {
+            List<String> garments = categories.get(category);
+            if (garments == null) {
+                continue;
+            }
+            for (int position = 0; position < garments.size(); position++) {
+                String name = garments.get(position);
+                if (name == null) {
+                    continue;
+                }
+
+                insertGarmentStatement.bindString(1, name);
+                insertGarmentStatement.executeInsert();
+                selectGarmentIdStatement.bindString(1, name);
+                long garmentId = selectGarmentIdStatement.simpleQueryForLong();
+
+                insertOutfitGarmentStatement.bindLong(1, outfitId);
+                insertOutfitGarmentStatement.bindLong(2, garmentId);
+                insertOutfitGarmentStatement.bindLong(3, category);
+                insertOutfitGarmentStatement.bindLong(4, position);
+                insertOutfitGarmentStatement.executeInsert();
+            }
+        }
+    }
+
+    // Listas de prendas en el orden de las constantes CATEGORY_*
+    private static List<List<String>> garmentsByCategory(OutfitRecommendation outfit) {
+        List<List<String>> categories = new ArrayList<>(CATEGORY_COUNT);
+        categories.add(outfit.getTopItems());
+        categories.add(outfit.getBottomItems());
+        categories.add(outfit.getFootwear());
+        categories.add(outfit.getOuterWear());
+        categories.add(outfit.getAccessories());
+        return categories;
+    }
+
+    // Compila las sentencias la primera vez (o si la conexión ha cambiado)
+    private void prepareStatements(SQLiteDatabase db) {
+        if (statementsDb == db && db.isOpen()) {
+            return;
+        }
+        statementsDb = db;
+        if (SUPPORTS_UPSERT) {
+            upsertOutfitStatement = db.compileStatement(SQL_UPSERT_OUTFIT);
+        } else {
+            updateOutfitStatement = db.compileStatement(SQL_UPDATE_OUTFIT);
+        }
+        // La migración a la versión 4 inserta siempre con INSERT
+        insertOutfitStatement = db.compileStatement(SQL_INSERT_OUTFIT);
+        selectOutfitIdStatement = db.compileStatement(SQL_SELECT_OUTFIT_ID);
+        deleteOutfitGarmentsStatement = db.compileStatement(SQL_DELETE_OUTFIT_GARMENTS);
+        insertGarmentStatement = db.compileStatement(SQL_INSERT_GARMENT);
+        selectGarmentIdStatement = db.compileStatement(SQL_SELECT_GARMENT_ID);
+        insertOutfitGarmentStatement = db.compileStatement(SQL_INSERT_OUTFIT_GARMENT);
+    }
+
+    private static String buildInsertOutfitSql() {
+        StringBuilder columns = new StringBuilder(COLUMN_USERNAME + ", " + COLUMN_DATE);
+        StringBuilder values = new StringBuilder("?, ?");
+        for (String column : OUTFIT_VALUE_COLUMNS) {
+            columns.append(", ").append(column);
+            values.append(", ?");
+        }
+        return "INSERT INTO " + TABLE_SAVED_OUTFITS + " (" + columns + ") VALUES (" + values + ")";
     }
 
+    // "columna<suffix>" separadas por comas; si repeatColumn, la columna se repite tras el sufijo
+    // (para "col = excluded.col")
+    private static String joinColumns(String suffix, boolean repeatColumn) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < OUTFIT_VALUE_COLUMNS.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(OUTFIT_VALUE_COLUMNS[i]).append(suffix);
+            if (repeatColumn) {
+                builder.append(OUTFIT_VALUE_COLUMNS[i]);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static final String OUTFIT_COLUMNS = COLUMN_ID + ", " + COLUMN_DATE + ", " +
+            COLUMN_CITY + ", " + COLUMN_STYLE + ", " + COLUMN_COUNTRY + ", " + COLUMN_TEMPERATURE + ", " +
+            COLUMN_MAX_TEMPERATURE + ", " + COLUMN_MIN_TEMPERATURE + ", " + COLUMN_HUMIDITY + ", " +
+            COLUMN_WEATHER_CONDITION + ", " + COLUMN_CONDITIONS + ", " + COLUMN_WEATHER_ICON + ", " + COLUMN_SUMMARY;
+
+    // Consultas de outfits (todas con OUTFIT_COLUMNS) sobre el índice (username, date)
+    static final String SQL_SELECT_OUTFIT_BY_DATE = "SELECT " + OUTFIT_COLUMNS + " FROM " + TABLE_SAVED_OUTFITS +
+            " WHERE " + COLUMN_USERNAME + " = ? AND " + COLUMN_DATE + " = ?";
+    static final String SQL_SELECT_OUTFITS_BETWEEN = "SELECT " + OUTFIT_COLUMNS + " FROM " + TABLE_SAVED_OUTFITS +
+            " WHERE " + COLUMN_USERNAME + " = ? AND " + COLUMN_DATE + " BETWEEN ? AND ?" +
+            " ORDER BY " + COLUMN_DATE + " ASC";
+    static final String SQL_SELECT_OUTFITS_BEFORE = "SELECT " + OUTFIT_COLUMNS + " FROM " + TABLE_SAVED_OUTFITS +
+            " WHERE " + COLUMN_USERNAME + " = ? AND " + COLUMN_DATE + " < ?" +
+            " ORDER BY " + COLUMN_DATE + " DESC LIMIT ?";
+    static final String SQL_SELECT_OUTFITS_AFTER = "SELECT " + OUTFIT_COLUMNS + " FROM " + TABLE_SAVED_OUTFITS +
+            " WHERE " + COLUMN_USERNAME + " = ? AND " + COLUMN_DATE + " > ?" +
+            " ORDER BY " + COLUMN_DATE + " ASC LIMIT ?";
+    static final String SQL_SELECT_LATEST_OUTFIT = "SELECT " + OUTFIT_COLUMNS + " FROM " + TABLE_SAVED_OUTFITS +
+            " WHERE " + COLUMN_USERNAME + " = ?" +
+            " ORDER BY " + COLUMN_DATE + " DESC LIMIT 1";
+
     // Método que obtiene un outfit guardado para una fecha
     public SavedOutfitEntry getOutfitByDate(String username, Date date) {
-        SQLiteDatabase db = this.getReadableDatabase();
-        String dateStr = DATE_FORMAT.format(date);
+        long epochDay = DateCodec.toEpochDay(date.getTime());
 
-        String query = "SELECT * FROM " + TABLE_SAVED_OUTFITS +
-                " WHERE " + COLUMN_USERNAME + " = ? AND " +
-                COLUMN_DATE + " = ?";
-
-        Cursor cursor = db.rawQuery(query, new String[] {username, dateStr});
+        List<SavedOutfitEntry> entries = queryOutfits(SQL_SELECT_OUTFIT_BY_DATE, username, String.valueOf(epochDay));
+        return entries.isEmpty() ? null : entries.get(0);
+    }
 
-        SavedOutfitEntry entry = null;
+    // Método que obtiene los outfits guardados entre dos fechas (ambas incluidas), del más antiguo al más reciente
+    public List<SavedOutfitEntry> getOutfitsBetween(String username, Date from, Date to) {
+        long fromDay = DateCodec.toEpochDay(from.getTime());
+        long toDay = DateCodec.toEpochDay(to.getTime());
 
-        if (cursor.moveToFirst()) {
-            String outfitJson = cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_OUTFIT_JSON));
-            String weatherJson = cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_WEATHER_JSON));
+        // Recorrido por rango sobre el índice (username, date)
+        return queryOutfits(SQL_SELECT_OUTFITS_BETWEEN, username, String.valueOf(fromDay), String.valueOf(toDay));
+    }
 
-            Gson gson = new Gson();
-            OutfitRecommendation outfit = gson.fromJson(outfitJson, OutfitRecommendation.class);
-            CurrentWeather weather = gson.fromJson(weatherJson, CurrentWeather.class);
+    // Historial paginado por fecha (keyset): una página de outfits anteriores a beforeEpochDay,
+    // del más reciente al más antiguo. Para la primera página se usa Long.MAX_VALUE.
+    // Cada página es un recorrido acotado del índice (username, date), sin OFFSET, así que
+    // cuesta lo mismo al principio que tras años de entradas
+    public List<SavedOutfitEntry> getOutfitsBefore(String username, long beforeEpochDay, int limit) {
+        return queryOutfits(SQL_SELECT_OUTFITS_BEFORE, username, String.valueOf(beforeEpochDay), String.valueOf(limit));
+    }
 
-            entry = new SavedOutfitEntry(outfit, weather, date);
-        }
+    // Página de outfits posteriores a afterEpochDay, del más antiguo al más reciente
+    // (para volver hacia atrás en el historial)
+    public List<SavedOutfitEntry> getOutfitsAfter(String username, long afterEpochDay, int limit) {
+        return queryOutfits(SQL_SELECT_OUTFITS_AFTER, username, String.valueOf(afterEpochDay), String.valueOf(limit));
+    }
 
-        cursor.close();
-        return entry;
+    // Todos los outfits de un usuario con sus prendas, una fila por prenda (o una sola fila sin
+    // prenda si el outfit no tiene ninguna), ordenados por fecha, categoría y posición.
+    // Lo recorre OutfitBackup sin cargar el historial en memoria
+    Cursor queryOutfitsForExport(String username) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        String query = "SELECT o." + COLUMN_DATE + ", o." + COLUMN_CITY + ", o." + COLUMN_STYLE + ", o." +
+                COLUMN_COUNTRY + ", o." + COLUMN_TEMPERATURE + ", o." + COLUMN_MAX_TEMPERATURE + ", o." +
+                COLUMN_MIN_TEMPERATURE + ", o." + COLUMN_HUMIDITY + ", o." + COLUMN_WEATHER_CONDITION + ", o." +
+                COLUMN_WEATHER_ICON + ", o." + COLUMN_SUMMARY + ", o." + COLUMN_CONDITIONS + ", og." + COLUMN_CATEGORY +
+                ", g." + COLUMN_GARMENT_NAME +
+                " FROM " + TABLE_SAVED_OUTFITS + " o" +
+                " LEFT JOIN " + TABLE_OUTFIT_GARMENTS + " og ON og." + COLUMN_OUTFIT_ID + " = o." + COLUMN_ID +
+                " LEFT JOIN " + TABLE_GARMENTS + " g ON g." + COLUMN_ID + " = og." + COLUMN_GARMENT_ID +
+                " WHERE o." + COLUMN_USERNAME + " = ?" +
+                " ORDER BY o." + COLUMN_DATE + ", og." + COLUMN_CATEGORY + ", og." + COLUMN_POSITION;
+
+        return db.rawQuery(query, new String[]{username});
     }
 
-    // Método que obtiene el último outfit guardado
+    // Método que obtiene el último outfit guardado (el de fecha más reciente)
     public SavedOutfitEntry getLatestOutfit(String username) {
+        // El índice (username, date) ya está ordenado: se lee la última entrada del usuario
+        List<SavedOutfitEntry> entries = queryOutfits(SQL_SELECT_LATEST_OUTFIT, username);
+        return entries.isEmpty() ? null : entries.get(0);
+    }
+
+    // Método que obtiene la prenda más usada por el usuario en los outfits guardados con una
+    // temperatura inferior a la indicada (null si no hay ninguno). Se resuelve en SQL con los
+    // índices (username, temperature) y garment_id, sin decodificar outfits
+    public String getMostWornGarment(String username, double belowTemperature) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        String query = "SELECT g." + COLUMN_GARMENT_NAME + ", COUNT(*) AS uses" +
+                " FROM " + TABLE_SAVED_OUTFITS + " o" +
+                " JOIN " + TABLE_OUTFIT_GARMENTS + " og ON og." + COLUMN_OUTFIT_ID + " = o." + COLUMN_ID +
+                " JOIN " + TABLE_GARMENTS + " g ON g." + COLUMN_ID + " = og." + COLUMN_GARMENT_ID +
+                " WHERE o." + COLUMN_USERNAME + " = ? AND o." + COLUMN_TEMPERATURE + " < ?" +
+                " GROUP BY og." + COLUMN_GARMENT_ID +
+                " ORDER BY uses DESC, g." + COLUMN_GARMENT_NAME + " ASC LIMIT 1";
+
+        try (Cursor cursor = db.rawQuery(query, new String[]{username, String.valueOf(belowTemperature)})) {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        } catch (SQLException e) {
+            Log.e(TAG, "Error al calcular la prenda más usada", e);
+            return null;
+        }
+    }
+
+    // Ejecuta una consulta de outfits (con OUTFIT_COLUMNS) y convierte cada fila.
+    // Las prendas de todas las filas se cargan después con una sola consulta. Los errores de
+    // SQLite llegan al que llama (AppDatabase los entrega como fallo, no como lista vacía)
+    private List<SavedOutfitEntry> queryOutfits(String query, String... args) {
         SQLiteDatabase db = this.getReadableDatabase();
-        SavedOutfitEntry latestOutfit = null;
+        List<SavedOutfitEntry> entries = new ArrayList<>();
+        List<Long> outfitIds = new ArrayList<>();
+        List<String> styles = new ArrayList<>();
+        List<CurrentWeather> weathers = new ArrayList<>();
+        List<Date> dates = new ArrayList<>();
+
+        try (Cursor cursor = db.rawQuery(query, args)) {
+            int idIndex = cursor.getColumnIndexOrThrow(COLUMN_ID);
+            int dateIndex = cursor.getColumnIndexOrThrow(COLUMN_DATE);
+            int cityIndex = cursor.getColumnIndexOrThrow(COLUMN_CITY);
+            int styleIndex = cursor.getColumnIndexOrThrow(COLUMN_STYLE);
+            int countryIndex = cursor.getColumnIndexOrThrow(COLUMN_COUNTRY);
+            int temperatureIndex = cursor.getColumnIndexOrThrow(COLUMN_TEMPERATURE);
+            int maxIndex = cursor.getColumnIndexOrThrow(COLUMN_MAX_TEMPERATURE);
+            int minIndex = cursor.getColumnIndexOrThrow(COLUMN_MIN_TEMPERATURE);
+            int humidityIndex = cursor.getColumnIndexOrThrow(COLUMN_HUMIDITY);
+            int conditionIndex = cursor.getColumnIndexOrThrow(COLUMN_WEATHER_CONDITION);
+            int conditionsIndex = cursor.getColumnIndexOrThrow(COLUMN_CONDITIONS);
+            int iconIndex = cursor.getColumnIndexOrThrow(COLUMN_WEATHER_ICON);
+            int summaryIndex = cursor.getColumnIndexOrThrow(COLUMN_SUMMARY);
+
+            while (cursor.moveToNext()) {
+                outfitIds.add(cursor.getLong(idIndex));
+                styles.add(cursor.getString(styleIndex));
+                dates.add(new Date(DateCodec.startOfDay(cursor.getLong(dateIndex))));
+                weathers.add(new CurrentWeather(
+                        cursor.getString(cityIndex),
+                        cursor.getString(countryIndex),
+                        cursor.getDouble(temperatureIndex),
+                        cursor.getDouble(maxIndex),
+                        cursor.getDouble(minIndex),
+                        cursor.getString(conditionIndex),
+                        cursor.getString(iconIndex),
+                        cursor.getString(summaryIndex),
+                        cursor.getInt(humidityIndex),
+                        cursor.getInt(conditionsIndex)));
+            }
+        }
 
-        //try-catch que encapsula la consulta a la base de datos y si hay un error lo maneja
-        try {
-            // Query para obtener el último outfit guardado ordenado por fecha
-            String query = "SELECT * FROM outfits WHERE username = ? ORDER BY save_date DESC LIMIT 1";
-            Cursor cursor = db.rawQuery(query, new String[]{username});
-
-            if (cursor.moveToFirst()) {
-                // Obtener datos de las columnas
-                String outfitJson = cursor.getString(cursor.getColumnIndex("outfit_data"));
-                String weatherJson = cursor.getString(cursor.getColumnIndex("weather_data"));
-                long dateMillis = cursor.getLong(cursor.getColumnIndex("save_date"));
-
-                Gson gson = new Gson();
-                OutfitRecommendation outfit = gson.fromJson(outfitJson, OutfitRecommendation.class);
-                CurrentWeather weather = gson.fromJson(weatherJson, CurrentWeather.class);
-                Date saveDate = new Date(dateMillis);
-
-                latestOutfit = new SavedOutfitEntry(outfit, weather, saveDate);
+        if (outfitIds.isEmpty()) {
+            return entries;
+        }
+        Map<Long, List<List<String>>> garments = queryGarments(db, query, args);
+        for (int i = 0; i < outfitIds.size(); i++) {
+            List<List<String>> categories = garments.get(outfitIds.get(i));
+            if (categories == null) {
+                categories = emptyCategories();
             }
-            cursor.close();
-        } catch (Exception e) {
-            e.printStackTrace();
-        } finally {
-            db.close();
+            OutfitRecommendation outfit = new OutfitRecommendation(
+                    categories.get(CATEGORY_TOP),
+                    categories.get(CATEGORY_BOTTOM),
+                    categories.get(CATEGORY_FOOTWEAR),
+                    categories.get(CATEGORY_OUTERWEAR),
+                    categories.get(CATEGORY_ACCESSORIES),
+                    parseStyle(styles.get(i)));
+
+            entries.add(new SavedOutfitEntry(outfit, weathers.get(i), dates.get(i)));
         }
 
-        return latestOutfit;
+        return entries;
+    }
+
+    // Prendas de los outfits que devuelve outfitQuery (con sus mismos argumentos), agrupadas por
+    // outfit y categoría en su orden original. Los outfits se seleccionan con una subconsulta y
+    // no con IN (?, ?, ...): el número de argumentos no crece con el rango (antes de Android 12
+    // SQLite no admite más de 999)
+    private static Map<Long, List<List<String>>> queryGarments(SQLiteDatabase db, String outfitQuery,
+                                                              String[] args) {
+        Map<Long, List<List<String>>> result = new HashMap<>();
+        try (Cursor cursor = db.rawQuery(garmentsForOutfitsSql(outfitQuery), args)) {
+            while (cursor.moveToNext()) {
+                long outfitId = cursor.getLong(0);
+                int category = cursor.getInt(1);
+                if (category < 0 || category >= CATEGORY_COUNT) {
+                    continue;
+                }
+
+                List<List<String>> categories = result.get(outfitId);
+                if (categories == null) {
+                    categories = emptyCategories();
+                    result.put(outfitId, categories);
+                }
+                categories.get(category).add(cursor.getString(2));
+            }
+        }
+        return result;
+    }
+
+    // Consulta (outfit_id, categoría, prenda) de los outfits de outfitQuery, ordenada por outfit,
+    // categoría y posición
+    static String garmentsForOutfitsSql(String outfitQuery) {
+        return "SELECT og." + COLUMN_OUTFIT_ID + ", og." + COLUMN_CATEGORY + ", g." + COLUMN_GARMENT_NAME +
+                " FROM " + TABLE_OUTFIT_GARMENTS + " og" +
+                " JOIN " + TABLE_GARMENTS + " g ON g." + COLUMN_ID + " = og." + COLUMN_GARMENT_ID +
+                " WHERE og." + COLUMN_OUTFIT_ID + " IN (SELECT " + COLUMN_ID + " FROM (" + outfitQuery + "))" +
+                " ORDER BY og." + COLUMN_OUTFIT_ID + ", og." + COLUMN_CATEGORY + ", og." + COLUMN_POSITION;
+    }
+
+    private static List<List<String>> emptyCategories() {
+        List<List<String>> categories = new ArrayList<>(CATEGORY_COUNT);
+        for (int i = 0; i < CATEGORY_COUNT; i++) {
+            categories.add(new ArrayList<>());
+        }
+        return categories;
+    }
+
+    private static OutfitRecommendation.Style parseStyle(String style) {
+        if (style == null) {
+            return null;
+        }
+        try {
+            return OutfitRecommendation.Style.valueOf(style);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
     }
-}
\ No newline at end of file
+}
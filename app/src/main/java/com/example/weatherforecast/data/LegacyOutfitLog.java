@@ -0,0 +1,85 @@
+package com.example.weatherforecast.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.example.weatherforecast.model.CurrentWeather;
+import com.example.weatherforecast.model.OutfitRecommendation;
+import com.example.weatherforecast.util.DateCodec;
+import com.example.weatherforecast.util.GsonProvider;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+import java.util.Map;
+
+/**
+ * Migración del historial de outfits que se guardaba en el fichero de SharedPreferences
+ * OutfitPrefs (una clave outfit_yyyy-MM-dd con el JSON de SavedOutfitEntry por día, sin límite).
+ * Ese fichero se leía y reescribía entero en cada acceso, así que ahora el historial vive solo
+ * en saved_outfits. Se migran todas las entradas y después el fichero se borra.
+ * El fichero era común a todo el dispositivo y no guarda el usuario: solo se puede saber de quién
+ * es si en el dispositivo hay una única cuenta. Con varias cuentas el fichero se deja como está
+ */
+final class LegacyOutfitLog {
+    private static final String PREFS_NAME = "OutfitPrefs";
+    private static final String KEY_PREFIX = "outfit_";
+
+    private LegacyOutfitLog() {
+    }
+
+    // Pasa las entradas antiguas al usuario y borra el fichero, si el usuario es la única cuenta
+    // del dispositivo. Los días que ya tienen un outfit en la base de datos se quedan con el de la
+    // base de datos. Devuelve el número de outfits migrados. Se llama en el hilo de escritura de AppDatabase
+    static int migrate(Context context, DBHelper helper, String username) {
+        if (helper.getUserCount() != 1) {
+            return 0;
+        }
+
+        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        Map<String, ?> entries = prefs.getAll();
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        Gson gson = GsonProvider.get();
+        SQLiteDatabase db = helper.getWritableDatabase();
+        int count = 0;
+
+        db.beginTransaction();
+        try {
+            for (Map.Entry<String, ?> entry : entries.entrySet()) {
+                if (!entry.getKey().startsWith(KEY_PREFIX) || !(entry.getValue() instanceof String)) {
+                    continue;
+                }
+                try {
+                    long epochDay = DateCodec.parseIsoEpochDay(entry.getKey().substring(KEY_PREFIX.length()));
+                    if (helper.hasOutfit(db, username, epochDay)) {
+                        continue;
+                    }
+
+                    JsonObject json = gson.fromJson((String) entry.getValue(), JsonObject.class);
+                    OutfitRecommendation outfit = gson.fromJson(json.get("outfit"), OutfitRecommendation.class);
+                    CurrentWeather weather = gson.fromJson(json.get("weather"), CurrentWeather.class);
+                    if (outfit == null || weather == null || weather.getLocation() == null) {
+                        continue;
+                    }
+
+                    helper.writeOutfit(db, username, epochDay, outfit, weather);
+                    count++;
+                } catch (RuntimeException e) {
+                    // Entrada ilegible: se descarta sin interrumpir el resto
+                    e.printStackTrace();
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+
+        // Solo se borra cuando la transacción se ha confirmado
+        prefs.edit().clear().commit();
+        context.deleteSharedPreferences(PREFS_NAME);
+        return count;
+    }
+}
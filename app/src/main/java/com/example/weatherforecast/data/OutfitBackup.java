@@ -0,0 +1,356 @@
+package com.example.weatherforecast.data;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.example.weatherforecast.model.CurrentWeather;
+import com.example.weatherforecast.model.OutfitRecommendation;
+import com.example.weatherforecast.model.UserPreferences;
+import com.example.weatherforecast.util.DateCodec;
+import com.example.weatherforecast.util.WeatherConditions;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copia de seguridad de los outfits y preferencias de un usuario en formato JSON Lines.
+ *
+ * Cada línea es un objeto con un campo "type":
+ * - header: formato y versión, siempre la primera línea
+ * - preferences: apellidos, género y tolerancias
+ * - outfit: fecha (yyyy-MM-dd), clima (con la máscara de WeatherConditions) y prendas por categoría
+ *
+ * Se escribe recorriendo el cursor y se lee línea a línea, así que el historial nunca se
+ * carga entero en memoria. La importación guarda todos los outfits de la copia, en lotes de
+ * BATCH_SIZE outfits, cada lote en una sola transacción
+ */
+public final class OutfitBackup {
+    private static final String FORMAT = "weatherforecast-outfits";
+    private static final int VERSION = 1;
+    static final int BATCH_SIZE = 2000;
+
+    private static final String TYPE_HEADER = "header";
+    private static final String TYPE_PREFERENCES = "preferences";
+    private static final String TYPE_OUTFIT = "outfit";
+
+    // Nombres de las listas de prendas, en el orden de DBHelper.CATEGORY_*
+    private static final String[] CATEGORY_NAMES = {"top", "bottom", "footwear", "outerwear", "accessories"};
+
+    // Columnas de DBHelper.queryOutfitsForExport
+    private static final int COL_DATE = 0;
+    private static final int COL_CITY = 1;
+    private static final int COL_STYLE = 2;
+    private static final int COL_COUNTRY = 3;
+    private static final int COL_TEMPERATURE = 4;
+    private static final int COL_MAX_TEMPERATURE = 5;
+    private static final int COL_MIN_TEMPERATURE = 6;
+    private static final int COL_HUMIDITY = 7;
+    private static final int COL_CONDITION = 8;
+    private static final int COL_ICON = 9;
+    private static final int COL_SUMMARY = 10;
+    private static final int COL_CONDITIONS = 11;
+    private static final int COL_CATEGORY = 12;
+    private static final int COL_GARMENT = 13;
+
+    private OutfitBackup() {
+    }
+
+    // Destino de los datos leídos de una copia. En la app es la base de datos (ver importFrom)
+    interface ImportTarget {
+        void savePreferences(UserPreferences preferences);
+
+        void saveOutfit(long epochDay, OutfitRecommendation outfit, CurrentWeather weather);
+
+        // Confirma los outfits guardados desde la llamada anterior
+        void commitBatch();
+    }
+
+    // ---- Exportación ----
+
+    // Escribe la copia del usuario y devuelve el número de outfits exportados
+    static int export(DBHelper helper, String username, Writer out) throws IOException {
+        try (Cursor outfits = helper.queryOutfitsForExport(username)) {
+            return export(helper.getUserPreferences(username), outfits, out);
+        }
+    }
+
+    // Escribe la copia a partir de las preferencias y del cursor de DBHelper.queryOutfitsForExport
+    static int export(UserPreferences preferences, Cursor cursor, Writer out) throws IOException {
+        JsonWriter json = new JsonWriter(out);
+        // Lenient: varios valores de primer nivel en el mismo flujo (uno por línea)
+        json.setLenient(true);
+
+        json.beginObject();
+        json.name("type").value(TYPE_HEADER);
+        json.name("format").value(FORMAT);
+        json.name("version").value(VERSION);
+        json.endObject();
+        out.write('\n');
+
+        json.beginObject();
+        json.name("type").value(TYPE_PREFERENCES);
+        json.name("surname").value(preferences.getSurname());
+        json.name("gender").value(preferences.getGender().name());
+        json.name("coldTolerance").value(preferences.getColdTolerance().name());
+        json.name("heatTolerance").value(preferences.getHeatTolerance().name());
+        json.endObject();
+        out.write('\n');
+
+        int count = 0;
+        boolean hasRow = cursor.moveToNext();
+        while (hasRow) {
+            // Un outfit ocupa varias filas seguidas (una por prenda) con la misma fecha
+            long epochDay = cursor.getLong(COL_DATE);
+            writeOutfitHeader(json, cursor);
+
+            int openCategory = -1;
+            do {
+                if (!cursor.isNull(COL_CATEGORY)) {
+                    int category = cursor.getInt(COL_CATEGORY);
+                    if (category != openCategory && category >= 0 && category < CATEGORY_NAMES.length) {
+                        if (openCategory >= 0) {
+                            json.endArray();
+                        }
+                        json.name(CATEGORY_NAMES[category]).beginArray();
+                        openCategory = category;
+                    }
+                    if (category == openCategory) {
+                        json.value(cursor.getString(COL_GARMENT));
+                    }
+                }
+                hasRow = cursor.moveToNext();
+            } while (hasRow && cursor.getLong(COL_DATE) == epochDay);
+
+            if (openCategory >= 0) {
+                json.endArray();
+            }
+            json.endObject();
+            out.write('\n');
+            count++;
+        }
+
+        json.flush();
+        return count;
+    }
+
+    private static void writeOutfitHeader(JsonWriter json, Cursor cursor) throws IOException {
+        json.beginObject();
+        json.name("type").value(TYPE_OUTFIT);
+        json.name("date").value(DateCodec.formatIsoEpochDay(cursor.getLong(COL_DATE)));
+        json.name("city").value(cursor.getString(COL_CITY));
+        json.name("style").value(cursor.getString(COL_STYLE));
+        json.name("country").value(cursor.getString(COL_COUNTRY));
+        json.name("temperature").value(cursor.getDouble(COL_TEMPERATURE));
+        json.name("maxTemperature").value(cursor.getDouble(COL_MAX_TEMPERATURE));
+        json.name("minTemperature").value(cursor.getDouble(COL_MIN_TEMPERATURE));
+        json.name("humidity").value(cursor.getInt(COL_HUMIDITY));
+        json.name("condition").value(cursor.getString(COL_CONDITION));
+        json.name("icon").value(cursor.getString(COL_ICON));
+        json.name("summary").value(cursor.getString(COL_SUMMARY));
+        json.name("conditions").value(cursor.getInt(COL_CONDITIONS));
+    }
+
+    // ---- Importación ----
+
+    // Lee una copia y la guarda como datos del usuario indicado (los outfits de la misma fecha se
+    // reemplazan). Devuelve el número de outfits importados. Si el fichero está mal formado se
+    // lanza IOException: los lotes ya guardados se conservan y el lote en curso se descarta
+    static int importFrom(final DBHelper helper, final String username, Reader in) throws IOException {
+        final SQLiteDatabase db = helper.getWritableDatabase();
+        boolean success = false;
+
+        db.beginTransaction();
+        try {
+            int count = importFrom(in, new ImportTarget() {
+                @Override
+                public void savePreferences(UserPreferences preferences) {
+                    helper.saveUserPreferences(username, preferences);
+                }
+
+                @Override
+                public void saveOutfit(long epochDay, OutfitRecommendation outfit, CurrentWeather weather) {
+                    helper.writeOutfit(db, username, epochDay, outfit, weather);
+                }
+
+                @Override
+                public void commitBatch() {
+                    db.setTransactionSuccessful();
+                    db.endTransaction();
+                    db.beginTransaction();
+                }
+            });
+            success = true;
+            return count;
+        } finally {
+            if (success) {
+                db.setTransactionSuccessful();
+            }
+            db.endTransaction();
+        }
+    }
+
+    // Lee la copia y entrega cada línea al destino, llamando a commitBatch cada BATCH_SIZE
+    // outfits. Devuelve el número de outfits leídos
+    static int importFrom(Reader in, ImportTarget target) throws IOException {
+        JsonReader json = new JsonReader(in);
+        json.setLenient(true);
+
+        if (json.peek() == JsonToken.END_DOCUMENT || !readHeader(json)) {
+            throw new IOException("No es una copia de outfits válida");
+        }
+
+        int count = 0;
+        int inBatch = 0;
+        try {
+            while (json.peek() != JsonToken.END_DOCUMENT) {
+                json.beginObject();
+                String type = json.nextName().equals("type") ? json.nextString() : null;
+
+                if (TYPE_OUTFIT.equals(type)) {
+                    readOutfit(json, target);
+                    count++;
+                    if (++inBatch == BATCH_SIZE) {
+                        target.commitBatch();
+                        inBatch = 0;
+                    }
+                } else if (TYPE_PREFERENCES.equals(type)) {
+                    target.savePreferences(readPreferences(json));
+                } else {
+                    // Tipo desconocido (versiones futuras): se ignora la línea
+                    while (json.hasNext()) {
+                        json.skipValue();
+                    }
+                }
+                json.endObject();
+            }
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            throw new IOException("Copia de outfits mal formada", e);
+        }
+        return count;
+    }
+
+    private static boolean readHeader(JsonReader json) throws IOException {
+        String type = null;
+        String format = null;
+        int version = -1;
+
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "type": type = json.nextString(); break;
+                case "format": format = json.nextString(); break;
+                case "version": version = json.nextInt(); break;
+                default: json.skipValue(); break;
+            }
+        }
+        json.endObject();
+        return TYPE_HEADER.equals(type) && FORMAT.equals(format) && version <= VERSION;
+    }
+
+    private static UserPreferences readPreferences(JsonReader json) throws IOException {
+        UserPreferences preferences = new UserPreferences();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "surname": preferences = preferences.withSurname(nextNullableString(json)); break;
+                case "gender": preferences = preferences.withGender(UserPreferences.Gender.valueOf(json.nextString())); break;
+                case "coldTolerance": preferences = preferences.withColdTolerance(UserPreferences.Tolerance.valueOf(json.nextString())); break;
+                case "heatTolerance": preferences = preferences.withHeatTolerance(UserPreferences.Tolerance.valueOf(json.nextString())); break;
+                default: json.skipValue(); break;
+            }
+        }
+        return preferences;
+    }
+
+    // Lee el resto de una línea de outfit y lo entrega al destino
+    private static void readOutfit(JsonReader json, ImportTarget target) throws IOException {
+        long epochDay = Long.MIN_VALUE;
+        String city = null;
+        String style = null;
+        String country = null;
+        double temperature = 0;
+        double maxTemperature = 0;
+        double minTemperature = 0;
+        int humidity = 0;
+        String condition = null;
+        String icon = null;
+        String summary = null;
+        int conditions = -1; // Las copias anteriores no la tienen
+        List<List<String>> categories = new ArrayList<>(CATEGORY_NAMES.length);
+        for (int i = 0; i < CATEGORY_NAMES.length; i++) {
+            categories.add(new ArrayList<>());
+        }
+
+        while (json.hasNext()) {
+            String name = json.nextName();
+            switch (name) {
+                case "date": epochDay = DateCodec.parseIsoEpochDay(json.nextString()); break;
+                case "city": city = nextNullableString(json); break;
+                case "style": style = nextNullableString(json); break;
+                case "country": country = nextNullableString(json); break;
+                case "temperature": temperature = json.nextDouble(); break;
+                case "maxTemperature": maxTemperature = json.nextDouble(); break;
+                case "minTemperature": minTemperature = json.nextDouble(); break;
+                case "humidity": humidity = json.nextInt(); break;
+                case "condition": condition = nextNullableString(json); break;
+                case "icon": icon = nextNullableString(json); break;
+                case "summary": summary = nextNullableString(json); break;
+                case "conditions": conditions = json.nextInt(); break;
+                default:
+                    int category = categoryIndex(name);
+                    if (category < 0) {
+                        json.skipValue();
+                        break;
+                    }
+                    List<String> garments = categories.get(category);
+                    json.beginArray();
+                    while (json.hasNext()) {
+                        garments.add(json.nextString());
+                    }
+                    json.endArray();
+                    break;
+            }
+        }
+
+        if (epochDay == Long.MIN_VALUE || city == null) {
+            throw new IOException("Outfit sin fecha o ciudad");
+        }
+
+        if (conditions < 0) {
+            conditions = WeatherConditions.fromEmoji(icon);
+        }
+        CurrentWeather weather = new CurrentWeather(city, country, temperature, maxTemperature,
+                minTemperature, condition, icon, summary, humidity, conditions);
+        OutfitRecommendation outfit = new OutfitRecommendation(
+                categories.get(DBHelper.CATEGORY_TOP),
+                categories.get(DBHelper.CATEGORY_BOTTOM),
+                categories.get(DBHelper.CATEGORY_FOOTWEAR),
+                categories.get(DBHelper.CATEGORY_OUTERWEAR),
+                categories.get(DBHelper.CATEGORY_ACCESSORIES),
+                style != null ? OutfitRecommendation.Style.valueOf(style) : null);
+
+        target.saveOutfit(epochDay, outfit, weather);
+    }
+
+    private static int categoryIndex(String name) {
+        for (int i = 0; i < CATEGORY_NAMES.length; i++) {
+            if (CATEGORY_NAMES[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String nextNullableString(JsonReader json) throws IOException {
+        if (json.peek() == JsonToken.NULL) {
+            json.nextNull();
+            return null;
+        }
+        return json.nextString();
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.weatherforecast.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.weatherforecast.model.UserPreferences;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Preferencias de cada usuario en memoria.
+ * Se cargan una sola vez por usuario en segundo plano (tabla preferences y el nombre, que solo
+ * está en las SharedPreferences del usuario) y a partir de ahí la copia en memoria es la que manda:
+ * los cambios se publican al momento y se guardan después en el hilo de escritura de AppDatabase.
+ * Si un usuario cambia varias veces antes de que se escriba, solo se guarda la última versión.
+ * UserPreferences es inmutable, así que los observadores reciben siempre una instantánea completa
+ */
+public final class UserPreferencesStore {
+    private static final String PREFS_NAME_BASE = "weather_app_preferences_";
+    private static final String KEY_NAME = "user_name";
+
+    private final Context context;
+    private final AppDatabase database;
+
+    private final Object lock = new Object();
+    private final Map<String, MutableLiveData<UserPreferences>> snapshots = new HashMap<>();
+    private final Map<String, UserPreferences> current = new HashMap<>();
+    private final Map<String, UserPreferences> pendingWrites = new LinkedHashMap<>();
+    private boolean writeScheduled = false;
+
+    UserPreferencesStore(Context context, AppDatabase database) {
+        this.context = context.getApplicationContext();
+        this.database = database;
+    }
+
+    // Preferencias del usuario como LiveData. La primera vez lanza la carga en segundo plano;
+    // hasta que termine el LiveData no tiene valor
+    public LiveData<UserPreferences> observe(String username) {
+        synchronized (lock) {
+            MutableLiveData<UserPreferences> snapshot = snapshots.get(username);
+            if (snapshot == null) {
+                snapshot = new MutableLiveData<>();
+                snapshots.put(username, snapshot);
+                database.executeRead(() -> load(username, false));
+            }
+            return snapshot;
+        }
+    }
+
+    // Última versión conocida, o null si todavía no se ha cargado. No toca el disco
+    public UserPreferences peek(String username) {
+        synchronized (lock) {
+            return current.get(username);
+        }
+    }
+
+    // Publica las nuevas preferencias y programa su escritura
+    public void update(String username, UserPreferences preferences) {
+        synchronized (lock) {
+            current.put(username, preferences);
+            snapshotFor(username).postValue(preferences);
+
+            pendingWrites.put(username, preferences);
+            if (!writeScheduled) {
+                writeScheduled = true;
+                database.executeWrite(this::flushPendingWrites);
+            }
+        }
+    }
+
+    // Vuelve a leer las preferencias de un usuario ya cargado (p. ej. tras importar una copia)
+    void reload(String username) {
+        synchronized (lock) {
+            if (!snapshots.containsKey(username)) {
+                return;
+            }
+        }
+        database.executeRead(() -> load(username, true));
+    }
+
+    // Se ejecuta en segundo plano. Si mientras tanto se han actualizado las preferencias en
+    // memoria, esa versión es más nueva que la del disco y se conserva
+    private void load(String username, boolean replace) {
+        UserPreferences loaded = database.getHelper().getUserPreferences(username);
+        String name = preferencesFor(username).getString(KEY_NAME, null);
+        if (name != null && !name.isEmpty()) {
+            loaded = loaded.withName(name);
+        }
+
+        synchronized (lock) {
+            if (replace ? pendingWrites.containsKey(username) : current.containsKey(username)) {
+                return;
+            }
+            current.put(username, loaded);
+            snapshotFor(username).postValue(loaded);
+        }
+    }
+
+    // Se ejecuta en el hilo de escritura de AppDatabase
+    private void flushPendingWrites() {
+        Map<String, UserPreferences> writes;
+        synchronized (lock) {
+            writes = new LinkedHashMap<>(pendingWrites);
+            pendingWrites.clear();
+            writeScheduled = false;
+        }
+
+        for (Map.Entry<String, UserPreferences> write : writes.entrySet()) {
+            database.getHelper().saveUserPreferences(write.getKey(), write.getValue());
+            preferencesFor(write.getKey()).edit()
+                    .putString(KEY_NAME, write.getValue().getName())
+                    .apply();
+        }
+    }
+
+    // Se llama con lock tomado
+    private MutableLiveData<UserPreferences> snapshotFor(String username) {
+        MutableLiveData<UserPreferences> snapshot = snapshots.get(username);
+        if (snapshot == null) {
+            snapshot = new MutableLiveData<>();
+            snapshots.put(username, snapshot);
+        }
+        return snapshot;
+    }
+
+    private SharedPreferences preferencesFor(String username) {
+        return context.getSharedPreferences(PREFS_NAME_BASE + username, Context.MODE_PRIVATE);
+    }
+}
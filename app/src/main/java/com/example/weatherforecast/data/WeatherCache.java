@@ -2,113 +2,342 @@ package com.example.weatherforecast.data;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
 
 import com.example.weatherforecast.model.CurrentWeather;
-import com.example.weatherforecast.model.DailyForecast;
-import com.example.weatherforecast.model.HourlyForecast;
-import com.google.gson.Gson;
+import com.example.weatherforecast.model.ForecastSeries;
+import com.example.weatherforecast.util.LocationKey;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Clase para almacenar en caché los datos del clima
- * Permite recuperar datos cuando se produce una navegación que pierde el contexto
+ * Guarda las últimas MAX_CITIES ubicaciones consultadas (se descarta la menos usada)
+ * y cada tipo de dato tiene su propio tiempo de validez.
+ * Cada ciudad se guarda en su propio fichero binario (ver WeatherSnapshotFile); en SharedPreferences
+ * solo quedan el índice de ciudades y la última ciudad.
+ * Delante de los ficheros hay un nivel en memoria, compartido por todo el proceso,
+ * con los modelos ya decodificados: las lecturas repetidas no vuelven a tocar el disco.
+ * Los ficheros solo se leen y escriben en el hilo de E/S de la caché, nunca en el de quien llama
  */
 public class WeatherCache {
     private static final String PREF_NAME = "WeatherCachePrefs";
-    private static final String KEY_CURRENT_WEATHER = "current_weather";
-    private static final String KEY_HOURLY_FORECAST = "hourly_forecast";
-    private static final String KEY_DAILY_FORECAST = "daily_forecast";
+    private static final String KEY_FORMAT_VERSION = "format_version";
+    private static final String KEY_CITY_INDEX = "city_index"; // Claves de ciudad, la más reciente primero
     private static final String KEY_LAST_CITY = "last_city";
-    private static final String KEY_LAST_UPDATE = "last_update";
+    private static final String CACHE_DIRECTORY = "weather_cache";
+
+    // 1 = JSON en SharedPreferences, 2 = un fichero binario por ciudad (nombre = hashCode de la clave),
+    // 3 = el nombre del fichero es el SHA-1 de la clave
+    private static final int FORMAT_VERSION = 3;
+
+    public static final int MAX_CITIES = 5;
+
+    // Tiempo de validez de cada tipo de dato
+    public static final long CURRENT_WEATHER_TTL_MILLIS = 30 * 60 * 1000L;   // 30 minutos
+    public static final long HOURLY_FORECAST_TTL_MILLIS = 60 * 60 * 1000L;   // 1 hora
+    public static final long DAILY_FORECAST_TTL_MILLIS = 3 * 60 * 60 * 1000L; // 3 horas
+
+    // El índice de ciudades, el nivel en memoria y las escrituras pendientes se comparten entre instancias
+    private static final Object LOCK = new Object();
+
+    // Datos decodificados por clave de ciudad (los modelos son inmutables). Solo guarda ciudades
+    // que tienen datos, y estas se descartan al salir del índice, así que no pasa de MAX_CITIES
+    private static final Map<String, CachedCity> MEMORY = new HashMap<>();
+
+    // Lecturas y escrituras a disco, en orden, en un solo hilo. Si una ciudad se guarda varias veces
+    // seguidas solo se escribe su última versión; null = borrar el fichero
+    private static final ExecutorService IO = Executors.newSingleThreadExecutor();
+    private static final Handler MAIN = new Handler(Looper.getMainLooper());
+    private static final Map<String, CachedCity> PENDING_WRITES = new LinkedHashMap<>();
+    private static boolean writeScheduled = false;
+    private static boolean migrated = false;
 
     private final SharedPreferences preferences;
-    private final Gson gson;
+    private final File directory;
+
+    // Datos guardados de una ciudad, cada uno con su validez
+    public interface LoadCallback {
+        void onLoaded(CacheEntry<CurrentWeather> currentWeather, CacheEntry<ForecastSeries> hourlyForecast,
+                      CacheEntry<ForecastSeries> dailyForecast);
+    }
 
     public WeatherCache(Context context) {
         preferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        gson = new Gson();
+        directory = new File(context.getFilesDir(), CACHE_DIRECTORY);
+        migrateIfNeeded();
     }
 
-    public void saveCurrentWeather(CurrentWeather weather) {
-        if (weather != null) {
-            preferences.edit()
-                    .putString(KEY_CURRENT_WEATHER, gson.toJson(weather))
-                    .putString(KEY_LAST_CITY, weather.getLocation())
-                    .putLong(KEY_LAST_UPDATE, System.currentTimeMillis())
-                    .apply();
+    // Guarda los datos no nulos de una ciudad en una sola escritura.
+    // savedAt permite guardar datos que ya nacen caducados (p. ej. los valores por defecto)
+    public void saveSnapshot(String city, CurrentWeather weather, ForecastSeries hourly,
+                             ForecastSeries daily, long savedAt) {
+        String cityKey = LocationKey.canonical(city);
+        if (cityKey.isEmpty()) {
+            return;
+        }
+
+        synchronized (LOCK) {
+            CachedCity cached = cachedOrNull(cityKey);
+            if (cached != null) {
+                store(cityKey, cached.with(weather, hourly, daily, savedAt));
+            } else {
+                // Hay que leer antes lo guardado para conservar los datos que no cambian
+                IO.execute(() -> {
+                    readCity(cityKey);
+                    synchronized (LOCK) {
+                        // La ciudad ha salido del índice mientras se leía
+                        if (!readIndex().contains(cityKey)) {
+                            return;
+                        }
+                        CachedCity current = cachedOrNull(cityKey);
+                        store(cityKey, (current != null ? current : CachedCity.EMPTY)
+                                .with(weather, hourly, daily, savedAt));
+                    }
+                });
+            }
+
+            SharedPreferences.Editor editor = preferences.edit();
+            touch(editor, cityKey);
+            editor.putString(KEY_LAST_CITY, city.trim());
+            editor.apply();
         }
     }
 
-    public void saveHourlyForecast(List<HourlyForecast> forecasts) {
-        if (forecasts != null && !forecasts.isEmpty()) {
-            preferences.edit()
-                    .putString(KEY_HOURLY_FORECAST, gson.toJson(forecasts))
-                    .apply();
+    // Si la ciudad está en memoria el callback se llama al momento. Si no, el fichero se lee en el
+    // hilo de E/S y el callback se llama después en el hilo principal
+    public void load(String city, LoadCallback callback) {
+        String cityKey = LocationKey.canonical(city);
+        CachedCity cached = CachedCity.EMPTY;
+        if (!cityKey.isEmpty()) {
+            synchronized (LOCK) {
+                cached = cachedOrNull(cityKey);
+            }
+            if (cached == null) {
+                IO.execute(() -> {
+                    CachedCity stored = readCity(cityKey);
+                    MAIN.post(() -> deliver(stored, callback));
+                });
+                return;
+            }
         }
+        deliver(cached, callback);
     }
 
-    public void saveDailyForecast(List<DailyForecast> forecasts) {
-        if (forecasts != null && !forecasts.isEmpty()) {
-            preferences.edit()
-                    .putString(KEY_DAILY_FORECAST, gson.toJson(forecasts))
-                    .apply();
+    // Lee la ciudad en el hilo de E/S para que la siguiente carga la encuentre en memoria
+    public void preload(String city) {
+        String cityKey = LocationKey.canonical(city);
+        if (!cityKey.isEmpty()) {
+            IO.execute(() -> readCity(cityKey));
         }
     }
 
-    public CurrentWeather getCurrentWeather() {
-        String json = preferences.getString(KEY_CURRENT_WEATHER, null);
-        if (json != null) {
-            try {
-                return gson.fromJson(json, CurrentWeather.class);
-            } catch (Exception e) {
-                e.printStackTrace();
-                return null;
-            }
+    public String getLastCity() {
+        return preferences.getString(KEY_LAST_CITY, null);
+    }
+
+    // Ciudades guardadas, de la más reciente a la menos reciente
+    public List<String> getCachedCities() {
+        synchronized (LOCK) {
+            return readIndex();
+        }
+    }
+
+    private static void deliver(CachedCity cached, LoadCallback callback) {
+        callback.onLoaded(
+                CacheEntry.of(cached.currentWeather, cached.currentWeatherSavedAt, CURRENT_WEATHER_TTL_MILLIS),
+                CacheEntry.of(cached.hourlyForecast, cached.hourlyForecastSavedAt, HOURLY_FORECAST_TTL_MILLIS),
+                CacheEntry.of(cached.dailyForecast, cached.dailyForecastSavedAt, DAILY_FORECAST_TTL_MILLIS));
+    }
+
+    // Se llama con LOCK tomado. Los datos de la ciudad si no hace falta leer el fichero, o null
+    private static CachedCity cachedOrNull(String cityKey) {
+        CachedCity cached = MEMORY.get(cityKey);
+        if (cached != null) {
+            return cached;
+        }
+        if (PENDING_WRITES.containsKey(cityKey)) {
+            // Ciudad descartada cuyo fichero aún no se ha borrado
+            return CachedCity.EMPTY;
         }
         return null;
     }
 
-    public List<HourlyForecast> getHourlyForecast() {
-        String json = preferences.getString(KEY_HOURLY_FORECAST, null);
-        if (json != null) {
-            try {
-                return gson.fromJson(json, new com.google.gson.reflect.TypeToken<List<HourlyForecast>>(){}.getType());
-            } catch (Exception e) {
-                e.printStackTrace();
-                return new ArrayList<>();
+    // Solo en el hilo de E/S. Lee el fichero si la ciudad no está ya en memoria.
+    // Las ciudades sin datos no se guardan en memoria: cualquier nombre buscado ocuparía una entrada
+    private CachedCity readCity(String cityKey) {
+        synchronized (LOCK) {
+            CachedCity cached = cachedOrNull(cityKey);
+            if (cached != null) {
+                return cached;
             }
         }
-        return new ArrayList<>();
+
+        CachedCity stored = null;
+        try {
+            stored = WeatherSnapshotFile.read(fileFor(cityKey), cityKey);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        synchronized (LOCK) {
+            // Mientras se leía se ha podido descartar la ciudad
+            CachedCity cached = cachedOrNull(cityKey);
+            if (cached != null) {
+                return cached;
+            }
+            if (stored == null) {
+                return CachedCity.EMPTY;
+            }
+            MEMORY.put(cityKey, stored);
+            return stored;
+        }
+    }
+
+    // Se llama con LOCK tomado
+    private void store(String cityKey, CachedCity city) {
+        MEMORY.put(cityKey, city);
+        scheduleWrite(cityKey, city);
     }
 
-    public List<DailyForecast> getDailyForecast() {
-        String json = preferences.getString(KEY_DAILY_FORECAST, null);
-        if (json != null) {
+    // Se llama con LOCK tomado
+    private void scheduleWrite(String cityKey, CachedCity city) {
+        PENDING_WRITES.put(cityKey, city);
+        if (!writeScheduled) {
+            writeScheduled = true;
+            IO.execute(this::flushPendingWrites);
+        }
+    }
+
+    private void flushPendingWrites() {
+        Map<String, CachedCity> writes;
+        synchronized (LOCK) {
+            writes = new LinkedHashMap<>(PENDING_WRITES);
+            PENDING_WRITES.clear();
+            writeScheduled = false;
+        }
+
+        for (Map.Entry<String, CachedCity> write : writes.entrySet()) {
+            File file = fileFor(write.getKey());
             try {
-                return gson.fromJson(json, new com.google.gson.reflect.TypeToken<List<DailyForecast>>(){}.getType());
-            } catch (Exception e) {
+                if (write.getValue() == null) {
+                    file.delete();
+                } else {
+                    WeatherSnapshotFile.write(file, write.getKey(), write.getValue());
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                // IllegalArgumentException: textos demasiado largos para el formato (solo queda en memoria)
                 e.printStackTrace();
-                return new ArrayList<>();
             }
         }
-        return new ArrayList<>();
     }
 
-    public String getLastCity() {
-        return preferences.getString(KEY_LAST_CITY, null);
+    // Se llama con LOCK tomado. Mueve la ciudad al principio del índice y descarta las que sobran
+    private void touch(SharedPreferences.Editor editor, String cityKey) {
+        List<String> index = readIndex();
+        index.remove(cityKey);
+        index.add(0, cityKey);
+
+        while (index.size() > MAX_CITIES) {
+            String evicted = index.remove(index.size() - 1);
+            MEMORY.remove(evicted);
+            scheduleWrite(evicted, null);
+        }
+
+        editor.putString(KEY_CITY_INDEX, join(index));
+    }
+
+    // Los datos de la versión 1 (JSON en SharedPreferences) se descartan: se vuelven a
+    // descargar en la siguiente consulta. Se conserva la última ciudad.
+    // Los ficheros de la versión 2 se renombran con el nombre nuevo
+    private void migrateIfNeeded() {
+        synchronized (LOCK) {
+            if (migrated) {
+                return;
+            }
+            migrated = true;
+
+            int version = preferences.getInt(KEY_FORMAT_VERSION, 1);
+            if (version >= FORMAT_VERSION) {
+                return;
+            }
+
+            SharedPreferences.Editor editor;
+            if (version < 2) {
+                String lastCity = getLastCity();
+                editor = preferences.edit().clear();
+                if (lastCity != null) {
+                    editor.putString(KEY_LAST_CITY, lastCity);
+                }
+            } else {
+                // Si dos ciudades compartían fichero, la que no coincide con la clave guardada
+                // dentro se leerá como vacía y se volverá a descargar
+                for (String cityKey : readIndex()) {
+                    File legacy = new File(directory, Integer.toHexString(cityKey.hashCode()) + ".bin");
+                    if (legacy.exists() && !legacy.renameTo(fileFor(cityKey))) {
+                        legacy.delete();
+                    }
+                }
+                editor = preferences.edit();
+            }
+            editor.putInt(KEY_FORMAT_VERSION, FORMAT_VERSION);
+            editor.apply();
+        }
+    }
+
+    private List<String> readIndex() {
+        String stored = preferences.getString(KEY_CITY_INDEX, "");
+        if (stored.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(Arrays.asList(stored.split("\n")));
+    }
+
+    private static String join(List<String> index) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < index.size(); i++) {
+            if (i > 0) {
+                builder.append('\n');
+            }
+            builder.append(index.get(i));
+        }
+        return builder.toString();
     }
-    public long getLastUpdateTime() {
-        return preferences.getLong(KEY_LAST_UPDATE, 0);
+
+    private File fileFor(String cityKey) {
+        return new File(directory, fileName(cityKey));
     }
 
-    public boolean hasRecentData(int maxAgeMinutes) {
-        long now = System.currentTimeMillis();
-        long lastUpdate = getLastUpdateTime();
-        long maxAgeMillis = maxAgeMinutes * 60 * 1000;
+    // SHA-1 de la clave en hexadecimal: longitud fija y sin colisiones entre ciudades
+    // (String.hashCode() da lo mismo para "Aa" y "BB"). La clave completa va dentro del fichero
+    static String fileName(String cityKey) {
+        byte[] hash;
+        try {
+            hash = MessageDigest.getInstance("SHA-1").digest(cityKey.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Todas las plataformas Java deben incluir SHA-1
+        }
 
-        return (now - lastUpdate) < maxAgeMillis;
+        char[] out = new char[hash.length * 2 + 4];
+        for (int i = 0; i < hash.length; i++) {
+            out[i * 2] = Character.forDigit((hash[i] >> 4) & 0xF, 16);
+            out[i * 2 + 1] = Character.forDigit(hash[i] & 0xF, 16);
+        }
+        ".bin".getChars(0, 4, out, hash.length * 2);
+        return new String(out);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,280 @@
+package com.example.weatherforecast.data;
+
+import com.example.weatherforecast.model.CurrentWeather;
+import com.example.weatherforecast.model.ForecastSeries;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Formato binario del fichero de caché de una ciudad.
+ *
+ * Versión 2 (big-endian):
+ * int magic, byte versión, texto clave de ciudad, byte secciones presentes, y por cada sección:
+ * - clima actual: long guardado, textos ubicación/país/condición/icono/resumen,
+ *   double temperatura/máxima/mínima, int humedad, int indicadores (WeatherConditions)
+ * - por horas: long guardado, int n, n x (long epoch, float temperatura, byte condición)
+ * - diario: long guardado, int n, n x (long epoch, float mínima, float máxima, byte condición)
+ * Los textos son un short sin signo con la longitud en bytes UTF-8 (0xFFFF si es null) seguido
+ * de los bytes. Un texto de más de MAX_TEXT_BYTES no se puede guardar y encode lo rechaza.
+ *
+ * El fichero se escribe completo en uno temporal y se renombra, así que nunca queda a medias
+ */
+final class WeatherSnapshotFile {
+    private static final int MAGIC = 0x57464353; // "WFCS"
+    static final byte VERSION = 2; // 2: indicadores de condición en el clima actual
+
+    private static final byte HAS_CURRENT_WEATHER = 1;
+    private static final byte HAS_HOURLY_FORECAST = 1 << 1;
+    private static final byte HAS_DAILY_FORECAST = 1 << 2;
+
+    private static final int NULL_TEXT = 0xFFFF;
+    static final int MAX_TEXT_BYTES = NULL_TEXT - 1;
+
+    private static final int HOURLY_ENTRY_SIZE = 8 + 4 + 1;
+    private static final int DAILY_ENTRY_SIZE = 8 + 4 + 4 + 1;
+
+    private WeatherSnapshotFile() {
+    }
+
+    // ---- Lectura y escritura del fichero ----
+
+    // Devuelve null si el fichero no existe, está dañado, es de otra versión o pertenece a otra ciudad
+    static CachedCity read(File file, String cityKey) throws IOException {
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try (FileInputStream input = new FileInputStream(file)) {
+            FileChannel channel = input.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Leer hasta llenar el buffer
+            }
+            buffer.flip();
+            return decode(buffer, cityKey);
+        }
+    }
+
+    static void write(File file, String cityKey, CachedCity city) throws IOException {
+        File directory = file.getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("No se pudo crear " + directory);
+        }
+
+        ByteBuffer buffer = encode(cityKey, city);
+        File temp = new File(file.getPath() + ".tmp");
+
+        try (FileOutputStream output = new FileOutputStream(temp)) {
+            FileChannel channel = output.getChannel();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            output.getFD().sync();
+        }
+
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("No se pudo reemplazar " + file);
+        }
+    }
+
+    // ---- Codificación ----
+
+    // Lanza IllegalArgumentException si algún texto pasa de MAX_TEXT_BYTES
+    static ByteBuffer encode(String cityKey, CachedCity city) {
+        byte[] key = utf8(cityKey);
+        CurrentWeather weather = city.currentWeather;
+        ForecastSeries hourly = city.hourlyForecast;
+        ForecastSeries daily = city.dailyForecast;
+
+        byte sections = 0;
+        int size = 4 + 1 + textSize(key) + 1;
+        byte[][] texts = null;
+
+        if (weather != null) {
+            sections |= HAS_CURRENT_WEATHER;
+            texts = new byte[][]{
+                    utf8(weather.getLocation()), utf8(weather.getCountry()),
+                    utf8(weather.getWeatherCondition()), utf8(weather.getWeatherIcon()),
+                    utf8(weather.getSummary())
+            };
+            size += 8 + 3 * 8 + 4 + 4;
+            for (byte[] text : texts) {
+                size += textSize(text);
+            }
+        }
+        if (hourly != null && !hourly.isEmpty()) {
+            sections |= HAS_HOURLY_FORECAST;
+            size += 8 + 4 + hourly.size() * HOURLY_ENTRY_SIZE;
+        }
+        if (daily != null && !daily.isEmpty()) {
+            sections |= HAS_DAILY_FORECAST;
+            size += 8 + 4 + daily.size() * DAILY_ENTRY_SIZE;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC);
+        buffer.put(VERSION);
+        putText(buffer, key);
+        buffer.put(sections);
+
+        if ((sections & HAS_CURRENT_WEATHER) != 0) {
+            buffer.putLong(city.currentWeatherSavedAt);
+            for (byte[] text : texts) {
+                putText(buffer, text);
+            }
+            buffer.putDouble(weather.getTemperature());
+            buffer.putDouble(weather.getMaxTemperature());
+            buffer.putDouble(weather.getMinTemperature());
+            buffer.putInt(weather.getHumidity());
+            buffer.putInt(weather.getConditions());
+        }
+        if ((sections & HAS_HOURLY_FORECAST) != 0) {
+            buffer.putLong(city.hourlyForecastSavedAt);
+            buffer.putInt(hourly.size());
+            for (int i = 0; i < hourly.size(); i++) {
+                buffer.putLong(hourly.getEpoch(i));
+                buffer.putFloat(hourly.getTemperature(i));
+                buffer.put(hourly.getCondition(i));
+            }
+        }
+        if ((sections & HAS_DAILY_FORECAST) != 0) {
+            buffer.putLong(city.dailyForecastSavedAt);
+            buffer.putInt(daily.size());
+            for (int i = 0; i < daily.size(); i++) {
+                buffer.putLong(daily.getEpoch(i));
+                buffer.putFloat(daily.getMinTemperature(i));
+                buffer.putFloat(daily.getMaxTemperature(i));
+                buffer.put(daily.getCondition(i));
+            }
+        }
+
+        buffer.flip();
+        return buffer;
+    }
+
+    // Devuelve null si los datos no son de esta versión, son de otra ciudad o están incompletos
+    static CachedCity decode(ByteBuffer buffer, String cityKey) {
+        if (buffer.remaining() < 5 || buffer.getInt() != MAGIC || buffer.get() != VERSION) {
+            return null;
+        }
+        try {
+            return decodeSections(buffer, cityKey);
+        } catch (BufferUnderflowException e) {
+            // Fichero truncado o con longitudes corruptas
+            return null;
+        }
+    }
+
+    private static CachedCity decodeSections(ByteBuffer buffer, String cityKey) {
+        if (!cityKey.equals(getText(buffer))) {
+            return null;
+        }
+
+        byte sections = buffer.get();
+        CurrentWeather weather = null;
+        long weatherSavedAt = 0;
+        ForecastSeries hourly = null;
+        long hourlySavedAt = 0;
+        ForecastSeries daily = null;
+        long dailySavedAt = 0;
+
+        if ((sections & HAS_CURRENT_WEATHER) != 0) {
+            weatherSavedAt = buffer.getLong();
+            String location = getText(buffer);
+            String country = getText(buffer);
+            String condition = getText(buffer);
+            String icon = getText(buffer);
+            String summary = getText(buffer);
+            double temperature = buffer.getDouble();
+            double maxTemperature = buffer.getDouble();
+            double minTemperature = buffer.getDouble();
+            int humidity = buffer.getInt();
+            int conditions = buffer.getInt();
+            weather = new CurrentWeather(location, country, temperature, maxTemperature, minTemperature,
+                    condition, icon, summary, humidity, conditions);
+        }
+        if ((sections & HAS_HOURLY_FORECAST) != 0) {
+            hourlySavedAt = buffer.getLong();
+            int count = getCount(buffer, HOURLY_ENTRY_SIZE);
+            long[] epochs = new long[count];
+            float[] temperatures = new float[count];
+            byte[] conditions = new byte[count];
+            for (int i = 0; i < count; i++) {
+                epochs[i] = buffer.getLong();
+                temperatures[i] = buffer.getFloat();
+                conditions[i] = buffer.get();
+            }
+            hourly = ForecastSeries.hourly(epochs, temperatures, conditions);
+        }
+        if ((sections & HAS_DAILY_FORECAST) != 0) {
+            dailySavedAt = buffer.getLong();
+            int count = getCount(buffer, DAILY_ENTRY_SIZE);
+            long[] epochs = new long[count];
+            float[] minTemperatures = new float[count];
+            float[] maxTemperatures = new float[count];
+            byte[] conditions = new byte[count];
+            for (int i = 0; i < count; i++) {
+                epochs[i] = buffer.getLong();
+                minTemperatures[i] = buffer.getFloat();
+                maxTemperatures[i] = buffer.getFloat();
+                conditions[i] = buffer.get();
+            }
+            daily = ForecastSeries.daily(epochs, minTemperatures, maxTemperatures, conditions);
+        }
+
+        return new CachedCity(weather, weatherSavedAt, hourly, hourlySavedAt, daily, dailySavedAt);
+    }
+
+    // Número de elementos de una serie; se comprueba antes de reservar los arrays
+    private static int getCount(ByteBuffer buffer, int entrySize) {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining() / entrySize) {
+            throw new BufferUnderflowException();
+        }
+        return count;
+    }
+
+    // ---- Textos ----
+
+    private static byte[] utf8(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_TEXT_BYTES) {
+            throw new IllegalArgumentException("Texto de " + bytes.length + " bytes, el máximo es " + MAX_TEXT_BYTES);
+        }
+        return bytes;
+    }
+
+    private static int textSize(byte[] text) {
+        return 2 + (text == null ? 0 : text.length);
+    }
+
+    private static void putText(ByteBuffer buffer, byte[] text) {
+        if (text == null) {
+            buffer.putShort((short) NULL_TEXT);
+            return;
+        }
+        buffer.putShort((short) text.length); // Se lee sin signo
+        buffer.put(text);
+    }
+
+    private static String getText(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        if (length == NULL_TEXT) {
+            return null;
+        }
+        byte[] text = new byte[length];
+        buffer.get(text);
+        return new String(text, StandardCharsets.UTF_8);
+    }
+}
@@ -11,6 +11,14 @@ public class ForecastResponse {
     @SerializedName("list")
     private List<TimePoint> list;
 
+    public ForecastResponse() {
+    }
+
+    // Usado por ForecastResponseAdapter
+    ForecastResponse(List<TimePoint> list) {
+        this.list = list;
+    }
+
     public static class TimePoint {
         @SerializedName("dt")
         private long timestamp;
@@ -24,6 +32,16 @@ public class ForecastResponse {
         @SerializedName("weather")
         private List<Weather> weather;
 
+        public TimePoint() {
+        }
+
+        TimePoint(long timestamp, String dateTimeText, Main main, List<Weather> weather) {
+            this.timestamp = timestamp;
+            this.dateTimeText = dateTimeText;
+            this.main = main;
+            this.weather = weather;
+        }
+
         public long getTimestamp() { return timestamp; }
         public String getDateTimeText() { return dateTimeText; }
         public Main getMain() { return main; }
@@ -40,12 +58,24 @@ public class ForecastResponse {
         @SerializedName("temp_min")
         private double minTemperature;
 
+        public Main() {
+        }
+
+        Main(double temperature, double maxTemperature, double minTemperature) {
+            this.temperature = temperature;
+            this.maxTemperature = maxTemperature;
+            this.minTemperature = minTemperature;
+        }
+
         public double getTemperature() { return temperature; }
         public double getMaxTemperature() { return maxTemperature; }
         public double getMinTemperature() { return minTemperature; }
     }
 
     public static class Weather {
+        @SerializedName("id")
+        private int id; // Código de condición (ver WeatherConditions)
+
         @SerializedName("main")
         private String main;
 
@@ -55,6 +85,17 @@ public class ForecastResponse {
         @SerializedName("icon")
         private String icon;
 
+        public Weather() {
+        }
+
+        Weather(int id, String main, String description, String icon) {
+            this.id = id;
+            this.main = main;
+            this.description = description;
+            this.icon = icon;
+        }
+
+        public int getId() { return id; }
         public String getMain() { return main; }
         public String getDescription() { return description; }
         public String getIcon() { return icon; }
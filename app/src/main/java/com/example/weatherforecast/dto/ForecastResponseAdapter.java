@@ -0,0 +1,202 @@
+package com.example.weatherforecast.dto;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * TypeAdapter de streaming para la respuesta de /forecast.
+ * Solo lee dt, dt_txt, main.temp/temp_min/temp_max y weather[0]; el resto del JSON se salta
+ * sin crear objetos ni usar reflexión
+ */
+public class ForecastResponseAdapter extends TypeAdapter<ForecastResponse> {
+
+    @Override
+    public ForecastResponse read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        List<ForecastResponse.TimePoint> list = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            if ("list".equals(in.nextName()) && in.peek() == JsonToken.BEGIN_ARRAY) {
+                list = new ArrayList<>(40); // La API devuelve 40 puntos (5 días cada 3 horas)
+                in.beginArray();
+                while (in.hasNext()) {
+                    list.add(readTimePoint(in));
+                }
+                in.endArray();
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return new ForecastResponse(list);
+    }
+
+    private ForecastResponse.TimePoint readTimePoint(JsonReader in) throws IOException {
+        long timestamp = 0;
+        String dateTimeText = null;
+        ForecastResponse.Main main = null;
+        List<ForecastResponse.Weather> weather = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "dt":
+                    timestamp = in.nextLong();
+                    break;
+                case "dt_txt":
+                    dateTimeText = in.nextString();
+                    break;
+                case "main":
+                    main = readMain(in);
+                    break;
+                case "weather":
+                    weather = readFirstWeather(in);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return new ForecastResponse.TimePoint(timestamp, dateTimeText, main, weather);
+    }
+
+    private ForecastResponse.Main readMain(JsonReader in) throws IOException {
+        double temperature = 0;
+        double maxTemperature = 0;
+        double minTemperature = 0;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "temp":
+                    temperature = in.nextDouble();
+                    break;
+                case "temp_max":
+                    maxTemperature = in.nextDouble();
+                    break;
+                case "temp_min":
+                    minTemperature = in.nextDouble();
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return new ForecastResponse.Main(temperature, maxTemperature, minTemperature);
+    }
+
+    // Solo se usa el primer elemento de "weather", el resto se salta
+    private List<ForecastResponse.Weather> readFirstWeather(JsonReader in) throws IOException {
+        ForecastResponse.Weather first = null;
+
+        in.beginArray();
+        if (in.hasNext()) {
+            int id = 0;
+            String main = null;
+            String description = null;
+            String icon = null;
+
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "id":
+                        id = in.nextInt();
+                        break;
+                    case "main":
+                        main = in.nextString();
+                        break;
+                    case "description":
+                        description = in.nextString();
+                        break;
+                    case "icon":
+                        icon = in.nextString();
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            first = new ForecastResponse.Weather(id, main, description, icon);
+        }
+        while (in.hasNext()) {
+            in.skipValue();
+        }
+        in.endArray();
+
+        return first != null
+                ? Collections.singletonList(first)
+                : Collections.<ForecastResponse.Weather>emptyList();
+    }
+
+    @Override
+    public void write(JsonWriter out, ForecastResponse value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("list");
+        if (value.getList() == null) {
+            out.nullValue();
+        } else {
+            out.beginArray();
+            for (ForecastResponse.TimePoint point : value.getList()) {
+                writeTimePoint(out, point);
+            }
+            out.endArray();
+        }
+        out.endObject();
+    }
+
+    private void writeTimePoint(JsonWriter out, ForecastResponse.TimePoint point) throws IOException {
+        out.beginObject();
+        out.name("dt").value(point.getTimestamp());
+        out.name("dt_txt").value(point.getDateTimeText());
+        if (point.getMain() != null) {
+            out.name("main").beginObject();
+            out.name("temp").value(point.getMain().getTemperature());
+            out.name("temp_max").value(point.getMain().getMaxTemperature());
+            out.name("temp_min").value(point.getMain().getMinTemperature());
+            out.endObject();
+        }
+        if (point.getWeather() != null) {
+            out.name("weather").beginArray();
+            for (ForecastResponse.Weather weather : point.getWeather()) {
+                out.beginObject();
+                out.name("id").value(weather.getId());
+                out.name("main").value(weather.getMain());
+                out.name("description").value(weather.getDescription());
+                out.name("icon").value(weather.getIcon());
+                out.endObject();
+            }
+            out.endArray();
+        }
+        out.endObject();
+    }
+}
@@ -19,10 +19,28 @@ public class WeatherResponse {
     @SerializedName("weather")
     private List<Weather> weather;
 
+    public WeatherResponse() {
+    }
+
+    // Usado por WeatherResponseAdapter
+    WeatherResponse(String cityName, Sys sys, Main main, List<Weather> weather) {
+        this.cityName = cityName;
+        this.sys = sys;
+        this.main = main;
+        this.weather = weather;
+    }
+
     public static class Sys {
         @SerializedName("country")
         private String country;
 
+        public Sys() {
+        }
+
+        Sys(String country) {
+            this.country = country;
+        }
+
         public String getCountry() { return country; }
     }
 
@@ -39,6 +57,16 @@ public class WeatherResponse {
         @SerializedName("humidity")
         private int humidity;
 
+        public Main() {
+        }
+
+        Main(double temperature, double maxTemperature, double minTemperature, int humidity) {
+            this.temperature = temperature;
+            this.maxTemperature = maxTemperature;
+            this.minTemperature = minTemperature;
+            this.humidity = humidity;
+        }
+
         public double getTemperature() { return temperature; }
         public double getMaxTemperature() { return maxTemperature; }
         public double getMinTemperature() { return minTemperature; }
@@ -46,6 +74,9 @@ public class WeatherResponse {
     }
 
     public static class Weather {
+        @SerializedName("id")
+        private int id; // Código de condición (ver WeatherConditions)
+
         @SerializedName("main")
         private String main;
 
@@ -55,6 +86,17 @@ public class WeatherResponse {
         @SerializedName("icon")
         private String icon;
 
+        public Weather() {
+        }
+
+        Weather(int id, String main, String description, String icon) {
+            this.id = id;
+            this.main = main;
+            this.description = description;
+            this.icon = icon;
+        }
+
+        public int getId() { return id; }
         public String getMain() { return main; }
         public String getDescription() { return description; }
         public String getIcon() { return icon; }
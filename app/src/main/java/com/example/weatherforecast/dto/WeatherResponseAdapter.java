@@ -0,0 +1,189 @@
+package com.example.weatherforecast.dto;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * TypeAdapter de streaming para la respuesta de /weather.
+ * Solo lee name, sys.country, main y weather[0]; el resto del JSON se salta sin usar reflexión
+ */
+public class WeatherResponseAdapter extends TypeAdapter<WeatherResponse> {
+
+    @Override
+    public WeatherResponse read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        String cityName = null;
+        WeatherResponse.Sys sys = null;
+        WeatherResponse.Main main = null;
+        List<WeatherResponse.Weather> weather = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "name":
+                    cityName = in.nextString();
+                    break;
+                case "sys":
+                    sys = readSys(in);
+                    break;
+                case "main":
+                    main = readMain(in);
+                    break;
+                case "weather":
+                    weather = readFirstWeather(in);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return new WeatherResponse(cityName, sys, main, weather);
+    }
+
+    private WeatherResponse.Sys readSys(JsonReader in) throws IOException {
+        String country = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            if ("country".equals(in.nextName()) && in.peek() == JsonToken.STRING) {
+                country = in.nextString();
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return new WeatherResponse.Sys(country);
+    }
+
+    private WeatherResponse.Main readMain(JsonReader in) throws IOException {
+        double temperature = 0;
+        double maxTemperature = 0;
+        double minTemperature = 0;
+        int humidity = 0;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "temp":
+                    temperature = in.nextDouble();
+                    break;
+                case "temp_max":
+                    maxTemperature = in.nextDouble();
+                    break;
+                case "temp_min":
+                    minTemperature = in.nextDouble();
+                    break;
+                case "humidity":
+                    humidity = in.nextInt();
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return new WeatherResponse.Main(temperature, maxTemperature, minTemperature, humidity);
+    }
+
+    // Solo se usa el primer elemento de "weather", el resto se salta
+    private List<WeatherResponse.Weather> readFirstWeather(JsonReader in) throws IOException {
+        WeatherResponse.Weather first = null;
+
+        in.beginArray();
+        if (in.hasNext()) {
+            int id = 0;
+            String main = null;
+            String description = null;
+            String icon = null;
+
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "id":
+                        id = in.nextInt();
+                        break;
+                    case "main":
+                        main = in.nextString();
+                        break;
+                    case "description":
+                        description = in.nextString();
+                        break;
+                    case "icon":
+                        icon = in.nextString();
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            first = new WeatherResponse.Weather(id, main, description, icon);
+        }
+        while (in.hasNext()) {
+            in.skipValue();
+        }
+        in.endArray();
+
+        return first != null
+                ? Collections.singletonList(first)
+                : Collections.<WeatherResponse.Weather>emptyList();
+    }
+
+    @Override
+    public void write(JsonWriter out, WeatherResponse value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("name").value(value.getCityName());
+        if (value.getSys() != null) {
+            out.name("sys").beginObject();
+            out.name("country").value(value.getSys().getCountry());
+            out.endObject();
+        }
+        if (value.getMain() != null) {
+            out.name("main").beginObject();
+            out.name("temp").value(value.getMain().getTemperature());
+            out.name("temp_max").value(value.getMain().getMaxTemperature());
+            out.name("temp_min").value(value.getMain().getMinTemperature());
+            out.name("humidity").value(value.getMain().getHumidity());
+            out.endObject();
+        }
+        if (value.getWeather() != null) {
+            out.name("weather").beginArray();
+            for (WeatherResponse.Weather weather : value.getWeather()) {
+                out.beginObject();
+                out.name("id").value(weather.getId());
+                out.name("main").value(weather.getMain());
+                out.name("description").value(weather.getDescription());
+                out.name("icon").value(weather.getIcon());
+                out.endObject();
+            }
+            out.endArray();
+        }
+        out.endObject();
+    }
+}
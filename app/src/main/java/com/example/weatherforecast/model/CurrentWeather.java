@@ -1,22 +1,26 @@
 package com.example.weatherforecast.model;
 
+import java.util.Objects;
+
 /**
- * Modelo del clima actual
+ * Modelo del clima actual. Es inmutable para que la caché en memoria pueda compartir la misma instancia
  */
 public class CurrentWeather {
-    private String location;
-    private String country;
-    private double temperature;
-    private double maxTemperature;
-    private double minTemperature;
-    private String weatherCondition;
-    private String weatherIcon;
-    private String summary;
-    private int humidity;
+    private final String location;
+    private final String country;
+    private final double temperature;
+    private final double maxTemperature;
+    private final double minTemperature;
+    private final String weatherCondition;
+    private final String weatherIcon;
+    private final String summary;
+    private final int humidity;
+    private final int conditions; // Máscara de WeatherConditions
 
     public CurrentWeather(String location, String country, double temperature,
                           double maxTemperature, double minTemperature,
-                          String weatherCondition, String weatherIcon, String summary, int humidity) {
+                          String weatherCondition, String weatherIcon, String summary, int humidity,
+                          int conditions) {
         this.location = location;
         this.country = country;
         this.temperature = temperature;
@@ -26,12 +30,15 @@ public class CurrentWeather {
         this.weatherIcon = weatherIcon;
         this.summary = summary;
         this.humidity = humidity;
+        this.conditions = conditions;
     }
 
-    public CurrentWeather() {
+    // Solo para Gson, que asigna después los campos (también los final) por reflexión
+    private CurrentWeather() {
+        this(null, null, 0, 0, 0, null, null, null, 0, 0);
     }
 
-    // Getters y Setters
+    // Getters
     public String getLocation() {
         return location;
     }
@@ -59,33 +66,32 @@ public class CurrentWeather {
     public int getHumidity() {
         return humidity;
     }
-
-    public void setLocation(String location) {
-        this.location = location;
-    }
-    public void setCountry(String country) {
-        this.country = country;
-    }
-    public void setTemperature(double temperature) {
-        this.temperature = temperature;
+    public int getConditions() {
+        return conditions;
     }
-    public void setMaxTemperature(double maxTemperature) {
-        this.maxTemperature = maxTemperature;
-    }
-    public void setMinTemperature(double minTemperature) {
-        this.minTemperature = minTemperature;
-    }
-    public void setWeatherCondition(String weatherCondition) {
-        this.weatherCondition = weatherCondition;
-    }
-    public void setWeatherIcon(String weatherIcon) {
-        this.weatherIcon = weatherIcon;
-    }
-    public void setSummary(String summary) {
-        this.summary = summary;
+
+    // Igualdad por valor: el controlador solo repinta si algo ha cambiado
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CurrentWeather)) return false;
+        CurrentWeather other = (CurrentWeather) o;
+        return Double.compare(temperature, other.temperature) == 0 &&
+                Double.compare(maxTemperature, other.maxTemperature) == 0 &&
+                Double.compare(minTemperature, other.minTemperature) == 0 &&
+                humidity == other.humidity &&
+                conditions == other.conditions &&
+                Objects.equals(location, other.location) &&
+                Objects.equals(country, other.country) &&
+                Objects.equals(weatherCondition, other.weatherCondition) &&
+                Objects.equals(weatherIcon, other.weatherIcon) &&
+                Objects.equals(summary, other.summary);
     }
-    public void setHumidity(int humidity) {
-        this.humidity = humidity;
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(location, country, temperature, maxTemperature, minTemperature,
+                weatherCondition, weatherIcon, summary, humidity, conditions);
     }
 
 }
@@ -0,0 +1,87 @@
+package com.example.weatherforecast.model;
+
+import java.util.Arrays;
+
+/**
+ * Serie de pronóstico guardada por columnas de tipos primitivos.
+ * Cada posición i es una franja (una hora o un día) con su instante en epoch,
+ * sus temperaturas y un código de condición compacto (ver WeatherIconMapper).
+ * Los textos (hora, día, emoji) solo se generan al pintar la vista
+ */
+public final class ForecastSeries {
+    private final long[] epochs;            // Inicio de cada franja en milisegundos epoch
+    private final float[] temperatures;     // Temperatura de la franja
+    private final float[] minTemperatures;  // Mínima de la franja
+    private final float[] maxTemperatures;  // Máxima de la franja
+    private final byte[] conditions;        // Código de condición de cada franja
+
+    // Los arrays pasan a pertenecer a la serie y no deben modificarse después
+    public ForecastSeries(long[] epochs, float[] temperatures, float[] minTemperatures,
+                          float[] maxTemperatures, byte[] conditions) {
+        this.epochs = epochs;
+        this.temperatures = temperatures;
+        this.minTemperatures = minTemperatures;
+        this.maxTemperatures = maxTemperatures;
+        this.conditions = conditions;
+    }
+
+    // Serie horaria: mínima y máxima coinciden con la temperatura
+    public static ForecastSeries hourly(long[] epochs, float[] temperatures, byte[] conditions) {
+        return new ForecastSeries(epochs, temperatures, temperatures, temperatures, conditions);
+    }
+
+    // Serie diaria: la temperatura de referencia es la máxima del día
+    public static ForecastSeries daily(long[] epochs, float[] minTemperatures, float[] maxTemperatures,
+                                       byte[] conditions) {
+        return new ForecastSeries(epochs, maxTemperatures, minTemperatures, maxTemperatures, conditions);
+    }
+
+    public int size() {
+        return epochs == null ? 0 : epochs.length;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // Getters por posición
+    public long getEpoch(int index) {
+        return epochs[index];
+    }
+    public float getTemperature(int index) {
+        return temperatures[index];
+    }
+    public float getMinTemperature(int index) {
+        return minTemperatures[index];
+    }
+    public float getMaxTemperature(int index) {
+        return maxTemperatures[index];
+    }
+    public byte getCondition(int index) {
+        return conditions[index];
+    }
+
+    // Igualdad por valor de las columnas
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ForecastSeries)) return false;
+        ForecastSeries other = (ForecastSeries) o;
+        return Arrays.equals(epochs, other.epochs) &&
+                Arrays.equals(temperatures, other.temperatures) &&
+                Arrays.equals(minTemperatures, other.minTemperatures) &&
+                Arrays.equals(maxTemperatures, other.maxTemperatures) &&
+                Arrays.equals(conditions, other.conditions);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(epochs);
+        result = 31 * result + Arrays.hashCode(temperatures);
+        result = 31 * result + Arrays.hashCode(minTemperatures);
+        result = 31 * result + Arrays.hashCode(maxTemperatures);
+        result = 31 * result + Arrays.hashCode(conditions);
+        return result;
+    }
+
+}
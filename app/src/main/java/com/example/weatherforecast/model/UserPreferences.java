@@ -1,14 +1,17 @@
 package com.example.weatherforecast.model;
 
+import java.util.Objects;
+
 /**
  * Clase que representa el perfil y preferencias del usuario.
+ * Es inmutable: para cambiar un valor se crea una copia con los métodos with*
  */
-public class UserPreferences {
-    private String name;
-    private String surname;
-    private Gender gender;
-    private Tolerance coldTolerance;
-    private Tolerance heatTolerance;
+public final class UserPreferences {
+    private final String name;
+    private final String surname;
+    private final Gender gender;
+    private final Tolerance coldTolerance;
+    private final Tolerance heatTolerance;
 
     // Enum para el género
     public enum Gender {
@@ -38,7 +41,7 @@ public class UserPreferences {
         this.heatTolerance = heatTolerance;
     }
 
-    // Getters y Setters
+    // Getters
     public String getName() {
         return name;
     }
@@ -55,31 +58,39 @@ public class UserPreferences {
         return heatTolerance;
     }
 
-    public void setName(String name) {
-        this.name = name;
+    // Copias con un valor cambiado (la instancia es inmutable)
+    public UserPreferences withName(String name) {
+        return new UserPreferences(name, surname, gender, coldTolerance, heatTolerance);
     }
-    public void setSurname(String surname) {
-        this.surname = surname;
+    public UserPreferences withSurname(String surname) {
+        return new UserPreferences(name, surname, gender, coldTolerance, heatTolerance);
     }
-    public void setGender(Gender gender) {
-        this.gender = gender;
+    public UserPreferences withGender(Gender gender) {
+        return new UserPreferences(name, surname, gender, coldTolerance, heatTolerance);
     }
-    public void setColdTolerance(Tolerance coldTolerance) {
-        this.coldTolerance = coldTolerance;
+    public UserPreferences withColdTolerance(Tolerance coldTolerance) {
+        return new UserPreferences(name, surname, gender, coldTolerance, heatTolerance);
     }
-    public void setHeatTolerance(Tolerance heatTolerance) {
-        this.heatTolerance = heatTolerance;
+    public UserPreferences withHeatTolerance(Tolerance heatTolerance) {
+        return new UserPreferences(name, surname, gender, coldTolerance, heatTolerance);
+    }
+
+    // Igualdad por valor (para saber si hay cambios sin guardar)
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof UserPreferences)) return false;
+        UserPreferences other = (UserPreferences) o;
+        return Objects.equals(name, other.name) &&
+                Objects.equals(surname, other.surname) &&
+                gender == other.gender &&
+                coldTolerance == other.coldTolerance &&
+                heatTolerance == other.heatTolerance;
     }
 
-    // Método para clonar la instancia
-    public UserPreferences copy() {
-        return new UserPreferences(
-                this.name,
-                this.surname,
-                this.gender,
-                this.coldTolerance,
-                this.heatTolerance
-        );
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, surname, gender, coldTolerance, heatTolerance);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.example.weatherforecast.model;
+
+/**
+ * Clase que agrupa el clima actual y los pronósticos de una misma consulta,
+ * para que la vista los reciba como una única unidad
+ */
+public class WeatherSnapshot {
+    private final CurrentWeather currentWeather;
+    private final ForecastSeries hourlyForecast;
+    private final ForecastSeries dailyForecast;
+    private final String currentWeatherError;  // null si el clima actual se obtuvo bien
+    private final String forecastError;        // null si el pronóstico se obtuvo bien
+
+    public WeatherSnapshot(CurrentWeather currentWeather, ForecastSeries hourlyForecast,
+                           ForecastSeries dailyForecast, String currentWeatherError,
+                           String forecastError) {
+        this.currentWeather = currentWeather;
+        this.hourlyForecast = hourlyForecast;
+        this.dailyForecast = dailyForecast;
+        this.currentWeatherError = currentWeatherError;
+        this.forecastError = forecastError;
+    }
+
+    // Getters
+    public CurrentWeather getCurrentWeather() {
+        return currentWeather;
+    }
+    public ForecastSeries getHourlyForecast() {
+        return hourlyForecast;
+    }
+    public ForecastSeries getDailyForecast() {
+        return dailyForecast;
+    }
+    public String getCurrentWeatherError() {
+        return currentWeatherError;
+    }
+    public String getForecastError() {
+        return forecastError;
+    }
+
+    public boolean hasCurrentWeather() {
+        return currentWeather != null;
+    }
+
+    public boolean hasForecast() {
+        return hourlyForecast != null && dailyForecast != null;
+    }
+
+    // Devuelve true si alguna de las dos peticiones ha fallado
+    public boolean isPartial() {
+        return currentWeatherError != null || forecastError != null;
+    }
+
+}
@@ -2,8 +2,19 @@ package com.example.weatherforecast.repository;
 
 import com.example.weatherforecast.dto.ForecastResponse;
 import com.example.weatherforecast.dto.WeatherResponse;
+import com.example.weatherforecast.util.GsonProvider;
+import com.example.weatherforecast.util.HttpClientProvider;
+import com.example.weatherforecast.util.LocationKey;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 import retrofit2.http.GET;
@@ -11,29 +22,88 @@ import retrofit2.http.Query;
 
 /**
  * Clase encargada de gestionar las llamadas a la API de OpenWeather.
+ * Las peticiones iguales que coinciden en el tiempo se agrupan en una sola llamada
  */
 public class WeatherRepository {
     private static final String BASE_URL = "https://api.openweathermap.org/data/2.5/";
     private static final String API_KEY = "fd55aeb51961a4033188497fa3b1f146"; // API Key de OpenWeather
 
+    private static final String ENDPOINT_WEATHER = "weather";
+    private static final String ENDPOINT_FORECAST = "forecast";
+
+    // Peticiones en curso compartidas por todas las instancias, por (endpoint, ciudad)
+    private static final Map<String, List<Callback<?>>> inFlight = new HashMap<>();
+
     private final WeatherApiService apiService;
 
     public WeatherRepository() {
         Retrofit retrofit = new Retrofit.Builder()
                 .baseUrl(BASE_URL)
-                .addConverterFactory(GsonConverterFactory.create())
+                .client(HttpClientProvider.get())
+                .addConverterFactory(GsonConverterFactory.create(GsonProvider.get()))
                 .build();
 
         apiService = retrofit.create(WeatherApiService.class);
     }
 
     // Units se encarga de devolver la temperatura en Celsius
-    public Call<WeatherResponse> getCurrentWeather(String city) {
-        return apiService.getCurrentWeather(city, "metric", API_KEY);
+    public void getCurrentWeather(String city, Callback<WeatherResponse> callback) {
+        enqueueShared(ENDPOINT_WEATHER, city,
+                () -> apiService.getCurrentWeather(city, "metric", API_KEY), callback);
+    }
+
+    public void getForecast(String city, Callback<ForecastResponse> callback) {
+        enqueueShared(ENDPOINT_FORECAST, city,
+                () -> apiService.getForecast(city, "metric", API_KEY), callback);
+    }
+
+    // Si ya hay una petición igual en curso, el callback se suma a ella; si no, se lanza una nueva
+    private <T> void enqueueShared(String endpoint, String city, Supplier<Call<T>> callFactory,
+                                   Callback<T> callback) {
+        final String key = endpoint + "|" + LocationKey.canonical(city);
+
+        synchronized (inFlight) {
+            List<Callback<?>> waiting = inFlight.get(key);
+            if (waiting != null) {
+                waiting.add(callback);
+                return;
+            }
+            waiting = new ArrayList<>();
+            waiting.add(callback);
+            inFlight.put(key, waiting);
+        }
+
+        callFactory.get().enqueue(new Callback<T>() {
+            @Override
+            public void onResponse(Call<T> call, Response<T> response) {
+                for (Callback<T> waiting : drain(key)) {
+                    waiting.onResponse(call, response);
+                }
+            }
+
+            @Override
+            public void onFailure(Call<T> call, Throwable t) {
+                for (Callback<T> waiting : drain(key)) {
+                    waiting.onFailure(call, t);
+                }
+            }
+        });
     }
 
-    public Call<ForecastResponse> getForecast(String city) {
-        return apiService.getForecast(city, "metric", API_KEY);
+    // Saca de la tabla todos los callbacks que esperaban la petición
+    @SuppressWarnings("unchecked")
+    private static <T> List<Callback<T>> drain(String key) {
+        List<Callback<?>> waiting;
+        synchronized (inFlight) {
+            waiting = inFlight.remove(key);
+        }
+        List<Callback<T>> result = new ArrayList<>();
+        if (waiting != null) {
+            for (Callback<?> callback : waiting) {
+                result.add((Callback<T>) callback);
+            }
+        }
+        return result;
     }
 
     // Interfaz para definir las llamadas a la API
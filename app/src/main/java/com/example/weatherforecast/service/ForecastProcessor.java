@@ -1,140 +1,114 @@
 package com.example.weatherforecast.service;
 
 import com.example.weatherforecast.dto.ForecastResponse;
-import com.example.weatherforecast.model.DailyForecast;
-import com.example.weatherforecast.model.HourlyForecast;
+import com.example.weatherforecast.model.ForecastSeries;
+import com.example.weatherforecast.util.DateCodec;
 import com.example.weatherforecast.util.WeatherIconMapper;
 
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.Date;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 
 /**
  * Clase encargada de procesar los datos de pronóstico del clima.
+ * Devuelve series por columnas (ForecastSeries); los textos se generan al pintar
  */
 public class ForecastProcessor {
+    private static final int HOURS_TO_FORECAST = 24;
+    private static final int DAYS_TO_FORECAST = 7;
+    private static final long HOUR_MILLIS = 60 * 60 * 1000L;
+
     private final WeatherIconMapper iconMapper;
 
     public ForecastProcessor(WeatherIconMapper iconMapper) {
         this.iconMapper = iconMapper;
     }
 
-    public List<HourlyForecast> processHourlyForecast(ForecastResponse response) {
-        List<HourlyForecast> hourlyList = new ArrayList<>();
-        SimpleDateFormat inputFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
-        SimpleDateFormat outputFormat = new SimpleDateFormat("HH" + ":00", Locale.getDefault());
+    // Genera las próximas 24 horas a partir de la hora actual
+    public ForecastSeries processHourlyForecast(ForecastResponse response) {
+        return processHourlyForecast(response, System.currentTimeMillis());
+    }
 
-        if (response.getList() == null || response.getList().isEmpty()) {
-            return hourlyList;
+    // Genera 24 horas desde "now" en una sola pasada: las fechas de la API se convierten a epoch
+    // una vez y un cursor avanza por la serie a medida que avanza la hora objetivo
+    ForecastSeries processHourlyForecast(ForecastResponse response, long now) {
+        List<ForecastResponse.TimePoint> points = response.getList();
+        if (points == null || points.isEmpty()) {
+            return ForecastSeries.hourly(new long[0], new float[0], new byte[0]);
         }
 
-        // Obtener la hora actual
-        Calendar currentCal = Calendar.getInstance();
-
-        // Filtrar pronóstico por hora
-        try {
-            ForecastResponse.TimePoint firstPoint = response.getList().get(0);
-            Date firstDate = inputFormat.parse(firstPoint.getDateTimeText());
-            Calendar firstCal = Calendar.getInstance();
-            firstCal.setTime(firstDate);
-
-            // Generar pronóstico por hora
-            for (int hour = 0; hour < 24; hour++) {
-                Calendar targetCal = (Calendar) currentCal.clone();
-                targetCal.add(Calendar.HOUR_OF_DAY, hour);
-
-                ForecastResponse.TimePoint before = null;
-                ForecastResponse.TimePoint after = null;
-
-                // Bucle que encuentra los puntos antes y después de la hora actual
-                for (int i = 0; i < response.getList().size() - 1; i++) {
-                    ForecastResponse.TimePoint current = response.getList().get(i);
-                    ForecastResponse.TimePoint next = response.getList().get(i + 1);
-
-                    Date currentDate = inputFormat.parse(current.getDateTimeText());
-                    Date nextDate = inputFormat.parse(next.getDateTimeText());
-
-                    // Si la hora actual está entre las dos horas de pronóstico, guardar los puntos
-                    if (currentDate.getTime() <= targetCal.getTimeInMillis() &&
-                            nextDate.getTime() > targetCal.getTimeInMillis()) {
-                        before = current;
-                        after = next;
-                        break;
-                    }
-                }
-
-                // Si no encontramos puntos para interpolar, usamos el más cercano
-                if (before == null || after == null) {
-                    ForecastResponse.TimePoint nearest = findNearestTimePoint(response.getList(),
-                            targetCal.getTimeInMillis(),
-                            inputFormat);
-                    if (nearest == null) {
-                        continue;
-                    }
+        int count = points.size();
+        long[] epochs = toEpochMillis(points);
 
-                    String formattedHour = outputFormat.format(targetCal.getTime());
-                    String iconCode = "";
-                    if (nearest.getWeather() != null && !nearest.getWeather().isEmpty()) {
-                        iconCode = nearest.getWeather().get(0).getIcon();
-                    }
+        long[] hours = new long[HOURS_TO_FORECAST];
+        float[] temperatures = new float[HOURS_TO_FORECAST];
+        byte[] conditions = new byte[HOURS_TO_FORECAST];
 
-                    HourlyForecast hourlyForecast = new HourlyForecast(
-                            formattedHour,
-                            nearest.getMain().getTemperature(),
-                            iconMapper.getEmojiFromIconCode(iconCode)
-                    );
+        int cursor = 0;
 
-                    hourlyList.add(hourlyForecast);
-                    continue;
-                }
+        for (int hour = 0; hour < HOURS_TO_FORECAST; hour++) {
+            long target = now + hour * HOUR_MILLIS;
 
-                // Interpolar la temperatura entre los dos puntos
-                Date beforeDate = inputFormat.parse(before.getDateTimeText());
-                Date afterDate = inputFormat.parse(after.getDateTimeText());
+            // Avanzar el cursor hasta el último punto que no supera la hora objetivo
+            while (cursor + 1 < count && epochs[cursor + 1] <= target) {
+                cursor++;
+            }
 
-                double totalTimeDiff = afterDate.getTime() - beforeDate.getTime();
-                double targetTimeDiff = targetCal.getTimeInMillis() - beforeDate.getTime();
-                double ratio = targetTimeDiff / totalTimeDiff;
+            ForecastResponse.TimePoint before = points.get(cursor);
+            double temperature;
 
-                double interpolatedTemp = before.getMain().getTemperature() +
+            if (epochs[cursor] <= target && cursor + 1 < count) {
+                // Interpolar la temperatura entre los dos puntos que rodean la hora
+                ForecastResponse.TimePoint after = points.get(cursor + 1);
+                double ratio = (double) (target - epochs[cursor]) / (epochs[cursor + 1] - epochs[cursor]);
+                temperature = before.getMain().getTemperature() +
                         ratio * (after.getMain().getTemperature() - before.getMain().getTemperature());
+            } else {
+                // Fuera del rango de la serie: se usa el punto más cercano (el primero o el último)
+                temperature = before.getMain().getTemperature();
+            }
 
-                String formattedHour = outputFormat.format(targetCal.getTime());
-                String iconCode = "";
-                if (before.getWeather() != null && !before.getWeather().isEmpty()) {
-                    iconCode = before.getWeather().get(0).getIcon();
-                }
+            hours[hour] = target;
+            temperatures[hour] = (float) temperature;
+            conditions[hour] = iconMapper.getConditionCode(firstIcon(before));
+        }
 
-                HourlyForecast hourlyForecast = new HourlyForecast(
-                        formattedHour,
-                        interpolatedTemp,
-                        iconMapper.getEmojiFromIconCode(iconCode)
-                );
+        return ForecastSeries.hourly(hours, temperatures, conditions);
+    }
 
-                hourlyList.add(hourlyForecast);
-            }
+    // Convierte cada punto a milisegundos epoch una sola vez. Se usa "dt" y,
+    // solo si falta, se parsea "dt_txt"
+    private long[] toEpochMillis(List<ForecastResponse.TimePoint> points) {
+        long[] epochs = new long[points.size()];
 
-        } catch (Exception e) {
-            e.printStackTrace();
+        for (int i = 0; i < epochs.length; i++) {
+            ForecastResponse.TimePoint point = points.get(i);
+            if (point.getTimestamp() > 0) {
+                epochs[i] = point.getTimestamp() * 1000L;
+                continue;
+            }
+            try {
+                epochs[i] = DateCodec.parseUtcDateTime(point.getDateTimeText()); // dt_txt viene en UTC
+            } catch (Exception e) {
+                e.printStackTrace();
+                // Mantener la serie ordenada aunque falte la fecha
+                epochs[i] = i > 0 ? epochs[i - 1] : 0;
+            }
         }
-
-        return hourlyList;
+        return epochs;
     }
 
     // Método para procesar pronóstico diario
-    public List<DailyForecast> processDailyForecast(ForecastResponse response) {
-        Map<String, List<ForecastResponse.TimePoint>> dailyPoints = new HashMap<>();
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
+    public ForecastSeries processDailyForecast(ForecastResponse response) {
+        Map<Long, List<ForecastResponse.TimePoint>> dailyPoints = new HashMap<>();
 
         // Agrupar puntos por fecha
         for (ForecastResponse.TimePoint point : response.getList()) {
             try {
-                String dateKey = point.getDateTimeText().split(" ")[0];
+                Long dateKey = DateCodec.parseIsoEpochDay(point.getDateTimeText());
 
                 if (!dailyPoints.containsKey(dateKey)) {
                     dailyPoints.put(dateKey, new ArrayList<>());
@@ -146,104 +120,72 @@ public class ForecastProcessor {
             }
         }
 
-        // Crear pronóstico diario
-        List<DailyForecast> dailyList = new ArrayList<>();
-        String[] dayAbbreviations = {"Dom", "Lun", "Mar", "Mié", "Jue", "Vie", "Sáb"};
-
-        Calendar calendar = Calendar.getInstance();
-        SimpleDateFormat dayOfWeekFormat = new SimpleDateFormat("EEEE", new Locale("es", "ES"));
-
         // Organizar por fecha
-        List<String> sortedDates = new ArrayList<>(dailyPoints.keySet());
-        java.util.Collections.sort(sortedDates);
+        List<Long> sortedDates = new ArrayList<>(dailyPoints.keySet());
+        Collections.sort(sortedDates);
 
         // Si tenemos menos de 7 días en los datos de la API, generar días adicionales
-        if (sortedDates.size() < 7) {
-            try {
-                // Obtener la última fecha disponible
-                String lastDateStr = sortedDates.get(sortedDates.size() - 1);
-                Date lastDate = dateFormat.parse(lastDateStr);
-                Calendar lastCal = Calendar.getInstance();
-                lastCal.setTime(lastDate);
-
-                // Añadir fechas adicionales
-                int daysToAdd = 7 - sortedDates.size();
-                for (int i = 0; i < daysToAdd; i++) {
-                    lastCal.add(Calendar.DAY_OF_MONTH, 1);
-                    String newDateStr = dateFormat.format(lastCal.getTime());
-                    sortedDates.add(newDateStr);
-
-                    // Añadir una lista vacía para este día
-                    if (!dailyPoints.containsKey(newDateStr)) {
-                        dailyPoints.put(newDateStr, new ArrayList<>());
-                    }
+        if (!sortedDates.isEmpty() && sortedDates.size() < DAYS_TO_FORECAST) {
+            // Obtener la última fecha disponible
+            long lastDay = sortedDates.get(sortedDates.size() - 1);
+
+            // Añadir fechas adicionales con una lista vacía
+            int daysToAdd = DAYS_TO_FORECAST - sortedDates.size();
+            for (int i = 0; i < daysToAdd; i++) {
+                lastDay++;
+                sortedDates.add(lastDay);
+                if (!dailyPoints.containsKey(lastDay)) {
+                    dailyPoints.put(lastDay, new ArrayList<>());
                 }
-            } catch (Exception e) {
-                e.printStackTrace();
             }
         }
 
+        // Crear pronóstico diario
+        int days = Math.min(DAYS_TO_FORECAST, sortedDates.size());
+        long[] epochs = new long[days];
+        float[] maxTemperatures = new float[days];
+        float[] minTemperatures = new float[days];
+        byte[] conditions = new byte[days];
+        int filled = 0;
+
         // Generar pronóstico diario
-        for (int i = 0; i < Math.min(7, sortedDates.size()); i++) {
-            String dateKey = sortedDates.get(i);
+        for (int i = 0; i < days; i++) {
+            long dateKey = sortedDates.get(i);
             List<ForecastResponse.TimePoint> points = dailyPoints.get(dateKey);
 
             try {
-                Date date = dateFormat.parse(dateKey);
-                calendar.setTime(date);
-                int dayOfWeek = calendar.get(Calendar.DAY_OF_WEEK) - 1;
-
-                // Para el día actual, mostrar "Hoy"
-                String dayText;
-                if (i == 0) {
-                    dayText = "Hoy";
-                } else {
-                    dayText = dayAbbreviations[dayOfWeek];
-                }
+                double maxTemp;
+                double minTemp;
+                String icon;
 
                 // Si no hay puntos de datos para este día, basarse en el día anterior
-                if (points.isEmpty() && i > 0) {
-                    String prevDateKey = sortedDates.get(i - 1);
-                    List<ForecastResponse.TimePoint> prevPoints = dailyPoints.get(prevDateKey);
-
-                    if (!prevPoints.isEmpty()) {
-                        // Usar los datos del día anterior con ligeras variaciones
-                        double maxTemp = 0;
-                        double minTemp = 0;
-                        String mostCommonIcon = "";
-
-                        for (ForecastResponse.TimePoint point : prevPoints) {
-                            maxTemp = Math.max(maxTemp, point.getMain().getMaxTemperature());
-                            minTemp = Math.min(minTemp, point.getMain().getMinTemperature());
-
-                            if (point.getWeather() != null && !point.getWeather().isEmpty()) {
-                                mostCommonIcon = point.getWeather().get(0).getIcon();
-                            }
-                        }
+                List<ForecastResponse.TimePoint> prevPoints =
+                        i > 0 ? dailyPoints.get(sortedDates.get(i - 1)) : null;
 
-                        // Añadir pequeña variación aleatoria para simular predicción
-                        double randVariation = (Math.random() * 2) - 1;
-                        maxTemp += randVariation;
-                        minTemp += randVariation;
+                if (points.isEmpty() && prevPoints != null && !prevPoints.isEmpty()) {
+                    // Usar los datos del día anterior con ligeras variaciones
+                    maxTemp = 0;
+                    minTemp = 0;
+                    icon = "";
 
-                        DailyForecast dailyForecast = new DailyForecast(
-                                dayText,
-                                maxTemp,
-                                minTemp,
-                                iconMapper.getEmojiFromIconCode(mostCommonIcon)
-                        );
+                    for (ForecastResponse.TimePoint point : prevPoints) {
+                        maxTemp = Math.max(maxTemp, point.getMain().getMaxTemperature());
+                        minTemp = Math.min(minTemp, point.getMain().getMinTemperature());
 
-                        dailyList.add(dailyForecast);
-                        continue;
+                        if (point.getWeather() != null && !point.getWeather().isEmpty()) {
+                            icon = point.getWeather().get(0).getIcon();
+                        }
                     }
-                }
 
-                // Procesamiento normal si hay puntos de datos
-                if (!points.isEmpty()) {
+                    // Añadir pequeña variación aleatoria para simular predicción
+                    double randVariation = (Math.random() * 2) - 1;
+                    maxTemp += randVariation;
+                    minTemp += randVariation;
+                } else if (!points.isEmpty()) {
                     // Calcular temperaturas máxima y mínima del día
-                    double maxTemp = Double.MIN_VALUE;
-                    double minTemp = Double.MAX_VALUE;
-                    String mostCommonIcon = "";
+                    maxTemp = Double.MIN_VALUE;
+                    minTemp = Double.MAX_VALUE;
+                    icon = "";
                     Map<String, Integer> iconCounts = new HashMap<>();
 
                     // Contar el número de veces que aparece cada icono
@@ -253,8 +195,8 @@ public class ForecastProcessor {
 
                         // Contar el icono más común del día
                         if (point.getWeather() != null && !point.getWeather().isEmpty()) {
-                            String icon = point.getWeather().get(0).getIcon();
-                            iconCounts.put(icon, iconCounts.getOrDefault(icon, 0) + 1);
+                            String pointIcon = point.getWeather().get(0).getIcon();
+                            iconCounts.put(pointIcon, iconCounts.getOrDefault(pointIcon, 0) + 1);
                         }
                     }
 
@@ -263,58 +205,41 @@ public class ForecastProcessor {
                     for (Map.Entry<String, Integer> entry : iconCounts.entrySet()) {
                         if (entry.getValue() > maxCount) {
                             maxCount = entry.getValue();
-                            mostCommonIcon = entry.getKey();
+                            icon = entry.getKey();
                         }
                     }
-
-                    DailyForecast dailyForecast = new DailyForecast(
-                            dayText,
-                            maxTemp,
-                            minTemp,
-                            iconMapper.getEmojiFromIconCode(mostCommonIcon)
-                    );
-
-                    dailyList.add(dailyForecast);
                 } else {
-                    // Si no hay datos y es el primer día
-                    DailyForecast dailyForecast = new DailyForecast(
-                            dayText,
-                            20.0, // Temperatura predeterminada
-                            15.0, // Temperatura predeterminada
-                            "🌤️" // Icono predeterminado
-                    );
-
-                    dailyList.add(dailyForecast);
+                    // Si no hay datos: valores predeterminados
+                    maxTemp = 20.0;
+                    minTemp = 15.0;
+                    icon = null; // Icono predeterminado
                 }
+
+                epochs[filled] = DateCodec.startOfDay(dateKey);
+                maxTemperatures[filled] = (float) maxTemp;
+                minTemperatures[filled] = (float) minTemp;
+                conditions[filled] = iconMapper.getConditionCode(icon);
+                filled++;
             } catch (Exception e) {
                 e.printStackTrace();
             }
         }
-        return dailyList;
-    }
-
-    private ForecastResponse.TimePoint findNearestTimePoint(
-            List<ForecastResponse.TimePoint> points,
-            long targetTime,
-            SimpleDateFormat format) {
 
-        ForecastResponse.TimePoint nearest = null;
-        long minTimeDiff = Long.MAX_VALUE;
-
-        try {
-            for (ForecastResponse.TimePoint point : points) {
-                Date pointDate = format.parse(point.getDateTimeText());
-                long timeDiff = Math.abs(pointDate.getTime() - targetTime);
+        if (filled < days) {
+            epochs = Arrays.copyOf(epochs, filled);
+            maxTemperatures = Arrays.copyOf(maxTemperatures, filled);
+            minTemperatures = Arrays.copyOf(minTemperatures, filled);
+            conditions = Arrays.copyOf(conditions, filled);
+        }
+        return ForecastSeries.daily(epochs, minTemperatures, maxTemperatures, conditions);
+    }
 
-                if (timeDiff < minTimeDiff) {
-                    minTimeDiff = timeDiff;
-                    nearest = point;
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
+    // Icono del primer elemento de "weather", o cadena vacía si no hay
+    private String firstIcon(ForecastResponse.TimePoint point) {
+        if (point.getWeather() != null && !point.getWeather().isEmpty()) {
+            return point.getWeather().get(0).getIcon();
         }
-        return nearest;
+        return "";
     }
 
-}
\ No newline at end of file
+}
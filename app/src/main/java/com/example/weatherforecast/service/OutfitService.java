@@ -3,8 +3,10 @@ package com.example.weatherforecast.service;
 import com.example.weatherforecast.model.OutfitRecommendation;
 import com.example.weatherforecast.model.CurrentWeather;
 import com.example.weatherforecast.model.UserPreferences;
+import com.example.weatherforecast.util.WeatherConditions;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -24,16 +26,114 @@ public class OutfitService {
     private static final int HIGH_HUMIDITY = 70;    //alta humedad
     private static final int LOW_HUMIDITY = 30;     // baja humedad
 
+    // Franjas de temperatura (índices de la tabla)
+    private static final int BAND_VERY_COLD = 0;
+    private static final int BAND_COLD = 1;
+    private static final int BAND_MILD = 2;
+    private static final int BAND_HOT = 3;
+    private static final int BAND_VERY_HOT = 4;
+    static final int BAND_COUNT = 5;
+
+    // Prendas añadidas por la humedad alta según la temperatura ajustada
+    private static final int HUMID_NONE = 0;
+    private static final int HUMID_COLD = 1;   // <= COLD
+    private static final int HUMID_HOT = 2;    // >= HOT
+    static final int HUMID_COUNT = 3;
+
+    // Capas de clima que se aplican sobre la base (bits de la clave)
+    private static final int OVERLAY_RAIN = 1;
+    private static final int OVERLAY_SNOW = 1 << 1;
+    private static final int OVERLAY_WIND = 1 << 2;
+    static final int OVERLAY_COUNT = 1 << 3;
+
+    private static final OutfitRecommendation.Style[] STYLES = OutfitRecommendation.Style.values();
+    private static final UserPreferences.Gender[] GENDERS = UserPreferences.Gender.values();
+    static final int STYLE_COUNT = STYLES.length;
+    static final int GENDER_COUNT = GENDERS.length;
+
+    // Las reglas (los métodos generate* y add*) se ejecutan una sola vez al cargar la clase y
+    // sus resultados se guardan como listas inmutables compartidas
+    private static final Layer[][][] BASE = new Layer[BAND_COUNT][STYLE_COUNT][GENDER_COUNT];   // [franja][estilo][género]
+    private static final Layer[][] RAIN = new Layer[STYLE_COUNT][GENDER_COUNT];
+    private static final Layer[][] SNOW = new Layer[STYLE_COUNT][GENDER_COUNT];
+    private static final Layer[][] WIND = new Layer[STYLE_COUNT][GENDER_COUNT];
+    private static final Layer[] HUMIDITY = new Layer[HUMID_COUNT];
+
+    // Con esas capas se precalculan todas las recomendaciones posibles (franja x estilo x género
+    // x humedad x lluvia/nieve/viento, 1080 en total). Son inmutables, así que cada llamada
+    // devuelve la misma instancia sin crear nada (ver recommendationKey)
+    static final OutfitRecommendation[] RECOMMENDATIONS =
+            new OutfitRecommendation[BAND_COUNT * STYLE_COUNT * GENDER_COUNT * HUMID_COUNT * OVERLAY_COUNT];
+
+    static {
+        for (OutfitRecommendation.Style style : STYLES) {
+            for (UserPreferences.Gender gender : GENDERS) {
+                int s = style.ordinal();
+                int g = gender.ordinal();
+                Layer.Builder b;
+
+                b = new Layer.Builder();
+                generateVeryColdOutfit(style, b.tops, b.bottoms, b.shoes, b.outerwear, b.accessories, gender);
+                BASE[BAND_VERY_COLD][s][g] = b.build();
+                b = new Layer.Builder();
+                generateColdOutfit(style, b.tops, b.bottoms, b.shoes, b.outerwear, b.accessories, gender);
+                BASE[BAND_COLD][s][g] = b.build();
+                b = new Layer.Builder();
+                generateMildOutfit(style, b.tops, b.bottoms, b.shoes, b.outerwear, b.accessories, gender);
+                BASE[BAND_MILD][s][g] = b.build();
+                b = new Layer.Builder();
+                generateHotOutfit(style, b.tops, b.bottoms, b.shoes, b.outerwear, b.accessories, gender);
+                BASE[BAND_HOT][s][g] = b.build();
+                b = new Layer.Builder();
+                generateVeryHotOutfit(style, b.tops, b.bottoms, b.shoes, b.outerwear, b.accessories, gender);
+                BASE[BAND_VERY_HOT][s][g] = b.build();
+
+                // Lluvia y nieve sustituyen el calzado: aplicadas sobre listas vacías, lo que
+                // queda en shoes es el calzado que reemplaza al de la base
+                b = new Layer.Builder();
+                addRainyDayItems(style, b.outerwear, b.accessories, b.shoes, gender);
+                RAIN[s][g] = b.build();
+                b = new Layer.Builder();
+                addSnowyDayItems(style, b.outerwear, b.accessories, b.shoes, gender);
+                SNOW[s][g] = b.build();
+                b = new Layer.Builder();
+                addWindyDayItems(style, b.accessories, gender);
+                WIND[s][g] = b.build();
+            }
+        }
+
+        HUMIDITY[HUMID_NONE] = Layer.NONE;
+        Layer.Builder b = new Layer.Builder();
+        addHighHumidityItems(COLD, b.accessories);
+        HUMIDITY[HUMID_COLD] = b.build();
+        b = new Layer.Builder();
+        addHighHumidityItems(HOT, b.accessories);
+        HUMIDITY[HUMID_HOT] = b.build();
+
+        for (int band = 0; band < BAND_COUNT; band++) {
+            for (int s = 0; s < STYLE_COUNT; s++) {
+                for (int g = 0; g < GENDER_COUNT; g++) {
+                    for (int humid = 0; humid < HUMID_COUNT; humid++) {
+                        for (int overlays = 0; overlays < OVERLAY_COUNT; overlays++) {
+                            RECOMMENDATIONS[recommendationKey(band, s, g, humid, overlays)] =
+                                    compose(band, s, g, humid, overlays);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
     public OutfitRecommendation getOutfitRecommendation(CurrentWeather weather,
                                                         OutfitRecommendation.Style style,
                                                         UserPreferences userPreferences) {
         double temperature = weather.getTemperature();
         int humidity = weather.getHumidity();
-        String condition = weather.getWeatherCondition().toLowerCase();
-        boolean isRainy = condition.contains("rain") || condition.contains("shower") || condition.contains("lluvia");
-        boolean isSnowy = condition.contains("snow") || condition.contains("nieve");
-        boolean isCloudy = condition.contains("cloud") || condition.contains("nublado");
-        boolean isWindy = condition.contains("wind") || condition.contains("viento");
+        int conditions = weather.getConditions();
+        int overlays = 0;
+        if (WeatherConditions.has(conditions, WeatherConditions.RAIN)) overlays |= OVERLAY_RAIN;
+        if (WeatherConditions.has(conditions, WeatherConditions.SNOW)) overlays |= OVERLAY_SNOW;
+        if (WeatherConditions.has(conditions, WeatherConditions.WIND)) overlays |= OVERLAY_WIND;
 
         // Preferencias del usuario
         UserPreferences.Gender gender = userPreferences.getGender();
@@ -46,46 +146,76 @@ public class OutfitService {
         // Ajustar según la humedad
         adjustedTemperature = adjustTemperatureByHumidity(adjustedTemperature, humidity);
 
-        List<String> tops = new ArrayList<>();
-        List<String> bottoms = new ArrayList<>();
-        List<String> shoes = new ArrayList<>();
-        List<String> outerwear = new ArrayList<>();
-        List<String> accessories = new ArrayList<>();
-
-        // Usamos adjustedTemperature para las decisiones
-        if (adjustedTemperature <= VERY_COLD) {
-            generateVeryColdOutfit(style, tops, bottoms, shoes, outerwear, accessories, gender);
-        } else if (adjustedTemperature <= COLD) {
-            generateColdOutfit(style, tops, bottoms, shoes, outerwear, accessories, gender);
-        } else if (adjustedTemperature <= MILD) {
-            generateMildOutfit(style, tops, bottoms, shoes, outerwear, accessories, gender);
-        } else if (adjustedTemperature <= HOT) {
-            generateHotOutfit(style, tops, bottoms, shoes, outerwear, accessories, gender);
-        } else {
-            generateVeryHotOutfit(style, tops, bottoms, shoes, outerwear, accessories, gender);
-        }
+        int humid = humidity >= HIGH_HUMIDITY ? humidityClass(adjustedTemperature) : HUMID_NONE;
 
-        if (humidity >= HIGH_HUMIDITY) { // Si la humedad es alta
-            addHighHumidityItems(adjustedTemperature, accessories); // Agregamos elementos
-        }
+        return RECOMMENDATIONS[recommendationKey(temperatureBand(adjustedTemperature),
+                style.ordinal(), gender.ordinal(), humid, overlays)];
+    }
 
-        if (isRainy) {
-            addRainyDayItems(style, outerwear, accessories, shoes, gender);
-        }
+    // Posición de una combinación de entradas en RECOMMENDATIONS
+    static int recommendationKey(int band, int style, int gender, int humid, int overlays) {
+        return (((band * STYLE_COUNT + style) * GENDER_COUNT + gender) * HUMID_COUNT + humid) * OVERLAY_COUNT + overlays;
+    }
 
-        if (isSnowy) {
-            addSnowyDayItems(style, outerwear, accessories, shoes, gender);
-        }
+    // Recomendación de una combinación a partir de las capas, en el orden en que se aplicaban
+    // las reglas: base, humedad, lluvia, nieve y viento
+    static OutfitRecommendation compose(int band, int s, int g, int humidClass, int overlays) {
+        Layer base = BASE[band][s][g];
+        Layer humid = HUMIDITY[humidClass];
+        Layer rain = (overlays & OVERLAY_RAIN) != 0 ? RAIN[s][g] : Layer.NONE;
+        Layer snow = (overlays & OVERLAY_SNOW) != 0 ? SNOW[s][g] : Layer.NONE;
+        Layer wind = (overlays & OVERLAY_WIND) != 0 ? WIND[s][g] : Layer.NONE;
+
+        // Lluvia y nieve sustituyen el calzado; si hay las dos, queda el de la nieve
+        List<String> shoes = base.shoes;
+        if (!rain.shoes.isEmpty()) shoes = rain.shoes;
+        if (!snow.shoes.isEmpty()) shoes = snow.shoes;
+
+        return new OutfitRecommendation(
+                base.tops,
+                base.bottoms,
+                shoes,
+                combine(base.outerwear, humid.outerwear, rain.outerwear, snow.outerwear, wind.outerwear),
+                combine(base.accessories, humid.accessories, rain.accessories, snow.accessories, wind.accessories),
+                STYLES[s]);
+    }
+
+    // Índice de la franja de temperatura en la tabla
+    private static int temperatureBand(double adjustedTemperature) {
+        if (adjustedTemperature <= VERY_COLD) return BAND_VERY_COLD;
+        if (adjustedTemperature <= COLD) return BAND_COLD;
+        if (adjustedTemperature <= MILD) return BAND_MILD;
+        if (adjustedTemperature <= HOT) return BAND_HOT;
+        return BAND_VERY_HOT;
+    }
+
+    // Prendas que añade la humedad alta (ver addHighHumidityItems)
+    private static int humidityClass(double adjustedTemperature) {
+        if (adjustedTemperature <= COLD) return HUMID_COLD;
+        if (adjustedTemperature >= HOT) return HUMID_HOT;
+        return HUMID_NONE;
+    }
 
-        if (isWindy) {
-            addWindyDayItems(style, accessories, gender);
+    // Lista de la base seguida de las prendas que añade cada capa. Si ninguna añade nada se
+    // devuelve la lista compartida de la base
+    private static List<String> combine(List<String> base, List<String> humid, List<String> rain,
+                                        List<String> snow, List<String> wind) {
+        int extra = humid.size() + rain.size() + snow.size() + wind.size();
+        if (extra == 0) {
+            return base;
         }
 
-        return new OutfitRecommendation(tops, bottoms, shoes, outerwear, accessories, style);
+        List<String> result = new ArrayList<>(base.size() + extra);
+        result.addAll(base);
+        result.addAll(humid);
+        result.addAll(rain);
+        result.addAll(snow);
+        result.addAll(wind);
+        return Collections.unmodifiableList(result);
     }
 
      // Ajusta la temperatura según las tolerancias personales al frío y calor del usuario
-    private double adjustTemperatureByTolerances(double temperature,
+    private static double adjustTemperatureByTolerances(double temperature,
                                                  UserPreferences.Tolerance coldTolerance,
                                                  UserPreferences.Tolerance heatTolerance) {
         double adjustedTemp = temperature;
@@ -112,7 +242,7 @@ public class OutfitService {
     }
 
     // Método que genera un outfit para clima muy frío
-    private void generateVeryColdOutfit(OutfitRecommendation.Style style,
+    private static void generateVeryColdOutfit(OutfitRecommendation.Style style,
                                         List<String> tops, List<String> bottoms,
                                         List<String> shoes, List<String> outerwear,
                                         List<String> accessories, UserPreferences.Gender gender) {
@@ -189,7 +319,7 @@ public class OutfitService {
     }
 
     // Método que genera un outfit para clima frío
-    private void generateColdOutfit(OutfitRecommendation.Style style,
+    private static void generateColdOutfit(OutfitRecommendation.Style style,
                                     List<String> tops, List<String> bottoms,
                                     List<String> shoes, List<String> outerwear,
                                     List<String> accessories, UserPreferences.Gender gender) {
@@ -259,7 +389,7 @@ public class OutfitService {
     }
 
     // Método que genera un outfit para clima normal
-    private void generateMildOutfit(OutfitRecommendation.Style style,
+    private static void generateMildOutfit(OutfitRecommendation.Style style,
                                     List<String> tops, List<String> bottoms,
                                     List<String> shoes, List<String> outerwear,
                                     List<String> accessories, UserPreferences.Gender gender) {
@@ -323,7 +453,7 @@ public class OutfitService {
     }
 
     // Método que genera un outfit para clima caluroso
-    private void generateHotOutfit(OutfitRecommendation.Style style,
+    private static void generateHotOutfit(OutfitRecommendation.Style style,
                                    List<String> tops, List<String> bottoms,
                                    List<String> shoes, List<String> outerwear,
                                    List<String> accessories, UserPreferences.Gender gender) {
@@ -385,7 +515,7 @@ public class OutfitService {
     }
 
     // Método que genera un outfit para clima muy caluroso
-    private void generateVeryHotOutfit(OutfitRecommendation.Style style,
+    private static void generateVeryHotOutfit(OutfitRecommendation.Style style,
                                        List<String> tops, List<String> bottoms,
                                        List<String> shoes, List<String> outerwear,
                                        List<String> accessories, UserPreferences.Gender gender) {
@@ -448,7 +578,7 @@ public class OutfitService {
     }
 
     // Método que genera un outfit para clima con lluvia
-    private void addRainyDayItems(OutfitRecommendation.Style style,
+    private static void addRainyDayItems(OutfitRecommendation.Style style,
                                   List<String> outerwear,
                                   List<String> accessories,
                                   List<String> shoes,
@@ -505,7 +635,7 @@ public class OutfitService {
     }
 
     // Método que genera un outfit para clima con nieve
-    private void addSnowyDayItems(OutfitRecommendation.Style style,
+    private static void addSnowyDayItems(OutfitRecommendation.Style style,
                                   List<String> outerwear,
                                   List<String> accessories,
                                   List<String> shoes,
@@ -550,7 +680,7 @@ public class OutfitService {
     }
 
     // Método que genera un outfit para clima con viento
-    private void addWindyDayItems(OutfitRecommendation.Style style, List<String> accessories, UserPreferences.Gender gender) {
+    private static void addWindyDayItems(OutfitRecommendation.Style style, List<String> accessories, UserPreferences.Gender gender) {
         if (style == OutfitRecommendation.Style.CASUAL || style == OutfitRecommendation.Style.FORMAL) {
             accessories.add("Bufanda gruesa");
 
@@ -567,7 +697,7 @@ public class OutfitService {
      * En climas fríos, alta humedad = más frío
      * En climas cálidos, alta humedad = más calor
      */
-    private double adjustTemperatureByHumidity(double temperature, int humidity) {
+    private static double adjustTemperatureByHumidity(double temperature, int humidity) {
 
         if (temperature < 15.0) {
             if (humidity >= HIGH_HUMIDITY) {
@@ -587,7 +717,7 @@ public class OutfitService {
     }
 
     // Método que genera un outfit para clima con alta humedad
-    private void addHighHumidityItems(double adjustedTemperature, List<String> accessories) {
+    private static void addHighHumidityItems(double adjustedTemperature, List<String> accessories) {
         if (adjustedTemperature <= COLD) {
             // Para clima frío y húmedo, se añaden capas impermeables
             accessories.add("Ropa interior térmica");
@@ -597,4 +727,41 @@ public class OutfitService {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Prendas de cada categoría que aporta una regla, en listas inmutables
+     */
+    private static final class Layer {
+        static final Layer NONE = new Builder().build();
+
+        final List<String> tops;
+        final List<String> bottoms;
+        final List<String> shoes;
+        final List<String> outerwear;
+        final List<String> accessories;
+
+        private Layer(Builder builder) {
+            tops = freeze(builder.tops);
+            bottoms = freeze(builder.bottoms);
+            shoes = freeze(builder.shoes);
+            outerwear = freeze(builder.outerwear);
+            accessories = freeze(builder.accessories);
+        }
+
+        private static List<String> freeze(List<String> items) {
+            return items.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(items));
+        }
+
+        // Listas donde escriben las reglas mientras se construye la tabla
+        static final class Builder {
+            final List<String> tops = new ArrayList<>();
+            final List<String> bottoms = new ArrayList<>();
+            final List<String> shoes = new ArrayList<>();
+            final List<String> outerwear = new ArrayList<>();
+            final List<String> accessories = new ArrayList<>();
+
+            Layer build() {
+                return new Layer(this);
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.weatherforecast.service;
 
 import com.example.weatherforecast.dto.WeatherResponse;
 import com.example.weatherforecast.model.CurrentWeather;
+import com.example.weatherforecast.util.WeatherConditions;
 import com.example.weatherforecast.util.WeatherIconMapper;
 
 /**
@@ -18,9 +19,11 @@ public class WeatherDataProcessor {
     public CurrentWeather processCurrentWeather(WeatherResponse data, WeatherTranslator translator) {
         String weatherCondition = "";
         String iconCode = "";
+        int conditions = WeatherConditions.NONE;
         if (data.getWeather() != null && !data.getWeather().isEmpty()) {
             weatherCondition = translator.translateWeatherCondition(data.getWeather().get(0).getDescription());
             iconCode = data.getWeather().get(0).getIcon();
+            conditions = WeatherConditions.fromConditionId(data.getWeather().get(0).getId());
         }
 
         String summary = generateWeatherSummary(data);
@@ -34,7 +37,8 @@ public class WeatherDataProcessor {
                 weatherCondition,
                 iconMapper.getEmojiFromIconCode(iconCode),
                 summary,
-                data.getMain().getHumidity()
+                data.getMain().getHumidity(),
+                conditions
         );
     }
 
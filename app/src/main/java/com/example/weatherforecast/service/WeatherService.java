@@ -1,20 +1,15 @@
 package com.example.weatherforecast.service;
 
+import com.example.weatherforecast.data.CoordinateWeatherCache;
 import com.example.weatherforecast.dto.ForecastResponse;
 import com.example.weatherforecast.dto.WeatherResponse;
 import com.example.weatherforecast.model.CurrentWeather;
-import com.example.weatherforecast.model.DailyForecast;
-import com.example.weatherforecast.model.HourlyForecast;
+import com.example.weatherforecast.model.ForecastSeries;
+import com.example.weatherforecast.model.WeatherSnapshot;
 import com.example.weatherforecast.repository.WeatherRepository;
+import com.example.weatherforecast.util.WeatherConditions;
 import com.example.weatherforecast.util.WeatherIconMapper;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-
-import java.net.HttpURLConnection;
-import java.net.URL;
-
-import java.util.List;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -34,21 +29,24 @@ public class WeatherService {
     private final WeatherTranslator translator;
     private static final String API_KEY = "fd55aeb51961a4033188497fa3b1f146"; // OPENWEATHER API KEY
 
-   public WeatherService() {
-        repository = new WeatherRepository();
-        iconMapper = new WeatherIconMapper();
+    // Las dependencias las crea y comparte ServiceLocator
+    public WeatherService(WeatherRepository repository, WeatherIconMapper iconMapper,
+                          WeatherTranslator translator) {
+        this.repository = repository;
+        this.iconMapper = iconMapper;
+        this.translator = translator;
         dataProcessor = new WeatherDataProcessor(iconMapper);
         forecastProcessor = new ForecastProcessor(iconMapper);
-        translator = new WeatherTranslator();
     }
 
     // Interfaz para callbacks cuando se cargan los datos del clima
     // Los callbacks sirven para notificar a la vista cuando se cargan los datos
     public interface WeatherCallback {
 
-        void onWeatherLoaded(CurrentWeather currentWeather);
-        void onHourlyForecastLoaded(List<HourlyForecast> hourlyForecasts);
-        void onDailyForecastLoaded(List<DailyForecast> dailyForecasts);
+        // Se llama una sola vez con el clima actual y el pronóstico juntos.
+        // Si una de las dos peticiones falla, el snapshot llega parcial con su error
+        void onWeatherDataLoaded(WeatherSnapshot snapshot);
+        // Solo se llama si fallan las dos peticiones
         void onError(String message);
 
     }
@@ -61,120 +59,138 @@ public class WeatherService {
     }
 
 
+    // Lanza /weather y /forecast a la vez y entrega el resultado cuando terminan las dos
     public void getWeatherData(String city, WeatherCallback callback) {
+        final CombinedFetch fetch = new CombinedFetch(callback);
+
         // Obtener el clima actual
-        repository.getCurrentWeather(city).enqueue(new Callback<WeatherResponse>() {
+        repository.getCurrentWeather(city, new Callback<WeatherResponse>() {
             @Override
             public void onResponse(Call<WeatherResponse> call, Response<WeatherResponse> response) {
                 if (response.isSuccessful() && response.body() != null) {
                     WeatherResponse data = response.body();
-                    CurrentWeather currentWeather = dataProcessor.processCurrentWeather(data, translator);
-                    callback.onWeatherLoaded(currentWeather);
-                    // Obtener pronóstico
-                    getForecastData(city, callback);
+                    fetch.onCurrentWeather(dataProcessor.processCurrentWeather(data, translator));
                 } else {
-                    callback.onError("Error al obtener datos del clima");
+                    fetch.onCurrentWeatherError("Error al obtener datos del clima");
                 }
             }
             @Override
             public void onFailure(Call<WeatherResponse> call, Throwable t) {
-                callback.onError("Error de red: " + t.getMessage());
+                fetch.onCurrentWeatherError("Error de red: " + t.getMessage());
             }
         });
-    }
 
-    // Método para obtener pronóstico
-    private void getForecastData(String city, WeatherCallback callback) {
-        repository.getForecast(city).enqueue(new Callback<ForecastResponse>() {
+        // Obtener pronóstico en paralelo
+        repository.getForecast(city, new Callback<ForecastResponse>() {
             @Override
             public void onResponse(Call<ForecastResponse> call, Response<ForecastResponse> response) {
                 if (response.isSuccessful() && response.body() != null) {
                     ForecastResponse data = response.body();
 
                     // Procesar pronóstico por horas (próximas 24 horas)
-                    List<HourlyForecast> hourlyForecasts = forecastProcessor.processHourlyForecast(data);
-                    callback.onHourlyForecastLoaded(hourlyForecasts);
+                    ForecastSeries hourlyForecast = forecastProcessor.processHourlyForecast(data);
 
                     // Procesar pronóstico diario (próximos 7 días)
-                    List<DailyForecast> dailyForecasts = forecastProcessor.processDailyForecast(data);
-                    callback.onDailyForecastLoaded(dailyForecasts);
+                    ForecastSeries dailyForecast = forecastProcessor.processDailyForecast(data);
 
+                    fetch.onForecast(hourlyForecast, dailyForecast);
                 } else {
-                    callback.onError("Error al obtener datos del pronóstico");
+                    fetch.onForecastError("Error al obtener datos del pronóstico");
                 }
             }
             @Override
             public void onFailure(Call<ForecastResponse> call, Throwable t) {
-                callback.onError("Error de red: " + t.getMessage());
+                fetch.onForecastError("Error de red: " + t.getMessage());
             }
         });
     }
 
-    // Método para obtener datos del clima por ubicación
-    public void getWeatherForLocation(double lat, double lon, LocationWeatherCallback callback) {
-        try {
-            // Create API URL for coordinates-based request
-            String apiUrl = "https://api.openweathermap.org/data/2.5/weather" +
-                    "?lat=" + lat +
-                    "&lon=" + lon +
-                    "&units=metric" +
-                    "&appid=" + API_KEY;
-
-            // Thread encargado de hacer la solicitud en segundo plano
-            new Thread(() -> {
-                try {
-                    URL url = new URL(apiUrl);
-                    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-                    connection.setRequestMethod("GET");
-                    BufferedReader reader = new BufferedReader(
-                            new InputStreamReader(connection.getInputStream()));
-                    StringBuilder response = new StringBuilder();
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        response.append(line);
-                    }
-                    reader.close();
-
-                    // Parseamos la respuesta a un objeto JSON
-                    JSONObject jsonObject = new JSONObject(response.toString());
-
-                    String locationName = jsonObject.getString("name");
-
-                    JSONObject mainObject = jsonObject.getJSONObject("main");
-                    double temperature = mainObject.getDouble("temp");
-
-                    JSONArray weatherArray = jsonObject.getJSONArray("weather");
-                    JSONObject weatherObject = weatherArray.getJSONObject(0);
-                    String condition = weatherObject.getString("main");
-                    String icon = getWeatherEmoji(weatherObject.getString("icon"));
-
-                    callback.onWeatherLoaded(locationName, temperature, condition, icon);
-
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    callback.onError(e.getMessage());
-                }
-            }).start();
-        } catch (Exception e) {
-            e.printStackTrace();
-            callback.onError(e.getMessage());
+    /**
+     * Acumula las dos respuestas de getWeatherData y notifica al callback
+     * cuando han llegado ambas, sea cual sea el orden
+     */
+    private static class CombinedFetch {
+        private final WeatherCallback callback;
+        private int pending = 2;
+
+        private CurrentWeather currentWeather;
+        private ForecastSeries hourlyForecast;
+        private ForecastSeries dailyForecast;
+        private String currentWeatherError;
+        private String forecastError;
+
+        CombinedFetch(WeatherCallback callback) {
+            this.callback = callback;
         }
-    }
 
-    private String getWeatherEmoji(String iconCode) {
-        switch (iconCode) {
-            case "01d": return "☀️";
-            case "01n": return "🌙";
-            case "02d": case "02n": return "⛅";
-            case "03d": case "03n": return "☁️";
-            case "04d": case "04n": return "☁️";
-            case "09d": case "09n": return "🌧️";
-            case "10d": case "10n": return "🌦️";
-            case "11d": case "11n": return "⛈️";
-            case "13d": case "13n": return "❄️";
-            case "50d": case "50n": return "🌫️";
-            default: return "❓";
+        synchronized void onCurrentWeather(CurrentWeather weather) {
+            currentWeather = weather;
+            completeOne();
+        }
+
+        synchronized void onCurrentWeatherError(String message) {
+            currentWeatherError = message;
+            completeOne();
+        }
+
+        synchronized void onForecast(ForecastSeries hourly, ForecastSeries daily) {
+            hourlyForecast = hourly;
+            dailyForecast = daily;
+            completeOne();
+        }
+
+        synchronized void onForecastError(String message) {
+            forecastError = message;
+            completeOne();
+        }
+
+        private void completeOne() {
+            if (--pending > 0) {
+                return;
+            }
+
+            // Si han fallado las dos peticiones no hay nada que mostrar
+            if (currentWeather == null && hourlyForecast == null) {
+                callback.onError(currentWeatherError != null ? currentWeatherError : forecastError);
+                return;
+            }
+
+            callback.onWeatherDataLoaded(new WeatherSnapshot(
+                    currentWeather,
+                    hourlyForecast,
+                    dailyForecast,
+                    currentWeatherError,
+                    forecastError
+            ));
         }
     }
 
+    // Método para obtener datos del clima por ubicación
+    public void getWeatherForLocation(double lat, double lon, LocationWeatherCallback callback) {
+        // Los puntos de la misma celda comparten la respuesta mientras esté vigente
+        CoordinateWeatherCache.getWeather(lat, lon, API_KEY, jsonObject -> {
+            try {
+                String locationName = jsonObject.getString("name");
+
+                JSONObject mainObject = jsonObject.getJSONObject("main");
+                double temperature = mainObject.getDouble("temp");
+
+                JSONArray weatherArray = jsonObject.getJSONArray("weather");
+                JSONObject weatherObject = weatherArray.getJSONObject(0);
+                String condition = weatherObject.getString("main");
+                // Mismo emoji que los puntos de la ruta (ver RouteWeatherActivity)
+                String icon = WeatherConditions.toEmoji(WeatherConditions.fromConditionId(weatherObject.optInt("id")));
+
+                callback.onWeatherLoaded(locationName, temperature, condition, icon);
+
+            } catch (Exception e) {
+                e.printStackTrace();
+                callback.onError(e.getMessage());
+            }
+        }, error -> {
+            error.printStackTrace();
+            callback.onError(error.getMessage());
+        });
+    }
+
 }
\ No newline at end of file
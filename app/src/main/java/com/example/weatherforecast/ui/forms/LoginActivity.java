@@ -11,7 +11,7 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.weatherforecast.R;
-import com.example.weatherforecast.data.DBHelper;
+import com.example.weatherforecast.data.AppDatabase;
 import com.example.weatherforecast.ui.weather.WeatherActivity;
 
 /**
@@ -23,7 +23,7 @@ public class LoginActivity extends AppCompatActivity {
     private EditText editTextPassword;
     private Button buttonLogin;
     private TextView textViewRegister;
-    private DBHelper dbHelper;
+    private AppDatabase database;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -31,7 +31,7 @@ public class LoginActivity extends AppCompatActivity {
         setContentView(R.layout.login_activity);
 
         // Inicializa la base de datos
-        dbHelper = new DBHelper(this);
+        database = AppDatabase.getInstance(this);
 
         editTextUsername = findViewById(R.id.editTextUsername);
         editTextPassword = findViewById(R.id.editTextPassword);
@@ -47,21 +47,21 @@ public class LoginActivity extends AppCompatActivity {
                 if (username.isEmpty() || password.isEmpty()) {
                     Toast.makeText(LoginActivity.this, "Rellena los campos", Toast.LENGTH_SHORT).show();
                 } else {
-                    // Verificar credenciales contra la base de datos
-                    boolean isValid = dbHelper.checkUser(username, password);
+                    // Verificar credenciales y registrar el inicio de sesión en segundo plano
+                    buttonLogin.setEnabled(false);
+                    database.login(username, password).observe(LoginActivity.this, isValid -> {
+                        buttonLogin.setEnabled(true);
 
-                    if (isValid) {
-                        // Registrar el inicio de sesión
-                        dbHelper.recordLogin(username);
-
-                        Intent intent = new Intent(LoginActivity.this, WeatherActivity.class);
-                        intent.putExtra("username", username);
-                        startActivity(intent);
-                        finish();
-                    } else {
-                        Toast.makeText(LoginActivity.this, "Usuario o contraseña incorrectos",
-                                Toast.LENGTH_SHORT).show();
-                    }
+                        if (isValid) {
+                            Intent intent = new Intent(LoginActivity.this, WeatherActivity.class);
+                            intent.putExtra("username", username);
+                            startActivity(intent);
+                            finish();
+                        } else {
+                            Toast.makeText(LoginActivity.this, "Usuario o contraseña incorrectos",
+                                    Toast.LENGTH_SHORT).show();
+                        }
+                    });
                 }
             }
         });
@@ -11,7 +11,7 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.weatherforecast.R;
-import com.example.weatherforecast.data.DBHelper;
+import com.example.weatherforecast.data.AppDatabase;
 
 /**
  * Clase encargada de manejar el registro de usuarios
@@ -23,7 +23,7 @@ public class RegisterActivity extends AppCompatActivity {
     private EditText editTextConfirmPassword;
     private Button buttonRegister;
     private TextView textViewLogin;
-    private DBHelper dbHelper;
+    private AppDatabase database;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -31,7 +31,7 @@ public class RegisterActivity extends AppCompatActivity {
         setContentView(R.layout.register_activity);
 
         // Inicializa la base de datos
-        dbHelper = new DBHelper(this);
+        database = AppDatabase.getInstance(this);
 
         editTextRegUsername = findViewById(R.id.editTextRegUsername);
         editTextRegPassword = findViewById(R.id.editTextRegPassword);
@@ -59,20 +59,23 @@ public class RegisterActivity extends AppCompatActivity {
                     return;
                 }
 
-                // Intenta registrar el usuario en la base de datos
-                boolean success = dbHelper.registerUser(username, password);
+                // Intenta registrar el usuario en la base de datos (en segundo plano)
+                buttonRegister.setEnabled(false);
+                database.registerUser(username, password).observe(RegisterActivity.this, success -> {
+                    buttonRegister.setEnabled(true);
 
-                if (success) {
-                    Toast.makeText(RegisterActivity.this, "Registro exitoso",
-                            Toast.LENGTH_SHORT).show();
-                    // Regresar a la pantalla de login
-                    Intent intent = new Intent(RegisterActivity.this, LoginActivity.class);
-                    startActivity(intent);
-                    finish();
-                } else {
-                    Toast.makeText(RegisterActivity.this, "El nombre de usuario ya existe",
-                            Toast.LENGTH_SHORT).show();
-                }
+                    if (success) {
+                        Toast.makeText(RegisterActivity.this, "Registro exitoso",
+                                Toast.LENGTH_SHORT).show();
+                        // Regresar a la pantalla de login
+                        Intent intent = new Intent(RegisterActivity.this, LoginActivity.class);
+                        startActivity(intent);
+                        finish();
+                    } else {
+                        Toast.makeText(RegisterActivity.this, "El nombre de usuario ya existe",
+                                Toast.LENGTH_SHORT).show();
+                    }
+                });
             }
         });
 
@@ -0,0 +1,135 @@
+package com.example.weatherforecast.ui.history;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.view.View;
+import android.widget.ImageView;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.widget.Toolbar;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.bumptech.glide.Glide;
+import com.example.weatherforecast.R;
+import com.example.weatherforecast.data.AppDatabase;
+import com.example.weatherforecast.ui.forms.LoginActivity;
+
+/**
+ * Pantalla con el historial de outfits guardados, del más reciente al más antiguo.
+ * Las páginas se piden a la base de datos a medida que el usuario se acerca a un extremo de la lista
+ */
+public class OutfitHistoryActivity extends AppCompatActivity {
+    // Número de filas antes del extremo a partir del cual se pide la siguiente página
+    private static final int PREFETCH_DISTANCE = 10;
+
+    private RecyclerView rvHistory;
+    private TextView tvEmptyHistory;
+    private ImageView toolbarLogo;
+
+    private final OutfitHistoryAdapter adapter = new OutfitHistoryAdapter();
+    private LinearLayoutManager layoutManager;
+    private AppDatabase database;
+    private boolean loading = false;
+
+    private String username;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_outfit_history);
+
+        if (getIntent().hasExtra("username")) {
+            username = getIntent().getStringExtra("username");
+        } else {
+            // Redireccionar a login si no hay usuario
+            Intent intent = new Intent(this, LoginActivity.class);
+            startActivity(intent);
+            finish();
+            return;
+        }
+
+        database = AppDatabase.getInstance(this);
+
+        initViews();
+        setupToolbar();
+        setupList();
+
+        // Primera página: los outfits más recientes
+        loadOlder(Long.MAX_VALUE);
+    }
+
+    private void initViews() {
+        rvHistory = findViewById(R.id.rvHistory);
+        tvEmptyHistory = findViewById(R.id.tvEmptyHistory);
+        toolbarLogo = findViewById(R.id.toolbarLogo);
+    }
+
+    private void setupToolbar() {
+        Toolbar toolbar = findViewById(R.id.toolbar);
+        setSupportActionBar(toolbar);
+        if (getSupportActionBar() != null) {
+            getSupportActionBar().setDisplayShowTitleEnabled(false);
+            getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+        }
+        toolbar.setNavigationOnClickListener(v -> finish());
+
+        Glide.with(this)
+                .load(R.drawable.logo)
+                .into(toolbarLogo);
+    }
+
+    private void setupList() {
+        layoutManager = new LinearLayoutManager(this);
+        rvHistory.setLayoutManager(layoutManager);
+        rvHistory.setAdapter(adapter);
+
+        rvHistory.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (loading || adapter.getItemCount() == 0) return;
+
+                if (dy > 0 && adapter.hasOlder() &&
+                        layoutManager.findLastVisibleItemPosition() >= adapter.getItemCount() - PREFETCH_DISTANCE) {
+                    loadOlder(adapter.getOldestEpochDay());
+                } else if (dy < 0 && adapter.hasNewer() &&
+                        layoutManager.findFirstVisibleItemPosition() <= PREFETCH_DISTANCE) {
+                    loadNewer(adapter.getNewestEpochDay());
+                }
+            }
+        });
+    }
+
+    // Pide la página de outfits anteriores a la fecha indicada
+    private void loadOlder(long beforeEpochDay) {
+        loading = true;
+        database.getOutfitHistoryBefore(username, beforeEpochDay, OutfitHistoryAdapter.PAGE_SIZE)
+                .observe(this, page -> {
+                    loading = false;
+                    if (page != null) {
+                        adapter.appendOlder(page);
+                    }
+                    updateEmptyState();
+                });
+    }
+
+    // Pide la página de outfits posteriores a la fecha indicada (al volver hacia arriba)
+    private void loadNewer(long afterEpochDay) {
+        loading = true;
+        database.getOutfitHistoryAfter(username, afterEpochDay, OutfitHistoryAdapter.PAGE_SIZE)
+                .observe(this, page -> {
+                    loading = false;
+                    if (page != null) {
+                        adapter.prependNewer(page);
+                    }
+                });
+    }
+
+    private void updateEmptyState() {
+        boolean empty = adapter.getItemCount() == 0;
+        tvEmptyHistory.setVisibility(empty ? View.VISIBLE : View.GONE);
+        rvHistory.setVisibility(empty ? View.GONE : View.VISIBLE);
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.weatherforecast.ui.history;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.weatherforecast.R;
+import com.example.weatherforecast.model.CurrentWeather;
+import com.example.weatherforecast.model.OutfitRecommendation;
+import com.example.weatherforecast.model.SavedOutfitEntry;
+import com.example.weatherforecast.util.DateCodec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Adaptador del historial de outfits, del más reciente al más antiguo.
+ * Solo guarda una ventana de MAX_ITEMS entradas: al añadir una página por un extremo se
+ * descartan las del extremo contrario, que se vuelven a pedir si el usuario regresa.
+ * Así la memoria no depende de cuántos outfits tenga guardados el usuario
+ */
+public class OutfitHistoryAdapter extends RecyclerView.Adapter<OutfitHistoryAdapter.ViewHolder> {
+    public static final int PAGE_SIZE = 30;
+    private static final int MAX_ITEMS = PAGE_SIZE * 4;
+
+    private final List<SavedOutfitEntry> entries = new ArrayList<>();
+    private boolean hasOlder = true;   // Puede haber outfits más antiguos que el último de la ventana
+    private boolean hasNewer = false;  // Se han descartado outfits más recientes que el primero
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.item_outfit_history, parent, false);
+        return new ViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        SavedOutfitEntry entry = entries.get(position);
+        CurrentWeather weather = entry.getWeather();
+
+        holder.tvDate.setText(DateCodec.formatDayMonthYear(entry.getSavedDate().getTime()));
+        if (weather != null) {
+            holder.tvWeather.setText(String.format(Locale.getDefault(), "%s %s %.1f°C",
+                    weather.getLocation(), weather.getWeatherIcon(), weather.getTemperature()));
+        } else {
+            holder.tvWeather.setText("");
+        }
+        holder.tvGarments.setText(describeOutfit(entry.getOutfit()));
+    }
+
+    @Override
+    public int getItemCount() {
+        return entries.size();
+    }
+
+    // Añade una página de outfits más antiguos al final de la ventana
+    public void appendOlder(List<SavedOutfitEntry> page) {
+        hasOlder = page.size() == PAGE_SIZE;
+        if (page.isEmpty()) {
+            return;
+        }
+
+        int start = entries.size();
+        entries.addAll(page);
+        notifyItemRangeInserted(start, page.size());
+
+        int excess = entries.size() - MAX_ITEMS;
+        if (excess > 0) {
+            entries.subList(0, excess).clear();
+            notifyItemRangeRemoved(0, excess);
+            hasNewer = true;
+        }
+    }
+
+    // Añade una página de outfits más recientes (ya ordenada del más reciente al más antiguo)
+    // al principio de la ventana
+    public void prependNewer(List<SavedOutfitEntry> page) {
+        hasNewer = page.size() == PAGE_SIZE;
+        if (page.isEmpty()) {
+            return;
+        }
+
+        entries.addAll(0, page);
+        notifyItemRangeInserted(0, page.size());
+
+        int excess = entries.size() - MAX_ITEMS;
+        if (excess > 0) {
+            int start = entries.size() - excess;
+            entries.subList(start, entries.size()).clear();
+            notifyItemRangeRemoved(start, excess);
+            hasOlder = true;
+        }
+    }
+
+    public boolean hasOlder() {
+        return hasOlder;
+    }
+
+    public boolean hasNewer() {
+        return hasNewer;
+    }
+
+    // Claves de paginación: día epoch del último y del primer outfit de la ventana
+    public long getOldestEpochDay() {
+        return epochDayAt(entries.size() - 1);
+    }
+    public long getNewestEpochDay() {
+        return epochDayAt(0);
+    }
+
+    private long epochDayAt(int position) {
+        return DateCodec.toEpochDay(entries.get(position).getSavedDate().getTime());
+    }
+
+    // Prendas del outfit en una línea: parte de arriba, de abajo, calzado y abrigo
+    private static String describeOutfit(OutfitRecommendation outfit) {
+        if (outfit == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder();
+        appendItems(builder, outfit.getTopItems());
+        appendItems(builder, outfit.getBottomItems());
+        appendItems(builder, outfit.getFootwear());
+        appendItems(builder, outfit.getOuterWear());
+        return builder.toString();
+    }
+
+    private static void appendItems(StringBuilder builder, List<String> items) {
+        if (items == null) {
+            return;
+        }
+        for (String item : items) {
+            if (builder.length() > 0) {
+                builder.append(", ");
+            }
+            builder.append(item);
+        }
+    }
+
+    static class ViewHolder extends RecyclerView.ViewHolder {
+        final TextView tvDate;
+        final TextView tvWeather;
+        final TextView tvGarments;
+
+        ViewHolder(@NonNull View itemView) {
+            super(itemView);
+            tvDate = itemView.findViewById(R.id.tvHistoryDate);
+            tvWeather = itemView.findViewById(R.id.tvHistoryWeather);
+            tvGarments = itemView.findViewById(R.id.tvHistoryGarments);
+        }
+    }
+}
@@ -2,7 +2,6 @@ package com.example.weatherforecast.ui.outfit;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.os.Handler;
 import android.text.Editable;
 import android.text.TextWatcher;
 import android.view.View;
@@ -29,25 +28,21 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.bumptech.glide.Glide;
 import com.example.weatherforecast.R;
 import com.example.weatherforecast.controller.WeatherController;
-import com.example.weatherforecast.data.DBHelper;
+import com.example.weatherforecast.data.AppDatabase;
 import com.example.weatherforecast.model.CurrentWeather;
-import com.example.weatherforecast.model.DailyForecast;
-import com.example.weatherforecast.model.HourlyForecast;
+import com.example.weatherforecast.model.ForecastSeries;
 import com.example.weatherforecast.util.OutfitImageMapper;
 import com.example.weatherforecast.model.OutfitRecommendation;
-import com.example.weatherforecast.model.SavedOutfitEntry;
 import com.example.weatherforecast.service.OutfitDisplayHelper;
 import com.example.weatherforecast.ui.weather.LocationSuggestionTask;
+import com.example.weatherforecast.util.DateCodec;
 import com.example.weatherforecast.util.NavigationManager;
 import com.example.weatherforecast.ui.settings.SettingsActivity;
 import com.example.weatherforecast.ui.forms.LoginActivity;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.List;
-import java.util.Locale;
 
 /**
  *  Actividad principal del Outfit encargada de mostrar la recomendación de ropa
@@ -141,7 +136,7 @@ public class OutfitActivity extends AppCompatActivity implements WeatherControll
 
         // Verifica si debemos forzar la recarga
         if (NavigationManager.shouldForceReload(intent)) {
-            loadWeatherData();
+            loadWeatherData(true);
         }
     }
 
@@ -318,32 +313,35 @@ public class OutfitActivity extends AppCompatActivity implements WeatherControll
         OutfitRecommendation customOutfit = outfitViewModel.getOutfitRecommendation().getValue();
         CurrentWeather currentWeather = outfitViewModel.getCurrentWeather().getValue();
 
-        DBHelper dbHelper = new DBHelper(this);
-        boolean saved = dbHelper.saveOutfit(username, customOutfit, currentWeather, new Date());
+        if (customOutfit == null || currentWeather == null) return;
 
-        if (customOutfit != null && currentWeather != null) {
-            if (saved) {
-                Toast.makeText(this, "Outfit guardado correctamente", Toast.LENGTH_SHORT).show();
-                btnSaveOutfit.setEnabled(false);
-                isCustomized = false;
-            } else {
-                Toast.makeText(this, "Error al guardar el outfit", Toast.LENGTH_SHORT).show();
-            }
-        }
+        // Se guarda en el hilo de escritura de la base de datos; el botón queda desactivado mientras tanto
+        btnSaveOutfit.setEnabled(false);
+        AppDatabase.getInstance(this)
+                .saveOutfit(username, customOutfit, currentWeather, new Date())
+                .observe(this, saved -> {
+                    if (saved) {
+                        Toast.makeText(this, "Outfit guardado correctamente", Toast.LENGTH_SHORT).show();
+                        isCustomized = false;
+                    } else {
+                        Toast.makeText(this, "Error al guardar el outfit", Toast.LENGTH_SHORT).show();
+                        btnSaveOutfit.setEnabled(true);
+                    }
+                });
     }
 
     // Método que carga los datos del clima
     private void loadWeatherData() {
-        showLoading(true);
+        loadWeatherData(false);
+    }
 
-        // Handler que se ejecuta después de 200ms
-        new Handler().postDelayed(() -> {
-            if (weatherController == null) {
-                weatherController = new WeatherController(this);
-                weatherController.setView(this);
-            }
-            weatherController.loadWeatherData(currentCity);
-        }, 200); // Pequeña demora para permitir que la UI se actualice
+    // El controlador muestra al momento el clima en caché y lo revalida en segundo plano
+    private void loadWeatherData(boolean forceRefresh) {
+        if (weatherController == null) {
+            weatherController = new WeatherController(this);
+            weatherController.setView(this);
+        }
+        weatherController.loadWeatherData(currentCity, forceRefresh);
     }
 
 
@@ -414,8 +412,7 @@ public class OutfitActivity extends AppCompatActivity implements WeatherControll
             // Actualizar la ciudad actual con la respuesta
             currentCity = weather.getLocation();
 
-            SimpleDateFormat dateFormat = new SimpleDateFormat("'Hoy', HH:mm", new Locale("es", "ES"));
-            String currentDateTime = dateFormat.format(new Date());
+            String currentDateTime = "Hoy, " + DateCodec.formatTime(System.currentTimeMillis());
 
             locationText.setText(String.format("%s, %s", weather.getLocation(), weather.getCountry()));
             weatherEmoji.setText(weather.getWeatherIcon());
@@ -435,15 +432,20 @@ public class OutfitActivity extends AppCompatActivity implements WeatherControll
     }
 
     @Override
-    public void displayHourlyForecast(List<HourlyForecast> forecasts) {
+    public void displayHourlyForecast(ForecastSeries forecast) {
         // No utilizado en esta pantalla
     }
 
     @Override
-    public void displayDailyForecast(List<DailyForecast> forecasts) {
+    public void displayDailyForecast(ForecastSeries forecast) {
         // No utilizado en esta pantalla
     }
 
+    @Override
+    public void showFreshness(WeatherController.Freshness freshness) {
+        // Esta pantalla no distingue entre datos vigentes y caducados
+    }
+
     @Override
     public void showError(String message) {
         runOnUiThread(() -> {
@@ -513,11 +515,11 @@ public class OutfitActivity extends AppCompatActivity implements WeatherControll
     }
 
     private void loadSavedOutfit() {
-        DBHelper dbHelper = new DBHelper(this);
-        SavedOutfitEntry savedOutfit = dbHelper.getLatestOutfit(username);
-        if (savedOutfit != null) {
-            outfitViewModel.setOutfitRecommendation(savedOutfit.getOutfit());
-        }
+        AppDatabase.getInstance(this).getLatestOutfit(username).observe(this, savedOutfit -> {
+            if (savedOutfit != null) {
+                outfitViewModel.setOutfitRecommendation(savedOutfit.getOutfit());
+            }
+        });
     }
 
     @Override
@@ -525,7 +527,7 @@ public class OutfitActivity extends AppCompatActivity implements WeatherControll
         super.onResume();
         if (forceReload) {
             forceReload = false;
-            loadWeatherData();
+            loadWeatherData(true);
         }
     }
 
@@ -4,8 +4,10 @@ import android.content.Context;
 
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Observer;
 import androidx.lifecycle.ViewModel;
 
+import com.example.weatherforecast.ServiceLocator;
 import com.example.weatherforecast.model.UserPreferences;
 import com.example.weatherforecast.repository.PreferencesRepository;
 import com.example.weatherforecast.service.OutfitService;
@@ -28,6 +30,12 @@ public class OutfitViewModel extends ViewModel {
     private OutfitRecommendation.Style selectedStyle = OutfitRecommendation.Style.CASUAL; // Estilo predeterminado
     private PreferencesRepository preferencesRepository;
 
+    // Preferencias del usuario en memoria. Si se pide una recomendación antes de que lleguen,
+    // se genera en cuanto estén disponibles
+    private final LiveData<UserPreferences> userPreferences;
+    private final Observer<UserPreferences> preferencesObserver = this::onPreferencesLoaded;
+    private boolean recommendationPending = false;
+
     private OutfitRecommendation originalOutfit;
     // Variables para la puntuación de confort
     //MutableLiveData sirve para notificar a los observadores cuando cambia el valor
@@ -35,9 +43,22 @@ public class OutfitViewModel extends ViewModel {
     private final MutableLiveData<String> ratingMessage = new MutableLiveData<>("Buena elección, tu confort con este outfit será de un 100%");
 
     public OutfitViewModel(Context context, String username) {
-        this.outfitService = new OutfitService();
+        this.outfitService = ServiceLocator.getOutfitService();
         this.preferencesRepository = new PreferencesRepository(context, username);
-        loadSavedOutfit(context);
+        this.userPreferences = preferencesRepository.getUserPreferences();
+        userPreferences.observeForever(preferencesObserver);
+    }
+
+    @Override
+    protected void onCleared() {
+        userPreferences.removeObserver(preferencesObserver);
+    }
+
+    private void onPreferencesLoaded(UserPreferences preferences) {
+        if (preferences != null && recommendationPending) {
+            recommendationPending = false;
+            loadOutfitRecommendation();
+        }
     }
 
     public LiveData<OutfitRecommendation> getOutfitRecommendation() {
@@ -90,13 +111,19 @@ public class OutfitViewModel extends ViewModel {
         }
 
         isLoading.setValue(true);
-        try {
-            // Obtener las preferencias del usuario
-            UserPreferences userPreferences = preferencesRepository.getUserPreferences();
 
+        // Preferencias del usuario (en memoria, sin acceso a disco)
+        UserPreferences preferences = userPreferences.getValue();
+        if (preferences == null) {
+            // Todavía se están cargando: la recomendación se genera al llegar
+            recommendationPending = true;
+            return;
+        }
+
+        try {
             // Pasar las preferencias al servicio
             OutfitRecommendation recommendation =
-                    outfitService.getOutfitRecommendation(currentWeather.getValue(), selectedStyle, userPreferences);
+                    outfitService.getOutfitRecommendation(currentWeather.getValue(), selectedStyle, preferences);
 
             // Guardar el outfit original para comparar más tarde
             saveOriginalOutfit(recommendation);
@@ -109,14 +136,6 @@ public class OutfitViewModel extends ViewModel {
         }
     }
 
-    // Método para cargar outfit guardado
-    public boolean loadSavedOutfit(Context context) {
-        // Aquí solo verificamos si existe un outfit guardado, pero no lo mostramos
-        OutfitRecommendation savedOutfit = preferencesRepository.getSavedOutfit(context);
-        return savedOutfit != null;
-        // No hacemos: outfitRecommendation.setValue(savedOutfit);
-    }
-
     // Guarda el outfit original generado
     public void saveOriginalOutfit(OutfitRecommendation outfit) {
         this.originalOutfit = new OutfitRecommendation(
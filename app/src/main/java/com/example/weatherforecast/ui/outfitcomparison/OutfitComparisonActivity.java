@@ -23,6 +23,7 @@ import com.example.weatherforecast.model.OutfitRecommendation;
 import com.example.weatherforecast.model.SavedOutfitEntry;
 import com.example.weatherforecast.service.OutfitDisplayHelper;
 import com.example.weatherforecast.util.NavigationManager;
+import com.example.weatherforecast.ui.history.OutfitHistoryActivity;
 import com.example.weatherforecast.ui.settings.SettingsActivity;
 import com.example.weatherforecast.ui.forms.LoginActivity;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
@@ -52,6 +53,7 @@ public class OutfitComparisonActivity extends AppCompatActivity {
     // Segundo Outfit
     private CardView cardSecondOutfit;
     private Button btnCompare;
+    private Button btnHistory;
     private Button btnSelectSecondDate;
     private TextView tvSecondDate;
     private LinearLayout secondOutfitContainer;
@@ -113,6 +115,7 @@ public class OutfitComparisonActivity extends AppCompatActivity {
         cardSecondOutfit = findViewById(R.id.cardSecondOutfit);
         cardSecondOutfit.setVisibility(View.GONE);
         btnCompare = findViewById(R.id.btnCompare);
+        btnHistory = findViewById(R.id.btnHistory);
         btnSelectSecondDate = findViewById(R.id.btnSelectSecondDate);
         tvSecondDate = findViewById(R.id.tvSecondDate);
         secondOutfitContainer = findViewById(R.id.secondOutfitContainer);
@@ -194,6 +197,8 @@ public class OutfitComparisonActivity extends AppCompatActivity {
         });
 
         btnSelectSecondDate.setOnClickListener(v -> showDatePickerDialog(false));
+
+        btnHistory.setOnClickListener(v -> goToHistory());
     }
 
     private void setupNavigation() {
@@ -206,6 +211,12 @@ public class OutfitComparisonActivity extends AppCompatActivity {
         navigationManager.setupBottomNavigation();
     }
 
+    private void goToHistory() {
+        Intent intent = new Intent(this, OutfitHistoryActivity.class);
+        intent.putExtra("username", username);
+        startActivity(intent);
+    }
+
     private void goToSettings() {
         Intent intent = new Intent(this, SettingsActivity.class);
         intent.putExtra("username", username);
@@ -3,10 +3,11 @@ package com.example.weatherforecast.ui.outfitcomparison;
 import android.content.Context;
 
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
-import com.example.weatherforecast.data.DBHelper;
+import com.example.weatherforecast.data.AppDatabase;
 import com.example.weatherforecast.model.SavedOutfitEntry;
 import com.example.weatherforecast.repository.PreferencesRepository;
 
@@ -17,10 +18,14 @@ import java.util.Date;
  */
 public class OutfitComparisonViewModel extends ViewModel {
 
-    private final MutableLiveData<SavedOutfitEntry> firstOutfitEntry = new MutableLiveData<>();
-    private final MutableLiveData<SavedOutfitEntry> secondOutfitEntry = new MutableLiveData<>();
+    private final MediatorLiveData<SavedOutfitEntry> firstOutfitEntry = new MediatorLiveData<>();
+    private final MediatorLiveData<SavedOutfitEntry> secondOutfitEntry = new MediatorLiveData<>();
     private final MutableLiveData<String> errorMessage = new MutableLiveData<>();
 
+    // Consultas en curso; si se elige otra fecha antes de que terminen, su resultado se ignora
+    private LiveData<SavedOutfitEntry> firstQuery;
+    private LiveData<SavedOutfitEntry> secondQuery;
+
     private String username;
 
     private final PreferencesRepository preferencesRepository;
@@ -29,28 +34,37 @@ public class OutfitComparisonViewModel extends ViewModel {
         this.preferencesRepository = new PreferencesRepository(context, username);
     }
 
-    // Método para cargar el primer outfit por fecha
+    // Método para cargar el primer outfit por fecha (la consulta se hace en segundo plano)
     public void loadFirstOutfitByDate(Date date, Context context) {
-        DBHelper dbHelper = new DBHelper(context);
-        SavedOutfitEntry outfitEntry = dbHelper.getOutfitByDate(username, date);
-
-        if (outfitEntry != null) {
-            firstOutfitEntry.setValue(outfitEntry);
-        } else {
-            firstOutfitEntry.setValue(null);
-            errorMessage.setValue("No hay outfit guardado para esta fecha");
+        if (firstQuery != null) {
+            firstOutfitEntry.removeSource(firstQuery);
         }
+        LiveData<SavedOutfitEntry> query = AppDatabase.getInstance(context).getOutfitByDate(username, date);
+        firstQuery = query;
+        firstOutfitEntry.addSource(query, outfitEntry -> {
+            firstOutfitEntry.removeSource(query);
+            firstQuery = null;
+            showOutfitEntry(firstOutfitEntry, outfitEntry);
+        });
     }
 
     // Igual que loadFirstOutfitByDate pero para el segundo outfit
     public void loadSecondOutfitByDate(Date date, Context context) {
-        DBHelper dbHelper = new DBHelper(context);
-        SavedOutfitEntry outfitEntry = dbHelper.getOutfitByDate(username, date);
+        if (secondQuery != null) {
+            secondOutfitEntry.removeSource(secondQuery);
+        }
+        LiveData<SavedOutfitEntry> query = AppDatabase.getInstance(context).getOutfitByDate(username, date);
+        secondQuery = query;
+        secondOutfitEntry.addSource(query, outfitEntry -> {
+            secondOutfitEntry.removeSource(query);
+            secondQuery = null;
+            showOutfitEntry(secondOutfitEntry, outfitEntry);
+        });
+    }
 
-        if (outfitEntry != null) {
-            secondOutfitEntry.setValue(outfitEntry);
-        } else {
-            secondOutfitEntry.setValue(null);
+    private void showOutfitEntry(MutableLiveData<SavedOutfitEntry> target, SavedOutfitEntry outfitEntry) {
+        target.setValue(outfitEntry);
+        if (outfitEntry == null) {
             errorMessage.setValue("No hay outfit guardado para esta fecha");
         }
     }
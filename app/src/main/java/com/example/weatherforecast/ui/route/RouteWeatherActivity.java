@@ -7,12 +7,11 @@ import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
-import com.android.volley.Request;
-import com.android.volley.RequestQueue;
-import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
 import com.example.weatherforecast.R;
+import com.example.weatherforecast.data.CoordinateWeatherCache;
+import com.example.weatherforecast.util.HttpClientProvider;
 import com.example.weatherforecast.util.NavigationManager;
+import com.example.weatherforecast.util.WeatherConditions;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.textfield.TextInputEditText;
@@ -24,8 +23,6 @@ import org.json.JSONObject;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import com.example.weatherforecast.util.NavigationManager;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
@@ -55,9 +52,6 @@ public class RouteWeatherActivity extends AppCompatActivity {
     private MaterialButton searchRouteButton;
     private TextView weatherInfoTextView;
 
-    // HTTP Request
-    private RequestQueue requestQueue;
-
     private RoutePoint originPoint;
     private RoutePoint destinationPoint;
     private List<RoutePoint> intermediatePoints = new ArrayList<>();
@@ -73,10 +67,6 @@ public class RouteWeatherActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_route_weather);
 
-        // Inicializar Volley para peticiones HTTP
-        // Volley es una biblioteca para hacer solicitudes HTTP en Android
-        requestQueue = Volley.newRequestQueue(this);
-
         originEditText = findViewById(R.id.originEditText);
         destinationEditText = findViewById(R.id.destinationEditText);
         searchRouteButton = findViewById(R.id.searchRouteButton);
@@ -137,7 +127,7 @@ public class RouteWeatherActivity extends AppCompatActivity {
                 "&components=country:ES" + // Restricción a España
                 "&key=" + GOOGLE_MAPS_API_KEY;
 
-        JsonObjectRequest request = new JsonObjectRequest(Request.Method.GET, url, null,
+        HttpClientProvider.getJson(url,
                 response -> {
                     try {
                         JSONArray results = response.getJSONArray("results");
@@ -185,8 +175,6 @@ public class RouteWeatherActivity extends AppCompatActivity {
                 },
                 error -> handleLocationError("Error de red: " + error.getMessage())
         );
-
-        requestQueue.add(request);
     }
 
     //Busca la ruta entre el origen y destino usando la API de Google Directions
@@ -198,7 +186,7 @@ public class RouteWeatherActivity extends AppCompatActivity {
                 "&destination=" + destinationPoint.lat + "," + destinationPoint.lng +
                 "&key=" + GOOGLE_MAPS_API_KEY;
 
-        JsonObjectRequest request = new JsonObjectRequest(Request.Method.GET, url, null,
+        HttpClientProvider.getJson(url,
                 response -> {
                     try {
                         JSONArray routes = response.getJSONArray("routes");
@@ -236,8 +224,6 @@ public class RouteWeatherActivity extends AppCompatActivity {
                 },
                 error -> handleLocationError("Error de red: " + error.getMessage())
         );
-
-        requestQueue.add(request);
     }
 
     //Decodifica una polyline codificada de Google Maps
@@ -312,7 +298,7 @@ public class RouteWeatherActivity extends AppCompatActivity {
                 "?latlng=" + point.lat + "," + point.lng +
                 "&key=" + GOOGLE_MAPS_API_KEY;
 
-        JsonObjectRequest request = new JsonObjectRequest(Request.Method.GET, url, null,
+        HttpClientProvider.getJson(url,
                 response -> {
                     try {
                         JSONArray results = response.getJSONArray("results");
@@ -352,12 +338,9 @@ public class RouteWeatherActivity extends AppCompatActivity {
                 },
                 error -> { } // No ocurre nada
         );
-
-        requestQueue.add(request);
     }
 
     // Obtiene información meteorológica para todos los puntos
-    private final ExecutorService executor = Executors.newFixedThreadPool(5);
     private int weatherRequestsCompleted = 0;
 
     private void fetchWeatherForAllPoints() {
@@ -372,52 +355,45 @@ public class RouteWeatherActivity extends AppCompatActivity {
     private void fetchWeatherForPoint(RoutePoint point) {
         if (point == null) return;
 
-        executor.execute(() -> {
-            String url = "https://api.openweathermap.org/data/2.5/weather" +
-                    "?lat=" + point.lat +
-                    "&lon=" + point.lng +
-                    "&units=metric" +
-                    "&appid=" + WEATHER_API_KEY;
-
-            JsonObjectRequest request = new JsonObjectRequest(Request.Method.GET, url, null,
-                    response -> {
-                        try {
-                            double temp = response.getJSONObject("main").getDouble("temp");
-                            double humidity = response.getJSONObject("main").getDouble("humidity");
-                            double windSpeed = response.getJSONObject("wind").getDouble("speed");
-                            String weatherDesc = response.getJSONArray("weather").getJSONObject(0).getString("main");
-                            String weatherDetail = response.getJSONArray("weather").getJSONObject(0).getString("description");
-
-                            point.temperature = (int) Math.round(temp);
-                            point.weatherDescription = weatherDesc;
-                            point.humidity = (int) Math.round(humidity);
-                            point.windSpeed = windSpeed;
-                            point.weatherDetail = weatherDetail;
-
-                            runOnUiThread(() -> {
-                                weatherRequestsCompleted++;
-
-                                // Actualizar interfaz con información recibida
-                                updateWeatherInfo();
-
-                                // Si hemos recibido información de todos los puntos, habilitar botón de búsqueda
-                                if (weatherRequestsCompleted >= allPoints.size()) {
-                                    searchRouteButton.setEnabled(true);
-                                    searchRouteButton.setText("Buscar Ruta");
-                                }
-                            });
+        // Los puntos cercanos y las rutas repetidas se responden desde la caché por geohash
+        CoordinateWeatherCache.getWeather(point.lat, point.lng, WEATHER_API_KEY,
+                response -> {
+                    try {
+                        double temp = response.getJSONObject("main").getDouble("temp");
+                        double humidity = response.getJSONObject("main").getDouble("humidity");
+                        double windSpeed = response.getJSONObject("wind").getDouble("speed");
+                        JSONObject weather = response.getJSONArray("weather").getJSONObject(0);
+                        String weatherDesc = weather.getString("main");
+                        String weatherDetail = weather.getString("description");
+
+                        point.temperature = (int) Math.round(temp);
+                        point.weatherDescription = weatherDesc;
+                        point.humidity = (int) Math.round(humidity);
+                        point.windSpeed = windSpeed;
+                        point.weatherDetail = weatherDetail;
+                        point.conditions = WeatherConditions.fromConditionId(weather.optInt("id"));
+
+                        runOnUiThread(() -> {
+                            weatherRequestsCompleted++;
+
+                            // Actualizar interfaz con información recibida
+                            updateWeatherInfo();
+
+                            // Si hemos recibido información de todos los puntos, habilitar botón de búsqueda
+                            if (weatherRequestsCompleted >= allPoints.size()) {
+                                searchRouteButton.setEnabled(true);
+                                searchRouteButton.setText("Buscar Ruta");
+                            }
+                        });
 
-                        } catch (JSONException e) {
-                            e.printStackTrace();
-                        }
-                    },
-                    error -> runOnUiThread(() -> Toast.makeText(RouteWeatherActivity.this,
-                            "Error al obtener el clima de " + point.name,
-                            Toast.LENGTH_SHORT).show())
-            );
-
-            requestQueue.add(request);
-        });
+                    } catch (JSONException e) {
+                        e.printStackTrace();
+                    }
+                },
+                error -> runOnUiThread(() -> Toast.makeText(RouteWeatherActivity.this,
+                        "Error al obtener el clima de " + point.name,
+                        Toast.LENGTH_SHORT).show())
+        );
     }
 
     //Actualiza la información del clima en la UI
@@ -442,7 +418,7 @@ public class RouteWeatherActivity extends AppCompatActivity {
                 }
 
                 // Información básica con emoji
-                String emoji = getWeatherEmoji(point.weatherDescription);
+                String emoji = WeatherConditions.toEmoji(point.conditions);
                 String basicInfo = point.name + ": " + point.temperature + "°C " + emoji;
                 infoBuilder.append(basicInfo).append("\n");
 
@@ -495,16 +471,12 @@ public class RouteWeatherActivity extends AppCompatActivity {
                 tempCount++;
 
                 // Contar condiciones
-                if (point.weatherDescription != null) {
-                    if (point.weatherDescription.contains("Rain") ||
-                            point.weatherDescription.contains("Drizzle") ||
-                            point.weatherDescription.contains("Thunderstorm")) {
-                        rainCount++;
-                    } else if (point.weatherDescription.contains("Cloud")) {
-                        cloudyCount++;
-                    } else if (point.weatherDescription.contains("Clear")) {
-                        clearCount++;
-                    }
+                if (WeatherConditions.has(point.conditions, WeatherConditions.RAIN | WeatherConditions.STORM)) {
+                    rainCount++;
+                } else if (WeatherConditions.has(point.conditions, WeatherConditions.CLOUD)) {
+                    cloudyCount++;
+                } else if (WeatherConditions.has(point.conditions, WeatherConditions.CLEAR)) {
+                    clearCount++;
                 }
 
                 // Verificar viento máximo
@@ -539,18 +511,6 @@ public class RouteWeatherActivity extends AppCompatActivity {
         }
     }
 
-    private String getWeatherEmoji(String description) {
-        if (description == null) return "";
-        if (description.contains("Clear")) return "☀️";
-        if (description.contains("Cloud")) return "☁️";
-        if (description.contains("Rain")) return "🌧️";
-        if (description.contains("Snow")) return "❄️";
-        if (description.contains("Thunderstorm")) return "⛈️";
-        if (description.contains("Drizzle")) return "🌦️";
-        if (description.contains("Fog") || description.contains("Mist")) return "🌫️";
-        return "☁️";
-    }
-
     // Convierte la descripción del clima al español
     private String getWeatherDescriptionInSpanish(String weatherDesc) {
         if (weatherDesc == null) return "";
@@ -621,6 +581,7 @@ public class RouteWeatherActivity extends AppCompatActivity {
         String weatherDetail;
         Integer humidity;
         Double windSpeed;
+        int conditions; // Máscara de WeatherConditions
 
         RoutePoint(String name, double lat, double lng) {
             this.name = name;
@@ -1,6 +1,7 @@
 package com.example.weatherforecast.ui.settings;
 
 import android.content.Intent;
+import android.net.Uri;
 import android.os.Bundle;
 import android.text.Editable;
 import android.text.TextWatcher;
@@ -11,11 +12,14 @@ import android.widget.ImageView;
 import android.widget.RadioGroup;
 import android.widget.Toast;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
 
 import com.bumptech.glide.Glide;
 import com.example.weatherforecast.R;
+import com.example.weatherforecast.data.AppDatabase;
 import com.example.weatherforecast.model.UserPreferences;
 import com.example.weatherforecast.repository.PreferencesRepository;
 import com.example.weatherforecast.ui.forms.LoginActivity;
@@ -28,6 +32,12 @@ import com.google.android.material.textfield.TextInputEditText;
  * Actividad para la pantalla de ajustes donde el usuario puede configurar sus preferencias.
  */
 public class SettingsActivity extends AppCompatActivity {
+    // Tipo de las copias de seguridad (JSON Lines, ver OutfitBackup)
+    private static final String BACKUP_MIME_TYPE = "application/x-ndjson";
+    // Tipos que se ofrecen al importar: según la app de origen la copia puede llegar con otro tipo
+    private static final String[] BACKUP_OPEN_MIME_TYPES = {
+            BACKUP_MIME_TYPE, "application/json", "text/*", "application/octet-stream"
+    };
 
     private TextInputEditText nameEditText;
     private TextInputEditText surnameEditText;
@@ -39,6 +49,14 @@ public class SettingsActivity extends AppCompatActivity {
     private ImageButton homeButton;
     private ImageView toolbarLogo;
     private Button viewOutfitButton;
+    private MaterialButton exportBackupButton;
+    private MaterialButton importBackupButton;
+
+    // Selectores de documentos del sistema para exportar e importar la copia de seguridad
+    private final ActivityResultLauncher<String> createBackupDocument = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(BACKUP_MIME_TYPE), this::exportBackup);
+    private final ActivityResultLauncher<String[]> openBackupDocument = registerForActivityResult(
+            new ActivityResultContracts.OpenDocument(), this::importBackup);
 
     private PreferencesRepository preferencesRepository;
     private UserPreferences currentPreferences;
@@ -85,6 +103,8 @@ public class SettingsActivity extends AppCompatActivity {
         homeButton = findViewById(R.id.btnHome);
         toolbarLogo = findViewById(R.id.toolbarLogo);
         viewOutfitButton = findViewById(R.id.viewOutfitButton);
+        exportBackupButton = findViewById(R.id.exportBackupButton);
+        importBackupButton = findViewById(R.id.importBackupButton);
     }
 
     private void setupToolbar() {
@@ -102,11 +122,26 @@ public class SettingsActivity extends AppCompatActivity {
 
     // Método que carga las preferencias del usuario
     private void loadPreferences() {
-        // Get user preferences from DB with username
-        originalPreferences = preferencesRepository.getUserPreferences(username);
-        currentPreferences = originalPreferences.copy();
+        // Valores por defecto hasta que llegue la consulta a la base de datos
+        originalPreferences = new UserPreferences();
+        currentPreferences = originalPreferences;
 
-        updateUIFromPreferences();
+        // Preferencias del usuario (en memoria una vez cargadas)
+        preferencesRepository.getUserPreferences(username).observe(this, preferences -> {
+            if (preferences == null) return;
+
+            // Con cambios sin guardar no se toca el formulario: solo cambia contra qué se comparan
+            if (!currentPreferences.equals(originalPreferences)) {
+                originalPreferences = preferences;
+                updateSaveButtonState();
+                return;
+            }
+
+            originalPreferences = preferences;
+            currentPreferences = originalPreferences;
+            updateUIFromPreferences();
+            updateSaveButtonState();
+        });
     }
 
     // Método que actualiza la UI con las preferencias actuales
@@ -179,8 +214,9 @@ public class SettingsActivity extends AppCompatActivity {
             @Override
             public void afterTextChanged(Editable s) {
                 // Actualizar las preferencias actuales
-                currentPreferences.setName(nameEditText.getText().toString().trim());
-                currentPreferences.setSurname(surnameEditText.getText().toString().trim());
+                currentPreferences = currentPreferences
+                        .withName(nameEditText.getText().toString().trim())
+                        .withSurname(surnameEditText.getText().toString().trim());
 
                 // Actualizar el estado del botón de guardar
                 updateSaveButtonState();
@@ -201,7 +237,7 @@ public class SettingsActivity extends AppCompatActivity {
                 gender = UserPreferences.Gender.OTHER;
             }
 
-            currentPreferences.setGender(gender);
+            currentPreferences = currentPreferences.withGender(gender);
             updateSaveButtonState();
         });
 
@@ -216,7 +252,7 @@ public class SettingsActivity extends AppCompatActivity {
                 tolerance = UserPreferences.Tolerance.NORMAL;
             }
 
-            currentPreferences.setColdTolerance(tolerance);
+            currentPreferences = currentPreferences.withColdTolerance(tolerance);
             updateSaveButtonState();
         });
 
@@ -231,7 +267,7 @@ public class SettingsActivity extends AppCompatActivity {
                 tolerance = UserPreferences.Tolerance.NORMAL;
             }
 
-            currentPreferences.setHeatTolerance(tolerance);
+            currentPreferences = currentPreferences.withHeatTolerance(tolerance);
             updateSaveButtonState();
         });
 
@@ -242,6 +278,10 @@ public class SettingsActivity extends AppCompatActivity {
         resetButton.setOnClickListener(v -> resetPreferences());
 
         homeButton.setOnClickListener(v -> navigateToHome());
+
+        exportBackupButton.setOnClickListener(v -> createBackupDocument.launch("outfits_" + username + ".jsonl"));
+
+        importBackupButton.setOnClickListener(v -> openBackupDocument.launch(BACKUP_OPEN_MIME_TYPES));
     }
 
     // Método que actualiza el estado del botón de guardar
@@ -253,7 +293,7 @@ public class SettingsActivity extends AppCompatActivity {
     // Método que guarda las preferencias del usuario
     private void savePreferences() {
         preferencesRepository.saveUserPreferences(currentPreferences, username);
-        originalPreferences = currentPreferences.copy();
+        originalPreferences = currentPreferences;
         updateSaveButtonState();
         Toast.makeText(this, R.string.settings_saved_message, Toast.LENGTH_SHORT).show();
     }
@@ -276,6 +316,38 @@ public class SettingsActivity extends AppCompatActivity {
         Toast.makeText(this, R.string.settings_reset_message, Toast.LENGTH_SHORT).show();
     }
 
+    // Escribe la copia de seguridad en el documento elegido (null si el usuario cancela)
+    private void exportBackup(Uri document) {
+        if (document == null) return;
+
+        setBackupButtonsEnabled(false);
+        AppDatabase.getInstance(this).exportUserData(username, document)
+                .observe(this, count -> showBackupResult(count, R.string.backup_exported_message));
+    }
+
+    // Importa la copia de seguridad del documento elegido (null si el usuario cancela)
+    private void importBackup(Uri document) {
+        if (document == null) return;
+
+        setBackupButtonsEnabled(false);
+        AppDatabase.getInstance(this).importUserData(username, document)
+                .observe(this, count -> showBackupResult(count, R.string.backup_imported_message));
+    }
+
+    private void showBackupResult(Integer count, int messageId) {
+        setBackupButtonsEnabled(true);
+        if (count == null || count < 0) {
+            Toast.makeText(this, R.string.backup_error_message, Toast.LENGTH_LONG).show();
+        } else {
+            Toast.makeText(this, getString(messageId, count), Toast.LENGTH_SHORT).show();
+        }
+    }
+
+    private void setBackupButtonsEnabled(boolean enabled) {
+        exportBackupButton.setEnabled(enabled);
+        importBackupButton.setEnabled(enabled);
+    }
+
     private void navigateToHome() {
         Intent intent = new Intent(this, WeatherActivity.class);
         intent.putExtra("username", username);
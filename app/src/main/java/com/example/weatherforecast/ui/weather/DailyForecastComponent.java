@@ -7,9 +7,9 @@ import android.widget.LinearLayout;
 import android.widget.TextView;
 
 import com.example.weatherforecast.R;
-import com.example.weatherforecast.model.DailyForecast;
-
-import java.util.List;
+import com.example.weatherforecast.model.ForecastSeries;
+import com.example.weatherforecast.util.DateCodec;
+import com.example.weatherforecast.util.WeatherIconMapper;
 
 /**
  * Componente para mostrar la información diaria del clima
@@ -24,10 +24,10 @@ public class DailyForecastComponent {
     }
 
     // Método para mostrar las predicciones diarias
-    public void displayForecasts(List<DailyForecast> forecasts) {
+    public void displayForecasts(ForecastSeries forecast) {
         container.removeAllViews();
 
-        for (DailyForecast forecast : forecasts) {
+        for (int i = 0; i < forecast.size(); i++) {
             View itemView = LayoutInflater.from(context)
                     .inflate(R.layout.item_daily_forecast, container, false);
 
@@ -36,13 +36,16 @@ public class DailyForecastComponent {
             TextView maxTempDaily = itemView.findViewById(R.id.maxTempDaily);
             TextView minTempDaily = itemView.findViewById(R.id.minTempDaily);
 
-            dayText.setText(forecast.getDay());
-            weatherEmojiDaily.setText(forecast.getWeatherIcon());
-            maxTempDaily.setText(String.format("%.1f°C", forecast.getMaxTemperature()));
-            minTempDaily.setText(String.format("%.1f°C", forecast.getMinTemperature()));
+            // El primer día se muestra como "Hoy"
+            String day = i == 0 ? "Hoy" : DateCodec.dayAbbreviation(DateCodec.toEpochDay(forecast.getEpoch(i)));
+
+            dayText.setText(day);
+            weatherEmojiDaily.setText(WeatherIconMapper.getEmojiFromConditionCode(forecast.getCondition(i)));
+            maxTempDaily.setText(String.format("%.1f°C", forecast.getMaxTemperature(i)));
+            minTempDaily.setText(String.format("%.1f°C", forecast.getMinTemperature(i)));
 
             container.addView(itemView);
         }
     }
 
-}
\ No newline at end of file
+}
@@ -7,9 +7,9 @@ import android.widget.LinearLayout;
 import android.widget.TextView;
 
 import com.example.weatherforecast.R;
-import com.example.weatherforecast.model.HourlyForecast;
-
-import java.util.List;
+import com.example.weatherforecast.model.ForecastSeries;
+import com.example.weatherforecast.util.DateCodec;
+import com.example.weatherforecast.util.WeatherIconMapper;
 
 /**
  * Componente para mostrar la información horaria del clima
@@ -24,10 +24,10 @@ public class HourlyForecastComponent {
     }
 
     // Método para mostrar las predicciones horarias
-    public void displayForecasts(List<HourlyForecast> forecasts) {
+    public void displayForecasts(ForecastSeries forecast) {
         container.removeAllViews();
 
-        for (HourlyForecast forecast : forecasts) {
+        for (int i = 0; i < forecast.size(); i++) {
             View itemView = LayoutInflater.from(context)
                     .inflate(R.layout.item_hourly_forecast, container, false);
 
@@ -35,9 +35,9 @@ public class HourlyForecastComponent {
             TextView weatherEmojiHourly = itemView.findViewById(R.id.weatherEmojiHourly);
             TextView tempHourly = itemView.findViewById(R.id.tempHourly);
 
-            hourText.setText(forecast.getHour());
-            weatherEmojiHourly.setText(forecast.getWeatherIcon());
-            tempHourly.setText(String.format("%.1f°C", forecast.getTemperature()));
+            hourText.setText(DateCodec.formatHour(forecast.getEpoch(i)));
+            weatherEmojiHourly.setText(WeatherIconMapper.getEmojiFromConditionCode(forecast.getCondition(i)));
+            tempHourly.setText(String.format("%.1f°C", forecast.getTemperature(i)));
 
             container.addView(itemView);
         }
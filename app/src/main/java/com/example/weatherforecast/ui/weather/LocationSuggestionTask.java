@@ -3,13 +3,11 @@ package com.example.weatherforecast.ui.weather;
 import android.os.AsyncTask;
 import android.widget.ArrayAdapter;
 
+import com.example.weatherforecast.util.HttpClientProvider;
+
 import org.json.JSONArray;
 import org.json.JSONObject;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.net.URLEncoder;
 import java.util.ArrayList;
 import java.util.List;
@@ -41,21 +39,10 @@ public class LocationSuggestionTask extends AsyncTask<String, Void, List<String>
                     "&limit=" + LIMIT +
                     "&appid=" + API_KEY;
 
-            URL url = new URL(urlString);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
-
-            BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(connection.getInputStream()));
-
-            StringBuilder response = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                response.append(line);
-            }
-            reader.close();
+            // Ya estamos en segundo plano, así que la petición puede ser síncrona
+            String response = HttpClientProvider.getString(urlString);
 
-            JSONArray jsonArray = new JSONArray(response.toString());
+            JSONArray jsonArray = new JSONArray(response);
 
             for (int i = 0; i < jsonArray.length(); i++) {
                 JSONObject location = jsonArray.getJSONObject(i);
@@ -2,7 +2,6 @@ package com.example.weatherforecast.ui.weather;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.os.Handler;
 import android.view.View;
 import android.widget.ImageButton;
 import android.widget.ImageView;
@@ -15,18 +14,16 @@ import androidx.appcompat.widget.Toolbar;
 
 import com.bumptech.glide.Glide;
 import com.example.weatherforecast.R;
+import com.example.weatherforecast.WeatherApplication;
 import com.example.weatherforecast.controller.WeatherController;
 import com.example.weatherforecast.model.CurrentWeather;
-import com.example.weatherforecast.model.DailyForecast;
-import com.example.weatherforecast.model.HourlyForecast;
+import com.example.weatherforecast.model.ForecastSeries;
 import com.example.weatherforecast.data.WeatherCache;
 import com.example.weatherforecast.util.NavigationManager;
 import com.example.weatherforecast.ui.settings.SettingsActivity;
 import com.example.weatherforecast.ui.forms.LoginActivity;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 
-import java.util.List;
-
 /**
  * Actividad principal que muestra la información del clima
  */
@@ -37,7 +34,6 @@ public class WeatherActivity extends AppCompatActivity implements WeatherControl
     private WeatherDisplayComponent weatherDisplayComponent;
     private HourlyForecastComponent hourlyForecastComponent;
     private DailyForecastComponent dailyForecastComponent;
-    private WeatherCache weatherCache;
 
     private ImageView backgroundGif;
     private ImageView toolbarLogo;
@@ -46,9 +42,7 @@ public class WeatherActivity extends AppCompatActivity implements WeatherControl
     private BottomNavigationView bottomNavigation;
 
     private String currentCity = "Palma de Mallorca"; // Ciudad default
-    private boolean forceReload = false;
     private ProgressBar progressBar;
-    private static final int CACHE_MAX_AGE_MINUTES = 30; // Cache válido por 30 minutos para evitar sobrecargas
 
     private String username;
 
@@ -67,35 +61,45 @@ public class WeatherActivity extends AppCompatActivity implements WeatherControl
             return;
         }
 
-        // Inicializar caché
-        weatherCache = new WeatherCache(this);
+        // Verificar si debemos forzar la recarga de datos
+        boolean forceReload = NavigationManager.shouldForceReload(getIntent());
 
         // Recuperar la ciudad desde el intent o usar la última ciudad en caché
-        if (getIntent().hasExtra("CITY_NAME")) {
+        boolean hasIntentCity = getIntent().hasExtra("CITY_NAME");
+        if (hasIntentCity) {
             currentCity = getIntent().getStringExtra("CITY_NAME");
-        } else {
-            String cachedCity = weatherCache.getLastCity();
-            if (cachedCity != null && !cachedCity.isEmpty()) {
-                currentCity = cachedCity;
-            }
         }
 
-        // Verificar si debemos forzar la recarga de datos
-        forceReload = NavigationManager.shouldForceReload(getIntent());
-
         initComponents();
         setupUI();
 
-        // Verificar si hay datos en caché recientes
-        if (!forceReload && weatherCache.hasRecentData(CACHE_MAX_AGE_MINUTES)) {
-            // Cargar datos de la caché
-            loadFromCache();
+        // El controlador muestra la caché al momento y revalida en segundo plano si hace falta
+        if (hasIntentCity) {
+            controller.loadWeatherData(currentCity, forceReload);
         } else {
-            // Cargar datos frescos
-            loadWeatherData();
+            loadLastCity(forceReload);
         }
     }
 
+    // La última ciudad está en la caché, que se prepara al arrancar en segundo plano: hasta
+    // que esté lista se muestra el indicador de carga con la ciudad por defecto
+    private void loadLastCity(boolean forceReload) {
+        showLoading(true);
+        String defaultCity = currentCity;
+        WeatherApplication.whenWeatherCacheReady(this, () -> {
+            // El usuario ya ha elegido otra ciudad o la pantalla se ha cerrado
+            if (isDestroyed() || !currentCity.equals(defaultCity)) {
+                return;
+            }
+            String cachedCity = new WeatherCache(this).getLastCity();
+            if (cachedCity != null && !cachedCity.isEmpty()) {
+                currentCity = cachedCity;
+                navigationManager.updateCurrentCity(cachedCity);
+            }
+            controller.loadWeatherData(currentCity, forceReload);
+        });
+    }
+
     @Override
     protected void onNewIntent(Intent intent) {
         super.onNewIntent(intent);
@@ -107,13 +111,13 @@ public class WeatherActivity extends AppCompatActivity implements WeatherControl
             if (newCity != null && !currentCity.equals(newCity)) {
                 currentCity = newCity;
                 navigationManager.updateCurrentCity(newCity);
-                loadWeatherData();
+                controller.loadWeatherData(currentCity);
             }
         }
 
         // Verificar si debemos forzar la recarga
         if (NavigationManager.shouldForceReload(intent)) {
-            loadWeatherData();
+            controller.loadWeatherData(currentCity, true);
         }
     }
 
@@ -128,7 +132,7 @@ public class WeatherActivity extends AppCompatActivity implements WeatherControl
         );
         locationDialogManager = new LocationDialogManager(this, newLocation -> {
             currentCity = newLocation;
-            loadWeatherData();
+            controller.loadWeatherData(currentCity);
         });
 
         weatherDisplayComponent = new WeatherDisplayComponent(
@@ -202,71 +206,29 @@ public class WeatherActivity extends AppCompatActivity implements WeatherControl
                 .into(backgroundGif);
     }
 
-    private void loadWeatherData() {
-        showLoading(true);
-
-        // Cargar datos del clima con una pequeña demora para permitir que la UI se actualice
-        new Handler().postDelayed(() -> {
-            controller.loadWeatherData(currentCity);
-        }, 100);
-    }
-
-    // Método para cargar datos desde la caché
-    private void loadFromCache() {
-        CurrentWeather currentWeather = weatherCache.getCurrentWeather();
-        List<HourlyForecast> hourlyForecasts = weatherCache.getHourlyForecast();
-        List<DailyForecast> dailyForecasts = weatherCache.getDailyForecast();
-
-        if (currentWeather != null) {
-            displayCurrentWeather(currentWeather);
-        }
-
-        if (hourlyForecasts != null && !hourlyForecasts.isEmpty()) {
-            displayHourlyForecast(hourlyForecasts);
-        }
-
-        if (dailyForecasts != null && !dailyForecasts.isEmpty()) {
-            displayDailyForecast(dailyForecasts);
-        }
-
-        // Si la caché está muy antigua, cargar datos frescos en segundo plano
-        if (!weatherCache.hasRecentData(CACHE_MAX_AGE_MINUTES / 2)) {
-            new Handler().postDelayed(this::loadWeatherData, 1000);
-        }
-    }
-
-    // Métodos de WeatherView
+    // Métodos de WeatherView. El controlador solo los llama cuando el valor ha cambiado
     @Override
     public void displayCurrentWeather(CurrentWeather weather) {
-        runOnUiThread(() -> {
-            // Update current city with the response
-            currentCity = weather.getLocation();
-            weatherDisplayComponent.displayWeather(weather);
-            // Ocultar indicador de carga
-            showLoading(false);
-
-            // Guardar en caché
-            weatherCache.saveCurrentWeather(weather);
-        });
+        runOnUiThread(() -> weatherDisplayComponent.displayWeather(weather));
     }
 
     @Override
-    public void displayHourlyForecast(List<HourlyForecast> forecasts) {
-        runOnUiThread(() -> {
-            hourlyForecastComponent.displayForecasts(forecasts);
+    public void displayHourlyForecast(ForecastSeries forecast) {
+        runOnUiThread(() -> hourlyForecastComponent.displayForecasts(forecast));
+    }
 
-            // Guardar en caché
-            weatherCache.saveHourlyForecast(forecasts);
-        });
+    @Override
+    public void displayDailyForecast(ForecastSeries forecast) {
+        runOnUiThread(() -> dailyForecastComponent.displayForecasts(forecast));
     }
 
     @Override
-    public void displayDailyForecast(List<DailyForecast> forecasts) {
+    public void showFreshness(WeatherController.Freshness freshness) {
         runOnUiThread(() -> {
-            dailyForecastComponent.displayForecasts(forecasts);
-
-            // Guardar en caché
-            weatherCache.saveDailyForecast(forecasts);
+            // Avisar cuando no se han podido actualizar los datos que se están mostrando
+            if (freshness == WeatherController.Freshness.STALE) {
+                Toast.makeText(this, "Mostrando datos guardados anteriormente", Toast.LENGTH_SHORT).show();
+            }
         });
     }
 
@@ -276,13 +238,6 @@ public class WeatherActivity extends AppCompatActivity implements WeatherControl
             Toast.makeText(this, message, Toast.LENGTH_LONG).show();
             // Ocultar indicador de carga en caso de error
             showLoading(false);
-
-            // En caso de error, intentar cargar desde la caché si no se hizo antes
-            if (weatherCache.getCurrentWeather() != null &&
-                    weatherDisplayComponent != null) {
-                loadFromCache();
-                Toast.makeText(this, "Mostrando datos guardados anteriormente", Toast.LENGTH_SHORT).show();
-            }
         });
     }
 
@@ -295,16 +250,6 @@ public class WeatherActivity extends AppCompatActivity implements WeatherControl
         });
     }
 
-    @Override
-    protected void onResume() {
-        super.onResume();
-        // Recargar datos solo si se forzó la recarga al iniciar la actividad
-        if (forceReload) {
-            forceReload = false;
-            loadWeatherData();
-        }
-    }
-
     @Override
     protected void onDestroy() {
         super.onDestroy();
@@ -3,10 +3,7 @@ package com.example.weatherforecast.ui.weather;
 import android.widget.TextView;
 
 import com.example.weatherforecast.model.CurrentWeather;
-
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
+import com.example.weatherforecast.util.DateCodec;
 
 /**
  * Componente encargado de mostrar la información del clima en la UI
@@ -36,8 +33,7 @@ public class WeatherDisplayComponent {
 
 
     public void displayWeather(CurrentWeather weather) {
-        SimpleDateFormat dateFormat = new SimpleDateFormat("'Hoy', HH:mm", new Locale("es", "ES"));
-        String currentDateTime = dateFormat.format(new Date());
+        String currentDateTime = "Hoy, " + DateCodec.formatTime(System.currentTimeMillis());
 
         locationText.setText(String.format("%s, %s", weather.getLocation(), weather.getCountry()));
         weatherEmoji.setText(weather.getWeatherIcon());
@@ -0,0 +1,128 @@
+package com.example.weatherforecast.util;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Clase que ejecuta las tareas de arranque de la aplicación en un hilo en segundo plano,
+ * en el orden de sus dependencias, y registra en el log lo que tarda cada una.
+ * Las pantallas no esperan a las tareas: piden un aviso en el hilo principal (whenDone)
+ * cuando termina la que necesitan
+ */
+public final class AppStartup {
+    private static final String TAG = "AppStartup";
+
+    // Tarea de arranque
+    public interface Initializer {
+        void run() throws Exception;
+    }
+
+    // Un solo hilo: las tareas se ejecutan en el orden en que se registran
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Map<String, Future<?>> tasks = new LinkedHashMap<>();
+    private final Set<String> finished = new HashSet<>();
+    private final Map<String, List<Runnable>> callbacks = new HashMap<>();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final long startTime = SystemClock.elapsedRealtime();
+
+    // Ejecuta la tarea en el hilo actual midiendo su coste (para lo que tiene que estar listo ya)
+    public void runNow(String name, Initializer initializer) {
+        runTimed(name, initializer);
+    }
+
+    // Registra una tarea en segundo plano. Las dependencias tienen que estar registradas antes
+    public synchronized void register(String name, Initializer initializer, String... dependencies) {
+        if (tasks.containsKey(name)) {
+            throw new IllegalArgumentException("Tarea de arranque repetida: " + name);
+        }
+        for (String dependency : dependencies) {
+            if (!tasks.containsKey(dependency)) {
+                throw new IllegalArgumentException(name + " depende de una tarea no registrada: " + dependency);
+            }
+        }
+
+        tasks.put(name, executor.submit(() -> {
+            for (String dependency : dependencies) {
+                await(dependency);
+            }
+            runTimed(name, initializer);
+        }));
+    }
+
+    // Ejecuta callback en el hilo principal cuando la tarea haya terminado (aunque haya fallado),
+    // sin bloquearlo. Si ya terminó y se llama desde el hilo principal, se ejecuta al momento
+    public void whenDone(String name, Runnable callback) {
+        synchronized (this) {
+            if (tasks.containsKey(name) && !finished.contains(name)) {
+                List<Runnable> waiting = callbacks.get(name);
+                if (waiting == null) {
+                    waiting = new ArrayList<>();
+                    callbacks.put(name, waiting);
+                }
+                waiting.add(callback);
+                return;
+            }
+        }
+
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            callback.run();
+        } else {
+            mainHandler.post(callback);
+        }
+    }
+
+    // Solo para las dependencias, en el hilo de arranque
+    private void await(String name) {
+        Future<?> task;
+        synchronized (this) {
+            task = tasks.get(name);
+        }
+        if (task == null) {
+            return;
+        }
+
+        try {
+            task.get();
+        } catch (Exception e) {
+            // El error ya se registró al ejecutar la tarea; quien espera sigue adelante
+            e.printStackTrace();
+        }
+    }
+
+    private void runTimed(String name, Initializer initializer) {
+        long start = SystemClock.elapsedRealtime();
+        try {
+            initializer.run();
+        } catch (Exception e) {
+            Log.e(TAG, "Error en la tarea de arranque " + name, e);
+        }
+        long end = SystemClock.elapsedRealtime();
+
+        Log.d(TAG, name + ": " + (end - start) + " ms (terminó a los " + (end - startTime)
+                + " ms del arranque, hilo " + Thread.currentThread().getName() + ")");
+
+        List<Runnable> waiting;
+        synchronized (this) {
+            finished.add(name);
+            waiting = callbacks.remove(name);
+        }
+        if (waiting != null) {
+            for (Runnable callback : waiting) {
+                mainHandler.post(callback);
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.weatherforecast.util;
+
+import java.util.TimeZone;
+
+/**
+ * Clase que formatea y parsea las fechas que usa la app (yyyy-MM-dd HH:mm:ss, yyyy-MM-dd,
+ * dd-MM-yyyy, HH:00, HH:mm y abreviaturas de días) a partir de milisegundos epoch.
+ * Solo usa aritmética sobre enteros, así que es thread-safe y no crea SimpleDateFormat ni Calendar
+ */
+public final class DateCodec {
+    public static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+    private static final long HOUR_MILLIS = 60 * 60 * 1000L;
+    private static final long MINUTE_MILLIS = 60 * 1000L;
+
+    private static final String[] DAY_ABBREVIATIONS = {"Dom", "Lun", "Mar", "Mié", "Jue", "Vie", "Sáb"};
+
+    // TimeZone.getDefault() devuelve una copia en cada llamada, así que se guarda una vez.
+    // WeatherApplication la actualiza al recibir ACTION_TIMEZONE_CHANGED
+    private static volatile TimeZone zone = TimeZone.getDefault();
+
+    private DateCodec() {
+    }
+
+    // Vuelve a leer la zona horaria del sistema después de un cambio
+    public static void refreshTimeZone() {
+        zone = TimeZone.getDefault();
+    }
+
+    // ---- Conversión epoch <-> día local ----
+
+    // Milisegundos desplazados a la hora local
+    private static long toLocalMillis(long epochMillis) {
+        return epochMillis + zone.getOffset(epochMillis);
+    }
+
+    // Número de días desde 1970-01-01 en la hora local
+    public static long toEpochDay(long epochMillis) {
+        return Math.floorDiv(toLocalMillis(epochMillis), DAY_MILLIS);
+    }
+
+    // Medianoche local del día indicado
+    public static long startOfDay(long epochDay) {
+        long utcMidnight = epochDay * DAY_MILLIS;
+        return utcMidnight - zone.getOffset(utcMidnight - zone.getRawOffset());
+    }
+
+    // 0 = domingo ... 6 = sábado (1970-01-01 fue jueves)
+    public static int dayOfWeek(long epochDay) {
+        // El resto ya cabe en un int (-6..6): floorMod(int, int) lo deja en 0..6
+        return Math.floorMod((int) ((epochDay + 4) % 7), 7);
+    }
+
+    public static String dayAbbreviation(long epochDay) {
+        return DAY_ABBREVIATIONS[dayOfWeek(epochDay)];
+    }
+
+    // ---- Formateo ----
+
+    // yyyy-MM-dd HH:mm:ss en hora local
+    public static String formatDateTime(long epochMillis) {
+        long local = toLocalMillis(epochMillis);
+        int date = civilFromDays(Math.floorDiv(local, DAY_MILLIS));
+        long millisOfDay = Math.floorMod(local, DAY_MILLIS);
+
+        char[] out = new char[19];
+        writeIsoDate(out, date);
+        out[10] = ' ';
+        write2(out, 11, (int) (millisOfDay / HOUR_MILLIS));
+        out[13] = ':';
+        write2(out, 14, (int) (millisOfDay / MINUTE_MILLIS % 60));
+        out[16] = ':';
+        write2(out, 17, (int) (millisOfDay / 1000 % 60));
+        return new String(out);
+    }
+
+    // yyyy-MM-dd en hora local
+    public static String formatIsoDate(long epochMillis) {
+        return formatIsoEpochDay(toEpochDay(epochMillis));
+    }
+
+    // yyyy-MM-dd de un día concreto
+    public static String formatIsoEpochDay(long epochDay) {
+        char[] out = new char[10];
+        writeIsoDate(out, civilFromDays(epochDay));
+        return new String(out);
+    }
+
+    // dd-MM-yyyy en hora local
+    public static String formatDayMonthYear(long epochMillis) {
+        int date = civilFromDays(toEpochDay(epochMillis));
+        char[] out = new char[10];
+        write2(out, 0, date % 100);
+        out[2] = '-';
+        write2(out, 3, date / 100 % 100);
+        out[5] = '-';
+        write4(out, 6, date / 10000);
+        return new String(out);
+    }
+
+    // HH:00 en hora local
+    public static String formatHour(long epochMillis) {
+        int hour = (int) (Math.floorMod(toLocalMillis(epochMillis), DAY_MILLIS) / HOUR_MILLIS);
+        char[] out = {'0', '0', ':', '0', '0'};
+        write2(out, 0, hour);
+        return new String(out);
+    }
+
+    // HH:mm en hora local
+    public static String formatTime(long epochMillis) {
+        long millisOfDay = Math.floorMod(toLocalMillis(epochMillis), DAY_MILLIS);
+        char[] out = new char[5];
+        write2(out, 0, (int) (millisOfDay / HOUR_MILLIS));
+        out[2] = ':';
+        write2(out, 3, (int) (millisOfDay / MINUTE_MILLIS % 60));
+        return new String(out);
+    }
+
+    // ---- Parseo ----
+
+    // yyyy-MM-dd HH:mm:ss interpretado en UTC (formato de dt_txt de OpenWeather)
+    public static long parseUtcDateTime(String text) {
+        if (text == null || text.length() < 19) {
+            throw new IllegalArgumentException("Fecha no válida: " + text);
+        }
+        long epochDay = daysFromCivil(digits(text, 0, 4), digits(text, 5, 2), digits(text, 8, 2));
+        return epochDay * DAY_MILLIS
+                + digits(text, 11, 2) * HOUR_MILLIS
+                + digits(text, 14, 2) * MINUTE_MILLIS
+                + digits(text, 17, 2) * 1000L;
+    }
+
+    // yyyy-MM-dd -> día epoch
+    public static long parseIsoEpochDay(String text) {
+        if (text == null || text.length() < 10) {
+            throw new IllegalArgumentException("Fecha no válida: " + text);
+        }
+        return daysFromCivil(digits(text, 0, 4), digits(text, 5, 2), digits(text, 8, 2));
+    }
+
+    // dd-MM-yyyy -> día epoch
+    public static long parseDayMonthYearEpochDay(String text) {
+        if (text == null || text.length() < 10) {
+            throw new IllegalArgumentException("Fecha no válida: " + text);
+        }
+        return daysFromCivil(digits(text, 6, 4), digits(text, 3, 2), digits(text, 0, 2));
+    }
+
+    // ---- Aritmética de calendario (algoritmo civil de H. Hinnant) ----
+
+    static long daysFromCivil(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    // Devuelve la fecha empaquetada como yyyyMMdd para no crear objetos
+    static int civilFromDays(long epochDay) {
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+        return year * 10000 + month * 100 + day;
+    }
+
+    private static void writeIsoDate(char[] out, int date) {
+        write4(out, 0, date / 10000);
+        out[4] = '-';
+        write2(out, 5, date / 100 % 100);
+        out[7] = '-';
+        write2(out, 8, date % 100);
+    }
+
+    private static void write2(char[] out, int offset, int value) {
+        out[offset] = (char) ('0' + value / 10);
+        out[offset + 1] = (char) ('0' + value % 10);
+    }
+
+    private static void write4(char[] out, int offset, int value) {
+        write2(out, offset, value / 100);
+        write2(out, offset + 2, value % 100);
+    }
+
+    private static int digits(String text, int offset, int length) {
+        int value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Fecha no válida: " + text);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.weatherforecast.util;
+
+import com.example.weatherforecast.dto.ForecastResponse;
+import com.example.weatherforecast.dto.ForecastResponseAdapter;
+import com.example.weatherforecast.dto.WeatherResponse;
+import com.example.weatherforecast.dto.WeatherResponseAdapter;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Clase que proporciona la instancia de Gson compartida por toda la app.
+ * Gson es thread-safe, así que no hace falta crear una por clase
+ */
+public final class GsonProvider {
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(WeatherResponse.class, new WeatherResponseAdapter())
+            .registerTypeAdapter(ForecastResponse.class, new ForecastResponseAdapter())
+            .create();
+
+    private GsonProvider() {
+    }
+
+    public static Gson get() {
+        return GSON;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.weatherforecast.util;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Clase que proporciona el único cliente HTTP de la aplicación.
+ * Todas las pantallas comparten el pool de conexiones (y con él las sesiones TLS y el DNS)
+ * y una caché en disco que respeta Cache-Control/ETag. OkHttp gestiona gzip de forma transparente
+ */
+public final class HttpClientProvider {
+    private static final String CACHE_DIR = "http_cache";
+    private static final long CACHE_SIZE_BYTES = 10L * 1024 * 1024; // 10 MB
+    private static final int MAX_IDLE_CONNECTIONS = 5;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+    private static final long TIMEOUT_SECONDS = 15;
+
+    private static volatile OkHttpClient client;
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private HttpClientProvider() {
+    }
+
+    // Listener para respuestas JSON, se ejecuta en el hilo principal
+    public interface JsonListener {
+        void onResponse(JSONObject response);
+    }
+
+    // Listener para errores de red, se ejecuta en el hilo principal
+    public interface ErrorListener {
+        void onError(Exception error);
+    }
+
+    // Se llama desde WeatherApplication para crear el cliente con caché en disco
+    public static void init(Context context) {
+        if (client == null) {
+            synchronized (HttpClientProvider.class) {
+                if (client == null) {
+                    File cacheDir = new File(context.getApplicationContext().getCacheDir(), CACHE_DIR);
+                    client = buildClient(new Cache(cacheDir, CACHE_SIZE_BYTES));
+                }
+            }
+        }
+    }
+
+    // Un cliente creado sin init no tendría caché en disco y ya no se podría sustituir,
+    // así que llamar antes de init es un error
+    public static OkHttpClient get() {
+        OkHttpClient current = client;
+        if (current == null) {
+            throw new IllegalStateException("HttpClientProvider.init() no se ha llamado");
+        }
+        return current;
+    }
+
+    private static OkHttpClient buildClient(Cache cache) {
+        return new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                .connectTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .readTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .cache(cache)
+                .build();
+    }
+
+    // Descarga el cuerpo de una URL de forma síncrona. No llamar desde el hilo principal
+    public static String getString(String url) throws IOException {
+        Request request = new Request.Builder().url(url).build();
+        try (Response response = get().newCall(request).execute()) {
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                throw new IOException("HTTP " + response.code());
+            }
+            return body.string();
+        }
+    }
+
+    // Lanza una petición GET asíncrona y entrega el JSON en el hilo principal
+    public static void getJson(String url, JsonListener listener, ErrorListener errorListener) {
+        Request request = new Request.Builder().url(url).build();
+        get().newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                mainHandler.post(() -> errorListener.onError(e));
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (ResponseBody body = response.body()) {
+                    if (!response.isSuccessful() || body == null) {
+                        IOException error = new IOException("HTTP " + response.code());
+                        mainHandler.post(() -> errorListener.onError(error));
+                        return;
+                    }
+                    JSONObject json = new JSONObject(body.string());
+                    mainHandler.post(() -> listener.onResponse(json));
+                } catch (IOException | JSONException e) {
+                    mainHandler.post(() -> errorListener.onError(e));
+                }
+            }
+        });
+    }
+}
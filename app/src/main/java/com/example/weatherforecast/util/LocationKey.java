@@ -0,0 +1,20 @@
+package com.example.weatherforecast.util;
+
+import java.util.Locale;
+
+/**
+ * Clase que normaliza nombres de ubicación para usarlos como clave
+ * ("Palma", " palma " y "PALMA" dan la misma clave)
+ */
+public final class LocationKey {
+
+    private LocationKey() {
+    }
+
+    public static String canonical(String city) {
+        if (city == null) {
+            return "";
+        }
+        return city.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.weatherforecast.util;
+
+/**
+ * Clasifica el clima en un conjunto de indicadores (máscara de bits) a partir del id numérico
+ * de condición de OpenWeather (https://openweathermap.org/weather-conditions).
+ * Se calcula una vez al recibir la respuesta y todos los que necesitan saber si llueve, nieva,
+ * etc. consultan los bits, sin depender del texto traducido de la descripción
+ */
+public final class WeatherConditions {
+    public static final int NONE = 0;      // Sin datos
+    public static final int RAIN = 1;      // Lluvia, llovizna o chubascos
+    public static final int SNOW = 1 << 1; // Nieve o aguanieve
+    public static final int WIND = 1 << 2; // Ráfagas o tornado
+    public static final int CLOUD = 1 << 3;
+    public static final int STORM = 1 << 4;
+    public static final int FOG = 1 << 5; // Niebla, bruma, calima, polvo, humo o ceniza
+    public static final int CLEAR = 1 << 6;
+
+    // Indicadores de cada código de condición de WeatherIconMapper (en el orden de CONDITION_EMOJIS),
+    // para los datos que solo guardan el emoji
+    private static final int[] CODE_CONDITIONS = {
+            NONE,           // 0: por defecto
+            CLEAR,          // ☀️
+            CLEAR,          // 🌙
+            CLOUD,          // ⛅
+            CLOUD,          // ☁️
+            RAIN,           // 🌧️
+            RAIN,           // 🌦️
+            STORM | RAIN,   // ⛈️
+            SNOW,           // ❄️
+            FOG,            // 🌫️
+            WIND,           // 💨
+            STORM | WIND,   // 🌪️
+            CLOUD           // 🌥️
+    };
+
+    private WeatherConditions() {
+    }
+
+    // Indicadores de un id de condición de OpenWeather
+    public static int fromConditionId(int id) {
+        switch (id / 100) {
+            case 2: // 2xx tormenta; 200-202 y 230-232 vienen con lluvia o llovizna
+                return (id <= 202 || id >= 230) ? STORM | RAIN : STORM;
+            case 3: // 3xx llovizna
+            case 5: // 5xx lluvia
+                return RAIN;
+            case 6: // 6xx nieve; 611-616 son aguanieve o lluvia con nieve
+                return (id >= 611 && id <= 616) ? SNOW | RAIN : SNOW;
+            case 7: // 7xx atmósfera
+                if (id == 771) return WIND;
+                if (id == 781) return STORM | WIND;
+                return FOG;
+            case 8: // 800 despejado, 801-804 nubes
+                return id == 800 ? CLEAR : CLOUD;
+            default:
+                return NONE;
+        }
+    }
+
+    // Indicadores a partir del código de condición compacto (ver WeatherIconMapper)
+    public static int fromConditionCode(byte code) {
+        if (code < 0 || code >= CODE_CONDITIONS.length) {
+            return NONE;
+        }
+        return CODE_CONDITIONS[code];
+    }
+
+    // Indicadores a partir del emoji, para datos guardados antes de tener el id
+    public static int fromEmoji(String emoji) {
+        return fromConditionCode(WeatherIconMapper.getConditionCodeFromEmoji(emoji));
+    }
+
+    public static boolean has(int conditions, int flag) {
+        return (conditions & flag) != 0;
+    }
+
+    // Emoji que representa los indicadores, del más al menos relevante
+    public static String toEmoji(int conditions) {
+        if (has(conditions, STORM)) return "⛈️";
+        if (has(conditions, SNOW)) return "❄️";
+        if (has(conditions, RAIN)) return "🌧️";
+        if (has(conditions, FOG)) return "🌫️";
+        if (has(conditions, WIND)) return "💨";
+        if (has(conditions, CLEAR)) return "☀️";
+        return "☁️";
+    }
+}
@@ -7,6 +7,12 @@ import java.util.Map;
  * Clase que mapea códigos de iconos de clima a emojis correspondientes.
  */
 public class WeatherIconMapper {
+    // Emojis que puede tener una franja del pronóstico. La posición en el array es su código de condición
+    private static final String[] CONDITION_EMOJIS = {
+            "🌤️", // 0: por defecto
+            "☀️", "🌙", "⛅", "☁️", "🌧️", "🌦️", "⛈️", "❄️", "🌫️", "💨", "🌪️", "🌥️"
+    };
+
     private final Map<String, String> iconToEmojiMap;
 
     public WeatherIconMapper() {
@@ -92,4 +98,25 @@ public class WeatherIconMapper {
         // Si aún así no encontramos un emoji, devolvemos uno por defecto
         return emoji != null ? emoji : "🌤️";
     }
-}
\ No newline at end of file
+
+    // Convierte un código de icono de la API al código de condición compacto de ForecastSeries
+    public byte getConditionCode(String iconCode) {
+        return getConditionCodeFromEmoji(getEmojiFromIconCode(iconCode));
+    }
+
+    public static byte getConditionCodeFromEmoji(String emoji) {
+        for (int i = 0; i < CONDITION_EMOJIS.length; i++) {
+            if (CONDITION_EMOJIS[i].equals(emoji)) {
+                return (byte) i;
+            }
+        }
+        return 0;
+    }
+
+    public static String getEmojiFromConditionCode(byte code) {
+        if (code < 0 || code >= CONDITION_EMOJIS.length) {
+            return CONDITION_EMOJIS[0];
+        }
+        return CONDITION_EMOJIS[code];
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.weatherforecast;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Utilidades para las pruebas de rendimiento que se ejecutan en la JVM con los tests unitarios.
+ * Miden tiempo y bytes reservados por el hilo actual e imprimen el resultado; los tests
+ * solo comprueban que los resultados son correctos, nunca los tiempos
+ */
+public final class Benchmarks {
+    private Benchmarks() {
+    }
+
+    /** Tarea a medir; devuelve un valor para que el JIT no elimine el trabajo */
+    public interface Task {
+        long run() throws Exception;
+    }
+
+    /** Resultado de una medición */
+    public static final class Result {
+        public final String name;
+        public final long nanosPerOp;
+        public final long bytesPerOp; // -1 si la JVM no permite medir reservas por hilo
+        public final long checksum;
+
+        Result(String name, long nanosPerOp, long bytesPerOp, long checksum) {
+            this.name = name;
+            this.nanosPerOp = nanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+            this.checksum = checksum;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-40s %,12d ns/op %12s B/op", name, nanosPerOp,
+                    bytesPerOp < 0 ? "n/a" : String.format("%,d", bytesPerOp));
+        }
+    }
+
+    // Calienta la tarea y después mide el tiempo y las reservas medias por operación
+    public static Result measure(String name, int warmup, int iterations, Task task) throws Exception {
+        long checksum = 0;
+        for (int i = 0; i < warmup; i++) {
+            checksum += task.run();
+        }
+
+        long bytesBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            checksum += task.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytesAfter = allocatedBytes();
+
+        long bytesPerOp = bytesBefore < 0 || bytesAfter < 0 ? -1 : (bytesAfter - bytesBefore) / iterations;
+        Result result = new Result(name, elapsed / iterations, bytesPerOp, checksum);
+        System.out.println(result);
+        return result;
+    }
+
+    // Bytes reservados por el hilo actual, o -1 si la JVM no lo soporta
+    public static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+        if (!sunBean.isThreadAllocatedMemorySupported() || !sunBean.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.weatherforecast.data;
+
+import com.example.weatherforecast.Benchmarks;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+/**
+ * Mide cuántos outfits por segundo lee la importación de OutfitBackup en una copia generada
+ * de 20.000 outfits (unos 55 años de historial diario). El destino solo cuenta los outfits,
+ * así que se mide el parseo y la creación de modelos, sin la escritura en SQLite
+ */
+public class OutfitBackupBenchmark {
+    private static final int OUTFITS = 20_000;
+
+    @Test
+    public void import_generatedBackup() throws Exception {
+        final String backup = OutfitBackupTest.backup(OUTFITS);
+        System.out.println("Copia generada: " + OUTFITS + " outfits, " + backup.length() / 1024 + " KB");
+
+        Benchmarks.Result result = Benchmarks.measure("importar " + OUTFITS + " outfits", 3, 10, () -> {
+            OutfitBackupTest.RecordingTarget target = new OutfitBackupTest.RecordingTarget();
+            int count = OutfitBackup.importFrom(new StringReader(backup), target);
+            assertEquals(OUTFITS, target.days.size());
+            return count;
+        });
+
+        assertEquals(13L * OUTFITS, result.checksum);
+        System.out.println(String.format("%,d outfits/s", OUTFITS * 1_000_000_000L / result.nanosPerOp));
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.weatherforecast.data;
+
+import android.database.Cursor;
+
+import com.example.weatherforecast.model.CurrentWeather;
+import com.example.weatherforecast.model.OutfitRecommendation;
+import com.example.weatherforecast.model.UserPreferences;
+import com.example.weatherforecast.util.DateCodec;
+import com.example.weatherforecast.util.WeatherConditions;
+import com.google.gson.stream.JsonWriter;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests de la importación de copias de OutfitBackup sobre un destino en memoria, y de la
+ * exportación desde un cursor en memoria
+ */
+public class OutfitBackupTest {
+    static final long FIRST_DAY = DateCodec.parseIsoEpochDay("2005-01-01");
+
+    // Destino que guarda lo importado en listas
+    static final class RecordingTarget implements OutfitBackup.ImportTarget {
+        final List<Long> days = new ArrayList<>();
+        final List<OutfitRecommendation> outfits = new ArrayList<>();
+        final List<CurrentWeather> weathers = new ArrayList<>();
+        UserPreferences preferences;
+        int commits;
+
+        @Override
+        public void savePreferences(UserPreferences preferences) {
+            this.preferences = preferences;
+        }
+
+        @Override
+        public void saveOutfit(long epochDay, OutfitRecommendation outfit, CurrentWeather weather) {
+            days.add(epochDay);
+            outfits.add(outfit);
+            weathers.add(weather);
+        }
+
+        @Override
+        public void commitBatch() {
+            commits++;
+        }
+    }
+
+    // Copia con el formato de OutfitBackup.export: un outfit por día desde FIRST_DAY
+    static void writeBackup(Writer out, int outfits) throws IOException {
+        JsonWriter json = new JsonWriter(out);
+        json.setLenient(true);
+
+        json.beginObject().name("type").value("header")
+                .name("format").value("weatherforecast-outfits").name("version").value(1).endObject();
+        out.write('\n');
+        json.beginObject().name("type").value("preferences").name("surname").value("García")
+                .name("gender").value("FEMALE").name("coldTolerance").value("LOW")
+                .name("heatTolerance").value("HIGH").endObject();
+        out.write('\n');
+
+        String[] styles = {"CASUAL", "SPORTY", "FORMAL"};
+        for (int i = 0; i < outfits; i++) {
+            json.beginObject();
+            json.name("type").value("outfit");
+            json.name("date").value(DateCodec.formatIsoEpochDay(FIRST_DAY + i));
+            json.name("city").value("Ciudad " + (i % 50));
+            json.name("style").value(styles[i % 3]);
+            json.name("country").value("ES");
+            json.name("temperature").value(i % 40 - 5);
+            json.name("maxTemperature").value(i % 40 - 2);
+            json.name("minTemperature").value(i % 40 - 8);
+            json.name("humidity").value(i % 100);
+            json.name("condition").value("lluvia ligera");
+            json.name("icon").value("🌧️");
+            json.name("summary").value("Resumen " + i);
+            json.name("top").beginArray().value("Camiseta").value("Jersey " + (i % 7)).endArray();
+            json.name("bottom").beginArray().value("Vaqueros").endArray();
+            json.name("footwear").beginArray().value("Botas").endArray();
+            json.name("accessories").beginArray().value("Paraguas").endArray();
+            json.endObject();
+            out.write('\n');
+        }
+        json.flush();
+    }
+
+    // Fila con las columnas de DBHelper.queryOutfitsForExport
+    private static Object[] exportRow(long epochDay, String icon, int conditions, int category, String garment) {
+        return new Object[]{epochDay, "Madrid", "CASUAL", "ES", 12.0, 15.0, 9.0, 70, "condición", icon,
+                "Resumen", conditions, category, garment};
+    }
+
+    // Cursor de solo avance sobre las filas dadas
+    private static Cursor cursor(Object[][] rows) {
+        int[] position = {-1};
+        return (Cursor) Proxy.newProxyInstance(Cursor.class.getClassLoader(), new Class<?>[]{Cursor.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "moveToNext": return ++position[0] < rows.length;
+                        case "isNull": return rows[position[0]][(int) args[0]] == null;
+                        case "getString": return (String) rows[position[0]][(int) args[0]];
+                        case "getLong": return ((Number) rows[position[0]][(int) args[0]]).longValue();
+                        case "getInt": return ((Number) rows[position[0]][(int) args[0]]).intValue();
+                        case "getDouble": return ((Number) rows[position[0]][(int) args[0]]).doubleValue();
+                        case "close": return null;
+                        default: throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    static String backup(int outfits) throws IOException {
+        StringWriter out = new StringWriter();
+        writeBackup(out, outfits);
+        return out.toString();
+    }
+
+    @Test
+    public void importsEveryOutfitRegardlessOfAge() throws IOException {
+        // Desde 2005: muchos años más antiguos que cualquier periodo de retención
+        int outfits = 5 * OutfitBackup.BATCH_SIZE + 123;
+        RecordingTarget target = new RecordingTarget();
+
+        int count = OutfitBackup.importFrom(new StringReader(backup(outfits)), target);
+
+        assertEquals(outfits, count);
+        assertEquals(outfits, target.days.size());
+        assertEquals(FIRST_DAY, (long) target.days.get(0));
+        assertEquals(FIRST_DAY + outfits - 1, (long) target.days.get(outfits - 1));
+        // Un commit por lote completo; el último lote lo confirma quien llama
+        assertEquals(5, target.commits);
+    }
+
+    @Test
+    public void readsPreferencesWeatherAndGarments() throws IOException {
+        RecordingTarget target = new RecordingTarget();
+
+        OutfitBackup.importFrom(new StringReader(backup(4)), target);
+
+        assertEquals("García", target.preferences.getSurname());
+        assertEquals(UserPreferences.Gender.FEMALE, target.preferences.getGender());
+        assertEquals(UserPreferences.Tolerance.LOW, target.preferences.getColdTolerance());
+        assertEquals(UserPreferences.Tolerance.HIGH, target.preferences.getHeatTolerance());
+
+        CurrentWeather weather = target.weathers.get(1);
+        assertEquals("Ciudad 1", weather.getLocation());
+        assertEquals(-4, weather.getTemperature(), 0.0);
+        assertEquals(1, weather.getHumidity());
+        assertTrue(WeatherConditions.has(weather.getConditions(), WeatherConditions.RAIN));
+
+        OutfitRecommendation outfit = target.outfits.get(1);
+        assertEquals(OutfitRecommendation.Style.SPORTY, outfit.getStyle());
+        assertEquals(2, outfit.getTopItems().size());
+        assertEquals("Jersey 1", outfit.getTopItems().get(1));
+        assertTrue(outfit.getOuterWear().isEmpty());
+        assertEquals("Paraguas", outfit.getAccessories().get(0));
+    }
+
+    @Test
+    public void exportThenImport_keepsConditionMaskExactly() throws IOException {
+        // Ráfagas (771): el icono es el de la niebla, pero la máscara lleva WIND
+        int squall = WeatherConditions.fromConditionId(771);
+        assertNotEquals(squall, WeatherConditions.fromEmoji("🌫️"));
+        Object[][] rows = {
+                exportRow(FIRST_DAY, "🌫️", squall, DBHelper.CATEGORY_TOP, "Cortavientos"),
+                exportRow(FIRST_DAY, "🌫️", squall, DBHelper.CATEGORY_BOTTOM, "Vaqueros"),
+                exportRow(FIRST_DAY + 1, "☀️", WeatherConditions.CLEAR, DBHelper.CATEGORY_TOP, "Camiseta"),
+        };
+        StringWriter out = new StringWriter();
+        UserPreferences preferences = new UserPreferences("ana", "García", UserPreferences.Gender.FEMALE,
+                UserPreferences.Tolerance.LOW, UserPreferences.Tolerance.HIGH);
+
+        assertEquals(2, OutfitBackup.export(preferences, cursor(rows), out));
+
+        RecordingTarget target = new RecordingTarget();
+        assertEquals(2, OutfitBackup.importFrom(new StringReader(out.toString()), target));
+        assertEquals(squall, target.weathers.get(0).getConditions());
+        assertEquals(WeatherConditions.CLEAR, target.weathers.get(1).getConditions());
+        assertEquals("Cortavientos", target.outfits.get(0).getTopItems().get(0));
+        assertEquals("Vaqueros", target.outfits.get(0).getBottomItems().get(0));
+    }
+
+    @Test
+    public void backupWithoutConditions_fallsBackToIcon() throws IOException {
+        RecordingTarget target = new RecordingTarget();
+
+        OutfitBackup.importFrom(new StringReader(backup(1)), target);
+
+        assertEquals(WeatherConditions.fromEmoji("🌧️"), target.weathers.get(0).getConditions());
+    }
+
+    @Test
+    public void ignoresUnknownLineTypesAndFields() throws IOException {
+        String text = backup(2).replace("\"summary\"", "\"nuevo\":{\"a\":[1]},\"summary\"")
+                + "{\"type\":\"stats\",\"values\":[1,2,3]}\n";
+        RecordingTarget target = new RecordingTarget();
+
+        assertEquals(2, OutfitBackup.importFrom(new StringReader(text), target));
+        assertEquals("Resumen 1", target.weathers.get(1).getSummary());
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsMissingHeader() throws IOException {
+        String text = backup(2);
+        OutfitBackup.importFrom(new StringReader(text.substring(text.indexOf('\n') + 1)), new RecordingTarget());
+    }
+
+    @Test
+    public void malformedLine_failsAfterEarlierOutfits() throws IOException {
+        String text = backup(3) + "{\"type\":\"outfit\",\"date\":\"no es una fecha\",\"city\":\"X\"}\n";
+        RecordingTarget target = new RecordingTarget();
+
+        try {
+            OutfitBackup.importFrom(new StringReader(text), target);
+            fail();
+        } catch (IOException expected) {
+            assertEquals(3, target.days.size());
+        }
+    }
+}
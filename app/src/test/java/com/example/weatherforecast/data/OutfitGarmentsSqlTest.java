@@ -0,0 +1,372 @@
+package com.example.weatherforecast.data;
+
+import com.example.weatherforecast.model.CurrentWeather;
+import com.example.weatherforecast.model.OutfitRecommendation;
+import com.example.weatherforecast.util.GsonProvider;
+import com.example.weatherforecast.util.WeatherConditions;
+import com.example.weatherforecast.util.WeatherIconMapper;
+import com.google.gson.Gson;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sqlite.SQLiteConnection;
+import org.sqlite.SQLiteLimits;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Prueba sobre SQLite en la JVM (sqlite-jdbc) la migración de la versión 3 (outfits en JSON) a las
+ * tablas de prendas de la 4, la columna conditions de la 5 y la carga de prendas de las consultas de outfits de DBHelper.
+ * La conexión limita los argumentos a 999, como SQLite antes de Android 12
+ */
+public class OutfitGarmentsSqlTest {
+    private static final int OLD_ANDROID_MAX_VARIABLES = 999;
+
+    private Connection connection;
+
+    @Before
+    public void open() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        connection.unwrap(SQLiteConnection.class)
+                .setLimit(SQLiteLimits.SQLITE_LIMIT_VARIABLE_NUMBER, OLD_ANDROID_MAX_VARIABLES);
+    }
+
+    @After
+    public void close() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    public void upgradeFromV3_keepsRowsAndGivesEachOutfitItsGarments() throws SQLException {
+        createV3Schema();
+        insertV3(connection, "ana", 19700, outfit("Camiseta", "Vaqueros", "Botas"), weather("Madrid", 8, "🌧️"));
+        insertV3(connection, "ana", 19701, outfit("Polo", "Chinos", "Mocasines", "Gafas de sol"),
+                weather("Sevilla", 27, "☀️"));
+        insertV3(connection, "luis", 19700, outfit("Jersey", "Vaqueros", "Botas", "Bufanda", "Gorro"),
+                weather("Lugo", 2, "❄️"));
+        // Fila que no se puede decodificar: la migración la descarta sin abortar
+        try (PreparedStatement insert = connection.prepareStatement(insertV3Sql())) {
+            insert.setString(1, "ana");
+            insert.setLong(2, 19702);
+            insert.setString(3, "Bilbao");
+            insert.setString(4, "{no es json");
+            insert.setString(5, "{}");
+            insert.executeUpdate();
+        }
+
+        migrateV3ToV4(connection);
+
+        assertEquals(3, OutfitSqlTest.countRows(connection));
+        assertFalse(tableExists(DBHelper.TABLE_SAVED_OUTFITS + "_json"));
+
+        Map<Long, List<List<String>>> garments = loadGarments(DBHelper.SQL_SELECT_OUTFITS_BETWEEN,
+                "ana", 0, Long.MAX_VALUE);
+        assertEquals(2, garments.size());
+        assertEquals(outfitGarments("Camiseta", "Vaqueros", "Botas"),
+                garments.get(OutfitSqlTest.selectOutfitId(connection, "ana", 19700)));
+        assertEquals(outfitGarments("Polo", "Chinos", "Mocasines", "Gafas de sol"),
+                garments.get(OutfitSqlTest.selectOutfitId(connection, "ana", 19701)));
+
+        garments = loadGarments(DBHelper.SQL_SELECT_OUTFIT_BY_DATE, "luis", 19700);
+        assertEquals(Collections.singletonList(outfitGarments("Jersey", "Vaqueros", "Botas", "Bufanda", "Gorro")),
+                new ArrayList<>(garments.values()));
+
+        // Los nombres repetidos se guardan una sola vez
+        assertEquals(10, count(DBHelper.TABLE_GARMENTS));
+
+        // El índice único de la versión 3 se ha vuelto a crear sobre la tabla nueva
+        OutfitSqlTest.saveWithUpsert(connection, "ana", 19700, OutfitSqlTest.outfitValues("Palma", 20));
+        assertEquals(3, OutfitSqlTest.countRows(connection));
+    }
+
+    @Test
+    public void upgradeFromV4_fillsConditionsFromConditionCode() throws SQLException {
+        createV4Schema();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE " + DBHelper.TABLE_SAVED_OUTFITS + " DROP COLUMN " + DBHelper.COLUMN_CONDITIONS);
+        }
+        String[] icons = {"☀️", "🌧️", "❄️", "⛈️", "🌫️", "☁️", "?"};
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + DBHelper.TABLE_SAVED_OUTFITS
+                + " (username, date, city, condition_code) VALUES ('ana', ?, 'Madrid', ?)")) {
+            for (int i = 0; i < icons.length; i++) {
+                insert.setLong(1, 19700 + i);
+                insert.setInt(2, WeatherIconMapper.getConditionCodeFromEmoji(icons[i]));
+                insert.executeUpdate();
+            }
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : DBHelper.addConditionsColumnSql()) {
+                statement.execute(sql);
+            }
+        }
+
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT date, conditions FROM "
+                     + DBHelper.TABLE_SAVED_OUTFITS + " ORDER BY date")) {
+            for (String icon : icons) {
+                assertTrue(result.next());
+                assertEquals(icon, WeatherConditions.fromEmoji(icon), result.getInt(2));
+            }
+            assertFalse(result.next());
+        }
+    }
+
+    @Test
+    public void rangeOverMaxVariables_returnsEveryOutfitWithItsGarments() throws SQLException {
+        createV4Schema();
+        int outfits = OLD_ANDROID_MAX_VARIABLES * 2 + 1;
+        for (int i = 0; i < outfits; i++) {
+            long outfitId = OutfitSqlTest.saveWithUpsert(connection, "ana", 19000 + i,
+                    OutfitSqlTest.outfitValues("Ciudad " + i, i % 30));
+            writeGarments(connection, outfitId, outfit("Camiseta " + i, "Vaqueros", "Botas " + (i % 7)));
+        }
+        // Otro usuario en las mismas fechas: no debe aparecer
+        long otherId = OutfitSqlTest.saveWithUpsert(connection, "luis", 19000, OutfitSqlTest.outfitValues("Lugo", 5));
+        writeGarments(connection, otherId, outfit("Jersey", "Pana", "Botas"));
+
+        List<Long> ids = selectIds(DBHelper.SQL_SELECT_OUTFITS_BETWEEN, "ana", 19000, 19000 + outfits - 1);
+        assertEquals(outfits, ids.size());
+
+        Map<Long, List<List<String>>> garments = loadGarments(DBHelper.SQL_SELECT_OUTFITS_BETWEEN,
+                "ana", 19000, 19000 + outfits - 1);
+        assertEquals(outfits, garments.size());
+        for (int i = 0; i < outfits; i++) {
+            assertEquals(outfitGarments("Camiseta " + i, "Vaqueros", "Botas " + (i % 7)), garments.get(ids.get(i)));
+        }
+        assertFalse(garments.containsKey(otherId));
+    }
+
+    @Test
+    public void pagedQuery_loadsGarmentsOfThatPageOnly() throws SQLException {
+        createV4Schema();
+        for (int i = 0; i < 100; i++) {
+            long outfitId = OutfitSqlTest.saveWithUpsert(connection, "ana", 19000 + i,
+                    OutfitSqlTest.outfitValues("Ciudad " + i, 15));
+            writeGarments(connection, outfitId, outfit("Camiseta " + i, "Vaqueros", "Botas"));
+        }
+
+        List<Long> page = selectIds(DBHelper.SQL_SELECT_OUTFITS_BEFORE, "ana", 19050, 30);
+        Map<Long, List<List<String>>> garments = loadGarments(DBHelper.SQL_SELECT_OUTFITS_BEFORE, "ana", 19050, 30);
+
+        assertEquals(30, page.size());
+        assertEquals(new HashSet<>(page), garments.keySet());
+        assertEquals(outfitGarments("Camiseta 49", "Vaqueros", "Botas"), garments.get(page.get(0)));
+        assertEquals(outfitGarments("Camiseta 20", "Vaqueros", "Botas"), garments.get(page.get(29)));
+    }
+
+    // ---- Esquemas ----
+
+    private void createV3Schema() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(DBHelper.createLegacyOutfitsTableSql(DBHelper.TABLE_SAVED_OUTFITS));
+            statement.execute(DBHelper.SQL_CREATE_SAVED_OUTFITS_INDEX);
+        }
+    }
+
+    private void createV4Schema() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : DBHelper.outfitTablesSql()) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    private static String insertV3Sql() {
+        return "INSERT INTO " + DBHelper.TABLE_SAVED_OUTFITS + " (" + DBHelper.COLUMN_USERNAME + ", " +
+                DBHelper.COLUMN_DATE + ", " + DBHelper.COLUMN_CITY + ", outfit_json, weather_json) VALUES (?, ?, ?, ?, ?)";
+    }
+
+    private static void insertV3(Connection connection, String username, long epochDay,
+                                 OutfitRecommendation outfit, CurrentWeather weather) throws SQLException {
+        Gson gson = GsonProvider.get();
+        try (PreparedStatement insert = connection.prepareStatement(insertV3Sql())) {
+            insert.setString(1, username);
+            insert.setLong(2, epochDay);
+            insert.setString(3, weather.getLocation());
+            insert.setString(4, gson.toJson(outfit));
+            insert.setString(5, gson.toJson(weather));
+            insert.executeUpdate();
+        }
+    }
+
+    // Misma secuencia que DBHelper.migrateOutfitsToColumns
+    private static void migrateV3ToV4(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : DBHelper.prepareColumnsMigrationSql()) {
+                statement.execute(sql);
+            }
+        }
+
+        Gson gson = GsonProvider.get();
+        try (Statement statement = connection.createStatement();
+             ResultSet legacy = statement.executeQuery(DBHelper.SQL_SELECT_LEGACY_OUTFITS)) {
+            while (legacy.next()) {
+                OutfitRecommendation outfit;
+                CurrentWeather weather;
+                try {
+                    outfit = gson.fromJson(legacy.getString(3), OutfitRecommendation.class);
+                    weather = gson.fromJson(legacy.getString(4), CurrentWeather.class);
+                } catch (RuntimeException e) {
+                    continue;
+                }
+
+                try (PreparedStatement insert = connection.prepareStatement(DBHelper.SQL_INSERT_OUTFIT,
+                        Statement.RETURN_GENERATED_KEYS)) {
+                    insert.setString(1, legacy.getString(1));
+                    insert.setLong(2, legacy.getLong(2));
+                    OutfitSqlTest.bindValues(insert, 3, outfitValues(outfit, weather));
+                    insert.executeUpdate();
+                    try (ResultSet keys = insert.getGeneratedKeys()) {
+                        assertTrue(keys.next());
+                        writeGarments(connection, keys.getLong(1), outfit);
+                    }
+                }
+            }
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(DBHelper.SQL_DROP_LEGACY_OUTFITS);
+        }
+    }
+
+    // Mismos valores que DBHelper.bindOutfitValues
+    private static Object[] outfitValues(OutfitRecommendation outfit, CurrentWeather weather) {
+        return new Object[]{weather.getLocation(), outfit.getStyle().name(), weather.getCountry(),
+                weather.getTemperature(), weather.getMaxTemperature(), weather.getMinTemperature(),
+                weather.getHumidity(), weather.getWeatherCondition(),
+                WeatherIconMapper.getConditionCodeFromEmoji(weather.getWeatherIcon()),
+                DBHelper.conditionsOf(weather), weather.getWeatherIcon(), weather.getSummary()};
+    }
+
+    // Misma secuencia que DBHelper.writeOutfitGarments
+    static void writeGarments(Connection connection, long outfitId, OutfitRecommendation outfit)
+            throws SQLException {
+        List<List<String>> categories = Arrays.asList(outfit.getTopItems(), outfit.getBottomItems(),
+                outfit.getFootwear(), outfit.getOuterWear(), outfit.getAccessories());
+        try (PreparedStatement insertGarment = connection.prepareStatement(DBHelper.SQL_INSERT_GARMENT);
+             PreparedStatement selectGarment = connection.prepareStatement(DBHelper.SQL_SELECT_GARMENT_ID);
+             PreparedStatement insertOutfitGarment = connection.prepareStatement(DBHelper.SQL_INSERT_OUTFIT_GARMENT)) {
+            for (int category = 0; category < DBHelper.CATEGORY_COUNT; category++) {
+                List<String> garments = categories.get(category);
+                for (int position = 0; position < garments.size(); position++) {
+                    insertGarment.setString(1, garments.get(position));
+                    insertGarment.executeUpdate();
+                    selectGarment.setString(1, garments.get(position));
+                    long garmentId;
+                    try (ResultSet result = selectGarment.executeQuery()) {
+                        assertTrue(result.next());
+                        garmentId = result.getLong(1);
+                    }
+
+                    insertOutfitGarment.setLong(1, outfitId);
+                    insertOutfitGarment.setLong(2, garmentId);
+                    insertOutfitGarment.setInt(3, category);
+                    insertOutfitGarment.setInt(4, position);
+                    insertOutfitGarment.executeUpdate();
+                }
+            }
+        }
+    }
+
+    // ---- Lecturas ----
+
+    private List<Long> selectIds(String outfitQuery, Object... args) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (PreparedStatement select = connection.prepareStatement(outfitQuery)) {
+            bindArgs(select, args);
+            try (ResultSet result = select.executeQuery()) {
+                while (result.next()) {
+                    ids.add(result.getLong(DBHelper.COLUMN_ID));
+                }
+            }
+        }
+        return ids;
+    }
+
+    // Misma agrupación que DBHelper.queryGarments, con la consulta de garmentsForOutfitsSql
+    private Map<Long, List<List<String>>> loadGarments(String outfitQuery, Object... args) throws SQLException {
+        Map<Long, List<List<String>>> result = new HashMap<>();
+        try (PreparedStatement select = connection.prepareStatement(DBHelper.garmentsForOutfitsSql(outfitQuery))) {
+            // Los argumentos de la consulta de outfits y ninguno más, sea cual sea el rango
+            assertEquals(args.length, select.getParameterMetaData().getParameterCount());
+            bindArgs(select, args);
+            try (ResultSet rows = select.executeQuery()) {
+                while (rows.next()) {
+                    List<List<String>> categories = result.get(rows.getLong(1));
+                    if (categories == null) {
+                        categories = outfitGarments();
+                        result.put(rows.getLong(1), categories);
+                    }
+                    categories.get(rows.getInt(2)).add(rows.getString(3));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void bindArgs(PreparedStatement statement, Object[] args) throws SQLException {
+        for (int i = 0; i < args.length; i++) {
+            statement.setObject(i + 1, args[i]);
+        }
+    }
+
+    private int count(String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            result.next();
+            return result.getInt(1);
+        }
+    }
+
+    private boolean tableExists(String table) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?")) {
+            select.setString(1, table);
+            try (ResultSet result = select.executeQuery()) {
+                return result.next();
+            }
+        }
+    }
+
+    // ---- Datos de prueba ----
+
+    // Outfit con una prenda de arriba, una de abajo, un calzado y el resto como accesorios
+    private static OutfitRecommendation outfit(String top, String bottom, String shoes, String... accessories) {
+        return new OutfitRecommendation(Collections.singletonList(top), Collections.singletonList(bottom),
+                Collections.singletonList(shoes), Collections.<String>emptyList(), Arrays.asList(accessories),
+                OutfitRecommendation.Style.CASUAL);
+    }
+
+    // Prendas por categoría (en el orden CATEGORY_*) que debe tener el outfit anterior
+    private static List<List<String>> outfitGarments(String... garments) {
+        List<List<String>> categories = new ArrayList<>();
+        for (int i = 0; i < DBHelper.CATEGORY_COUNT; i++) {
+            categories.add(new ArrayList<>());
+        }
+        for (int i = 0; i < garments.length; i++) {
+            categories.get(i <= DBHelper.CATEGORY_FOOTWEAR ? i : DBHelper.CATEGORY_ACCESSORIES).add(garments[i]);
+        }
+        return categories;
+    }
+
+    private static CurrentWeather weather(String city, double temperature, String icon) {
+        return new CurrentWeather(city, "ES", temperature, temperature + 3, temperature - 3,
+                "descripción", icon, "Resumen", 60, 0);
+    }
+}
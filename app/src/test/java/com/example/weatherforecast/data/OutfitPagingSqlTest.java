@@ -0,0 +1,159 @@
+package com.example.weatherforecast.data;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Prueba sobre SQLite en la JVM (sqlite-jdbc) el historial paginado por fecha de DBHelper
+ * (SQL_SELECT_OUTFITS_BEFORE y SQL_SELECT_OUTFITS_AFTER), recorriéndolo como AppDatabase
+ */
+public class OutfitPagingSqlTest {
+    private static final int PAGE_SIZE = 10;
+
+    private Connection connection;
+
+    @Before
+    public void createSchema() throws SQLException {
+        connection = OutfitSqlTest.openSchema();
+    }
+
+    @After
+    public void close() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    public void walkBackward_visitsEveryOutfitOnceNewestFirst() throws SQLException {
+        List<Long> days = saveDays("ana", 19000, 25, 3); // Con huecos: un día de cada tres sin outfit
+        saveDays("luis", 19000, 25, 1);                   // Otro usuario en las mismas fechas
+
+        List<List<Long>> pages = walkBackward("ana", Long.MAX_VALUE);
+
+        assertEquals(3, pages.size());
+        assertEquals(PAGE_SIZE, pages.get(0).size());
+        assertEquals(PAGE_SIZE, pages.get(1).size());
+        assertEquals(days.size() - 2 * PAGE_SIZE, pages.get(2).size()); // Última página incompleta
+
+        Collections.reverse(days);
+        assertEquals(days, concat(pages));
+    }
+
+    @Test
+    public void pageBoundary_excludesCursorDayAndEndsWithEmptyPage() throws SQLException {
+        saveDays("ana", 19000, 2 * PAGE_SIZE, 1);
+
+        List<Long> page = selectDays(DBHelper.SQL_SELECT_OUTFITS_BEFORE, "ana", 19010, PAGE_SIZE);
+        assertEquals(PAGE_SIZE, page.size());
+        assertEquals(19009, (long) page.get(0));
+        assertEquals(19000, (long) page.get(PAGE_SIZE - 1));
+
+        // Un número exacto de páginas: la siguiente ya está vacía
+        assertTrue(selectDays(DBHelper.SQL_SELECT_OUTFITS_BEFORE, "ana", 19000, PAGE_SIZE).isEmpty());
+
+        page = selectDays(DBHelper.SQL_SELECT_OUTFITS_AFTER, "ana", 19009, PAGE_SIZE);
+        assertEquals(PAGE_SIZE, page.size());
+        assertEquals(19010, (long) page.get(0));
+        assertTrue(selectDays(DBHelper.SQL_SELECT_OUTFITS_AFTER, "ana", 19019, PAGE_SIZE).isEmpty());
+    }
+
+    @Test
+    public void sameDate_isOneOutfitPerUserAndPagesDoNotMixUsers() throws SQLException {
+        saveDays("ana", 19000, 12, 1);
+        saveDays("luis", 19000, 12, 1);
+        saveDays("eva", 19005, 1, 1);
+        // Guardar otra vez el mismo día sustituye el outfit: no hay dos filas con la misma fecha
+        OutfitSqlTest.saveWithUpsert(connection, "ana", 19011, OutfitSqlTest.outfitValues("Otra", 8));
+
+        List<Long> first = selectDays(DBHelper.SQL_SELECT_OUTFITS_BEFORE, "ana", Long.MAX_VALUE, PAGE_SIZE);
+        List<Long> last = selectDays(DBHelper.SQL_SELECT_OUTFITS_BEFORE, "ana", first.get(PAGE_SIZE - 1), PAGE_SIZE);
+
+        assertEquals(Long.valueOf(19011), first.get(0));
+        assertEquals(PAGE_SIZE, first.size());
+        assertEquals(Arrays.asList(19001L, 19000L), last);
+    }
+
+    @Test
+    public void walkForward_matchesBackwardPagesInSameOrder() throws SQLException {
+        List<Long> days = saveDays("ana", 19000, 23, 2);
+        saveDays("luis", 19000, 23, 1);
+        List<Long> newestFirst = new ArrayList<>(days);
+        Collections.reverse(newestFirst);
+
+        // Desde el más antiguo hacia el más reciente, cada página invertida como en getOutfitHistoryAfter
+        List<List<Long>> pages = new ArrayList<>();
+        long after = Long.MIN_VALUE;
+        while (true) {
+            List<Long> page = selectDays(DBHelper.SQL_SELECT_OUTFITS_AFTER, "ana", after, PAGE_SIZE);
+            if (page.isEmpty()) {
+                break;
+            }
+            after = page.get(page.size() - 1);
+            Collections.reverse(page);
+            pages.add(0, page);
+        }
+
+        assertEquals(3, pages.size());
+        assertEquals(days.size() - 2 * PAGE_SIZE, pages.get(0).size()); // La página más reciente es la incompleta
+        assertEquals(newestFirst, concat(pages));
+    }
+
+    // Guarda count outfits desde firstDay, uno cada step días. Devuelve las fechas en orden
+    private List<Long> saveDays(String username, long firstDay, int count, int step) throws SQLException {
+        List<Long> days = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long day = firstDay + (long) i * step;
+            OutfitSqlTest.saveWithUpsert(connection, username, day, OutfitSqlTest.outfitValues("Ciudad " + i, 15));
+            days.add(day);
+        }
+        return days;
+    }
+
+    // Páginas hacia atrás desde before hasta la primera vacía, como OutfitHistoryActivity con AppDatabase
+    private List<List<Long>> walkBackward(String username, long before) throws SQLException {
+        List<List<Long>> pages = new ArrayList<>();
+        while (true) {
+            List<Long> page = selectDays(DBHelper.SQL_SELECT_OUTFITS_BEFORE, username, before, PAGE_SIZE);
+            if (page.isEmpty()) {
+                return pages;
+            }
+            pages.add(page);
+            before = page.get(page.size() - 1);
+        }
+    }
+
+    // Los argumentos van como texto, igual que en DBHelper.queryOutfits (rawQuery)
+    private List<Long> selectDays(String query, String username, long epochDay, int limit) throws SQLException {
+        List<Long> days = new ArrayList<>();
+        try (PreparedStatement select = connection.prepareStatement(query)) {
+            select.setString(1, username);
+            select.setString(2, String.valueOf(epochDay));
+            select.setString(3, String.valueOf(limit));
+            try (ResultSet result = select.executeQuery()) {
+                while (result.next()) {
+                    days.add(result.getLong(DBHelper.COLUMN_DATE));
+                }
+            }
+        }
+        return days;
+    }
+
+    private static List<Long> concat(List<List<Long>> pages) {
+        List<Long> all = new ArrayList<>();
+        for (List<Long> page : pages) {
+            all.addAll(page);
+        }
+        return all;
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.weatherforecast.data;
+
+import com.example.weatherforecast.util.WeatherConditions;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.Assert.*;
+
+/**
+ * Ejecuta las sentencias de outfits de DBHelper sobre SQLite en la JVM (sqlite-jdbc), sin Android.
+ * Prueba las dos ramas de writeOutfit: el upsert con ON CONFLICT (Android 11+) y la alternativa
+ * UPDATE y, si no actualiza nada, INSERT
+ */
+public class OutfitSqlTest {
+    private Connection connection;
+
+    @Before
+    public void createSchema() throws SQLException {
+        connection = openSchema();
+    }
+
+    @After
+    public void close() throws SQLException {
+        connection.close();
+    }
+
+    // Base de datos en memoria con las tablas de outfits de la versión actual
+    static Connection openSchema() throws SQLException {
+        Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : DBHelper.outfitTablesSql()) {
+                statement.execute(sql);
+            }
+        }
+        return connection;
+    }
+
+    // Valores de OUTFIT_VALUE_COLUMNS para un outfit de prueba
+    static Object[] outfitValues(String city, double temperature) {
+        return new Object[]{city, "CASUAL", "ES", temperature, temperature + 3, temperature - 3,
+                55, "cielo claro", 1, WeatherConditions.CLEAR, "☀️", "Soleado"};
+    }
+
+    // Misma secuencia que DBHelper.writeOutfit con SUPPORTS_UPSERT
+    static long saveWithUpsert(Connection connection, String username, long epochDay, Object[] values)
+            throws SQLException {
+        try (PreparedStatement upsert = connection.prepareStatement(DBHelper.SQL_UPSERT_OUTFIT)) {
+            upsert.setString(1, username);
+            upsert.setLong(2, epochDay);
+            bindValues(upsert, 3, values);
+            upsert.executeUpdate();
+        }
+        return selectOutfitId(connection, username, epochDay);
+    }
+
+    // Misma secuencia que DBHelper.writeOutfit sin SUPPORTS_UPSERT
+    static long saveWithUpdateThenInsert(Connection connection, String username, long epochDay,
+                                         Object[] values) throws SQLException {
+        int updated;
+        try (PreparedStatement update = connection.prepareStatement(DBHelper.SQL_UPDATE_OUTFIT)) {
+            int next = bindValues(update, 1, values);
+            update.setString(next, username);
+            update.setLong(next + 1, epochDay);
+            updated = update.executeUpdate();
+        }
+        if (updated == 0) {
+            try (PreparedStatement insert = connection.prepareStatement(DBHelper.SQL_INSERT_OUTFIT)) {
+                insert.setString(1, username);
+                insert.setLong(2, epochDay);
+                bindValues(insert, 3, values);
+                insert.executeUpdate();
+            }
+        }
+        return selectOutfitId(connection, username, epochDay);
+    }
+
+    static long selectOutfitId(Connection connection, String username, long epochDay) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(DBHelper.SQL_SELECT_OUTFIT_ID)) {
+            select.setString(1, username);
+            select.setLong(2, epochDay);
+            try (ResultSet result = select.executeQuery()) {
+                assertTrue(result.next());
+                return result.getLong(1);
+            }
+        }
+    }
+
+    static int bindValues(PreparedStatement statement, int first, Object[] values) throws SQLException {
+        assertEquals(DBHelper.OUTFIT_VALUE_COLUMNS.length, values.length);
+        for (Object value : values) {
+            statement.setObject(first++, value);
+        }
+        return first;
+    }
+
+    @Test
+    public void upsert_insertsThenUpdatesSameRow() throws SQLException {
+        long id = saveWithUpsert(connection, "ana", 19700, outfitValues("Madrid", 12));
+        long again = saveWithUpsert(connection, "ana", 19700, outfitValues("Lugo", 4));
+
+        assertEquals(id, again);
+        assertEquals(1, countRows());
+        assertRow("ana", 19700, "Lugo", 4);
+    }
+
+    @Test
+    public void updateThenInsert_insertsThenUpdatesSameRow() throws SQLException {
+        long id = saveWithUpdateThenInsert(connection, "ana", 19700, outfitValues("Madrid", 12));
+        long again = saveWithUpdateThenInsert(connection, "ana", 19700, outfitValues("Lugo", 4));
+
+        assertEquals(id, again);
+        assertEquals(1, countRows());
+        assertRow("ana", 19700, "Lugo", 4);
+    }
+
+    @Test
+    public void bothBranches_leaveSameTable() throws SQLException {
+        try (Connection fallback = openSchema()) {
+            // Mezcla de días nuevos y repetidos para dos usuarios
+            for (int i = 0; i < 300; i++) {
+                String username = i % 2 == 0 ? "ana" : "luis";
+                long epochDay = 19700 + (i * 7) % 90;
+                Object[] values = outfitValues("Ciudad " + i, i % 40 - 5);
+                assertEquals(saveWithUpsert(connection, username, epochDay, values),
+                        saveWithUpdateThenInsert(fallback, username, epochDay, values));
+            }
+
+            assertEquals(dump(connection), dump(fallback));
+            assertEquals(countRows(connection), countRows(fallback));
+            assertEquals(90, countRows(connection)); // 45 días distintos por usuario
+        }
+    }
+
+    @Test
+    public void otherUsersAndDays_areNotTouched() throws SQLException {
+        saveWithUpsert(connection, "ana", 19700, outfitValues("Madrid", 12));
+        saveWithUpsert(connection, "luis", 19700, outfitValues("Bilbao", 9));
+        saveWithUpdateThenInsert(connection, "ana", 19701, outfitValues("Sevilla", 25));
+
+        saveWithUpsert(connection, "ana", 19700, outfitValues("Palma", 20));
+        saveWithUpdateThenInsert(connection, "luis", 19700, outfitValues("Vigo", 11));
+
+        assertEquals(3, countRows());
+        assertRow("ana", 19700, "Palma", 20);
+        assertRow("luis", 19700, "Vigo", 11);
+        assertRow("ana", 19701, "Sevilla", 25);
+    }
+
+    @Test(expected = SQLException.class)
+    public void uniqueIndex_rejectsDuplicatePlainInsert() throws SQLException {
+        saveWithUpsert(connection, "ana", 19700, outfitValues("Madrid", 12));
+        try (PreparedStatement insert = connection.prepareStatement(DBHelper.SQL_INSERT_OUTFIT)) {
+            insert.setString(1, "ana");
+            insert.setLong(2, 19700);
+            bindValues(insert, 3, outfitValues("Lugo", 4));
+            insert.executeUpdate();
+        }
+    }
+
+    private int countRows() throws SQLException {
+        return countRows(connection);
+    }
+
+    static int countRows(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT COUNT(*) FROM " + DBHelper.TABLE_SAVED_OUTFITS)) {
+            result.next();
+            return result.getInt(1);
+        }
+    }
+
+    private void assertRow(String username, long epochDay, String city, double temperature) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement("SELECT " + DBHelper.COLUMN_CITY + ", " +
+                DBHelper.COLUMN_TEMPERATURE + ", " + DBHelper.COLUMN_MAX_TEMPERATURE + " FROM " +
+                DBHelper.TABLE_SAVED_OUTFITS + " WHERE " + DBHelper.COLUMN_USERNAME + " = ? AND " +
+                DBHelper.COLUMN_DATE + " = ?")) {
+            select.setString(1, username);
+            select.setLong(2, epochDay);
+            try (ResultSet result = select.executeQuery()) {
+                assertTrue(result.next());
+                assertEquals(city, result.getString(1));
+                assertEquals(temperature, result.getDouble(2), 0.0);
+                assertEquals(temperature + 3, result.getDouble(3), 0.0);
+                assertFalse(result.next());
+            }
+        }
+    }
+
+    private static String dump(Connection connection) throws SQLException {
+        StringBuilder rows = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT * FROM " + DBHelper.TABLE_SAVED_OUTFITS +
+                     " ORDER BY " + DBHelper.COLUMN_ID)) {
+            int columns = result.getMetaData().getColumnCount();
+            while (result.next()) {
+                for (int i = 1; i <= columns; i++) {
+                    rows.append(result.getString(i)).append('|');
+                }
+                rows.append('\n');
+            }
+        }
+        return rows.toString();
+    }
+}
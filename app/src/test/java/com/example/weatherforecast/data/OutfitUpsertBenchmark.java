@@ -0,0 +1,144 @@
+package com.example.weatherforecast.data;
+
+import com.example.weatherforecast.Benchmarks;
+
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.Assert.*;
+
+/**
+ * Mide el guardado de un outfit en una tabla con 100.000 filas (100 usuarios x 1000 días):
+ * el camino anterior (SELECT sin índice y después UPDATE o INSERT) frente al upsert y al
+ * UPDATE-then-INSERT actuales sobre el índice único (username, date).
+ * Cada guardado es una transacción, como en saveOutfit. Imprime los tiempos
+ */
+public class OutfitUpsertBenchmark {
+    private static final int USERS = 100;
+    private static final int DAYS = 1000;
+    private static final long FIRST_DAY = 19000;
+
+    @Test
+    public void save_on100kRows() throws Exception {
+        try (Connection legacy = populated(false);
+             Connection upsert = populated(true);
+             Connection fallback = populated(true)) {
+            assertEquals(USERS * DAYS, OutfitSqlTest.countRows(upsert));
+
+            Benchmarks.measure("SELECT sin índice + UPDATE/INSERT", 20, 100,
+                    new Saver(legacy, Mode.LEGACY));
+            Benchmarks.measure("upsert ON CONFLICT", 2_000, 5_000,
+                    new Saver(upsert, Mode.UPSERT));
+            Benchmarks.measure("UPDATE y, si no hay fila, INSERT", 2_000, 5_000,
+                    new Saver(fallback, Mode.UPDATE_THEN_INSERT));
+
+            // Cada día repetido se sobrescribe: como mucho una fila por usuario y día
+            try (Statement statement = upsert.createStatement();
+                 ResultSet result = statement.executeQuery("SELECT COUNT(*) FROM (SELECT 1 FROM " +
+                         DBHelper.TABLE_SAVED_OUTFITS + " GROUP BY " + DBHelper.COLUMN_USERNAME + ", " +
+                         DBHelper.COLUMN_DATE + " HAVING COUNT(*) > 1)")) {
+                result.next();
+                assertEquals(0, result.getInt(1));
+            }
+        }
+    }
+
+    private enum Mode { LEGACY, UPSERT, UPDATE_THEN_INSERT }
+
+    // Guarda outfits alternando días existentes y días nuevos
+    private static final class Saver implements Benchmarks.Task {
+        private final Connection connection;
+        private final Mode mode;
+        private int next;
+
+        Saver(Connection connection, Mode mode) {
+            this.connection = connection;
+            this.mode = mode;
+        }
+
+        @Override
+        public long run() throws SQLException {
+            int i = next++;
+            String username = "usuario" + (i % USERS);
+            long epochDay = i % 2 == 0 ? FIRST_DAY + (i * 31L) % DAYS : FIRST_DAY + DAYS + i;
+            Object[] values = OutfitSqlTest.outfitValues("Ciudad " + i, i % 35);
+
+            connection.setAutoCommit(false);
+            long id;
+            switch (mode) {
+                case LEGACY:
+                    id = legacySave(connection, username, epochDay, values);
+                    break;
+                case UPSERT:
+                    id = OutfitSqlTest.saveWithUpsert(connection, username, epochDay, values);
+                    break;
+                default:
+                    id = OutfitSqlTest.saveWithUpdateThenInsert(connection, username, epochDay, values);
+            }
+            connection.commit();
+            connection.setAutoCommit(true);
+            return id;
+        }
+    }
+
+    // Tabla con 100.000 outfits. Sin índice único reproduce el esquema anterior
+    private static Connection populated(boolean uniqueIndex) throws SQLException {
+        Connection connection = OutfitSqlTest.openSchema();
+        if (!uniqueIndex) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP INDEX idx_saved_outfits_user_date");
+            }
+        }
+
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(DBHelper.SQL_INSERT_OUTFIT)) {
+            for (int user = 0; user < USERS; user++) {
+                for (int day = 0; day < DAYS; day++) {
+                    insert.setString(1, "usuario" + user);
+                    insert.setLong(2, FIRST_DAY + day);
+                    OutfitSqlTest.bindValues(insert, 3, OutfitSqlTest.outfitValues("Ciudad", day % 35));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        return connection;
+    }
+
+    // Versión anterior de saveOutfit: SELECT por (usuario, fecha) sin índice y después
+    // UPDATE si existe o INSERT si no
+    private static long legacySave(Connection connection, String username, long epochDay, Object[] values)
+            throws SQLException {
+        boolean exists;
+        try (PreparedStatement select = connection.prepareStatement("SELECT * FROM " +
+                DBHelper.TABLE_SAVED_OUTFITS + " WHERE " + DBHelper.COLUMN_USERNAME + " = ? AND " +
+                DBHelper.COLUMN_DATE + " = ?")) {
+            select.setString(1, username);
+            select.setLong(2, epochDay);
+            try (ResultSet result = select.executeQuery()) {
+                exists = result.next();
+            }
+        }
+
+        String sql = exists ? DBHelper.SQL_UPDATE_OUTFIT : DBHelper.SQL_INSERT_OUTFIT;
+        try (PreparedStatement write = connection.prepareStatement(sql)) {
+            if (exists) {
+                int next = OutfitSqlTest.bindValues(write, 1, values);
+                write.setString(next, username);
+                write.setLong(next + 1, epochDay);
+            } else {
+                write.setString(1, username);
+                write.setLong(2, epochDay);
+                OutfitSqlTest.bindValues(write, 3, values);
+            }
+            return write.executeUpdate();
+        }
+    }
+}
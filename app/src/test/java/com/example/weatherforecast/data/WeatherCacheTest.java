@@ -0,0 +1,40 @@
+package com.example.weatherforecast.data;
+
+import com.example.weatherforecast.util.LocationKey;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests del nombre de fichero de cada ciudad en WeatherCache
+ */
+public class WeatherCacheTest {
+
+    @Test
+    public void fileName_differsForKeysWithSameHashCode() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        assertNotEquals(WeatherCache.fileName("Aa"), WeatherCache.fileName("BB"));
+    }
+
+    @Test
+    public void fileName_isStableHexSha1() {
+        // SHA-1("abc") de la FIPS 180
+        assertEquals("a9993e364706816aba3e25717850c26c9cd0d89d.bin", WeatherCache.fileName("abc"));
+        assertEquals(WeatherCache.fileName(LocationKey.canonical("Madrid")),
+                WeatherCache.fileName(LocationKey.canonical("Madrid")));
+    }
+
+    @Test
+    public void fileName_isUniqueAcrossManyCities() {
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < 50_000; i++) {
+            String name = WeatherCache.fileName("ciudad " + i);
+            assertEquals(44, name.length());
+            assertTrue(names.add(name));
+        }
+    }
+}
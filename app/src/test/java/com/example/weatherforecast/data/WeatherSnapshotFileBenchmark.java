@@ -0,0 +1,50 @@
+package com.example.weatherforecast.data;
+
+import com.example.weatherforecast.Benchmarks;
+import com.google.gson.Gson;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compara el tamaño y el tiempo de codificar y decodificar una ciudad con WeatherSnapshotFile
+ * frente a guardarla como JSON con Gson (el formato anterior de la caché).
+ * Imprime los resultados; solo comprueba que ambos formatos devuelven los mismos datos
+ */
+public class WeatherSnapshotFileBenchmark {
+    private static final String KEY = "palma de mallorca";
+    private static final int ROUNDS = 3;
+    private static final int ITERATIONS = 5_000;
+
+    @Test
+    public void binaryVsJson() throws Exception {
+        final CachedCity city = WeatherSnapshotFileTest.sampleCity(24, 7);
+        final Gson gson = new Gson();
+
+        final byte[] json = gson.toJson(city).getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer binary = WeatherSnapshotFile.encode(KEY, city);
+        System.out.println("Tamaño JSON:    " + json.length + " bytes");
+        System.out.println("Tamaño binario: " + binary.remaining() + " bytes");
+        assertTrue(binary.remaining() < json.length);
+
+        WeatherSnapshotFileTest.assertCityEquals(city, WeatherSnapshotFile.decode(binary.duplicate(), KEY));
+        WeatherSnapshotFileTest.assertCityEquals(city,
+                gson.fromJson(new String(json, StandardCharsets.UTF_8), CachedCity.class));
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            Benchmarks.measure("codificar JSON #" + round, ITERATIONS, ITERATIONS,
+                    () -> gson.toJson(city).getBytes(StandardCharsets.UTF_8).length);
+            Benchmarks.measure("codificar binario #" + round, ITERATIONS, ITERATIONS,
+                    () -> WeatherSnapshotFile.encode(KEY, city).remaining());
+            Benchmarks.measure("decodificar JSON #" + round, ITERATIONS, ITERATIONS,
+                    () -> gson.fromJson(new String(json, StandardCharsets.UTF_8), CachedCity.class)
+                            .hourlyForecast.size());
+            Benchmarks.measure("decodificar binario #" + round, ITERATIONS, ITERATIONS,
+                    () -> WeatherSnapshotFile.decode(binary.duplicate(), KEY).hourlyForecast.size());
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.weatherforecast.data;
+
+import com.example.weatherforecast.model.CurrentWeather;
+import com.example.weatherforecast.model.ForecastSeries;
+import com.example.weatherforecast.util.WeatherConditions;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests del formato binario de WeatherSnapshotFile: ida y vuelta, ficheros truncados o
+ * dañados, textos largos y rechazo de la versión 1
+ */
+public class WeatherSnapshotFileTest {
+    private static final String KEY = "palma de mallorca";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    static CachedCity sampleCity(int hours, int days) {
+        CurrentWeather weather = new CurrentWeather("Palma de Mallorca", "ES", 22.5, 25.0, 18.5,
+                "cielo claro", "☀️", "Día soleado con algunas nubes", 65,
+                WeatherConditions.CLEAR | WeatherConditions.WIND);
+
+        long[] hourEpochs = new long[hours];
+        float[] hourTemps = new float[hours];
+        byte[] hourConditions = new byte[hours];
+        for (int i = 0; i < hours; i++) {
+            hourEpochs[i] = 1700006400000L + i * 3600000L;
+            hourTemps[i] = 15.5f + i * 0.25f;
+            hourConditions[i] = (byte) (i % 13);
+        }
+
+        long[] dayEpochs = new long[days];
+        float[] minTemps = new float[days];
+        float[] maxTemps = new float[days];
+        byte[] dayConditions = new byte[days];
+        for (int i = 0; i < days; i++) {
+            dayEpochs[i] = 1700006400000L + i * 86400000L;
+            minTemps[i] = 10 - i;
+            maxTemps[i] = 20 + i;
+            dayConditions[i] = (byte) (i % 13);
+        }
+
+        return new CachedCity(weather, 1000L,
+                ForecastSeries.hourly(hourEpochs, hourTemps, hourConditions), 2000L,
+                ForecastSeries.daily(dayEpochs, minTemps, maxTemps, dayConditions), 3000L);
+    }
+
+    static void assertCityEquals(CachedCity expected, CachedCity actual) {
+        assertNotNull(actual);
+        assertEquals(expected.currentWeather, actual.currentWeather);
+        assertEquals(expected.currentWeatherSavedAt, actual.currentWeatherSavedAt);
+        assertEquals(expected.hourlyForecast, actual.hourlyForecast);
+        assertEquals(expected.hourlyForecastSavedAt, actual.hourlyForecastSavedAt);
+        assertEquals(expected.dailyForecast, actual.dailyForecast);
+        assertEquals(expected.dailyForecastSavedAt, actual.dailyForecastSavedAt);
+    }
+
+    @Test
+    public void encodeDecode_roundTrips() {
+        CachedCity city = sampleCity(24, 7);
+
+        CachedCity decoded = WeatherSnapshotFile.decode(WeatherSnapshotFile.encode(KEY, city), KEY);
+
+        assertCityEquals(city, decoded);
+        assertEquals(WeatherConditions.CLEAR | WeatherConditions.WIND, decoded.currentWeather.getConditions());
+    }
+
+    @Test
+    public void encodeDecode_keepsMissingSectionsAndNullTexts() {
+        CurrentWeather weather = new CurrentWeather(null, null, -3.25, 0, -8, null, null, null, 0,
+                WeatherConditions.NONE);
+        CachedCity onlyWeather = new CachedCity(weather, 5L, null, 0, null, 0);
+
+        CachedCity decoded = WeatherSnapshotFile.decode(WeatherSnapshotFile.encode(KEY, onlyWeather), KEY);
+
+        assertCityEquals(onlyWeather, decoded);
+        assertCityEquals(CachedCity.EMPTY,
+                WeatherSnapshotFile.decode(WeatherSnapshotFile.encode(KEY, CachedCity.EMPTY), KEY));
+    }
+
+    @Test
+    public void writeRead_roundTripsThroughFile() throws Exception {
+        File file = new File(folder.getRoot(), "cache/city.bin");
+        CachedCity city = sampleCity(24, 7);
+
+        WeatherSnapshotFile.write(file, KEY, city);
+
+        assertCityEquals(city, WeatherSnapshotFile.read(file, KEY));
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+        assertNull(WeatherSnapshotFile.read(new File(folder.getRoot(), "missing.bin"), KEY));
+    }
+
+    @Test
+    public void decode_rejectsOtherCity() {
+        ByteBuffer encoded = WeatherSnapshotFile.encode(KEY, sampleCity(2, 2));
+        assertNull(WeatherSnapshotFile.decode(encoded, "madrid"));
+    }
+
+    @Test
+    public void decode_returnsNullForEveryTruncation() {
+        byte[] full = toArray(WeatherSnapshotFile.encode(KEY, sampleCity(24, 7)));
+
+        for (int length = 0; length < full.length; length++) {
+            ByteBuffer truncated = ByteBuffer.wrap(Arrays.copyOf(full, length));
+            assertNull("Longitud " + length, WeatherSnapshotFile.decode(truncated, KEY));
+        }
+    }
+
+    @Test
+    public void read_returnsNullForTruncatedFile() throws Exception {
+        byte[] full = toArray(WeatherSnapshotFile.encode(KEY, sampleCity(24, 7)));
+        File file = folder.newFile("truncated.bin");
+        try (FileOutputStream output = new FileOutputStream(file)) {
+            output.write(full, 0, full.length / 2);
+        }
+
+        assertNull(WeatherSnapshotFile.read(file, KEY));
+    }
+
+    @Test
+    public void decode_returnsNullForCorruptData() {
+        byte[] full = toArray(WeatherSnapshotFile.encode(KEY, sampleCity(0, 0)));
+        // Sin secciones de pronóstico: se añade una serie por horas con un tamaño imposible
+        ByteBuffer corrupt = ByteBuffer.allocate(full.length + 12);
+        corrupt.put(full);
+        corrupt.putLong(0L);
+        corrupt.putInt(Integer.MAX_VALUE);
+        corrupt.flip();
+        int sectionsOffset = 4 + 1 + 2 + KEY.getBytes(StandardCharsets.UTF_8).length;
+        corrupt.put(sectionsOffset, (byte) (corrupt.get(sectionsOffset) | 2));
+
+        assertNull(WeatherSnapshotFile.decode(corrupt, KEY));
+
+        byte[] badMagic = full.clone();
+        badMagic[0] ^= 0x7F;
+        assertNull(WeatherSnapshotFile.decode(ByteBuffer.wrap(badMagic), KEY));
+    }
+
+    @Test
+    public void encodeDecode_textsOverShortRangeRoundTrip() {
+        // Más de 32767 bytes: con un short con signo la longitud se leía negativa
+        String summary = repeat('x', WeatherSnapshotFile.MAX_TEXT_BYTES);
+        String location = repeat('ñ', 20000); // 40000 bytes UTF-8
+        CachedCity city = new CachedCity(new CurrentWeather(location, "ES", 20, 22, 18, null, "☀️",
+                summary, 60, WeatherConditions.CLEAR), 1000L, null, 0, null, 0);
+
+        CachedCity decoded = WeatherSnapshotFile.decode(WeatherSnapshotFile.encode(KEY, city), KEY);
+
+        assertCityEquals(city, decoded);
+        assertNull(decoded.currentWeather.getWeatherCondition());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void encode_rejectsTextOverMaximum() {
+        CachedCity city = new CachedCity(new CurrentWeather("Palma", "ES", 20, 22, 18, "cielo claro", "☀️",
+                repeat('x', WeatherSnapshotFile.MAX_TEXT_BYTES + 1), 60, WeatherConditions.CLEAR), 1000L,
+                null, 0, null, 0);
+        WeatherSnapshotFile.encode(KEY, city);
+    }
+
+    @Test
+    public void decode_rejectsVersion1() {
+        // Versión 1: igual que la 2 pero sin el int de indicadores en el clima actual
+        byte[] key = KEY.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer v1 = ByteBuffer.allocate(256);
+        v1.putInt(0x57464353);
+        v1.put((byte) 1);
+        v1.putShort((short) key.length).put(key);
+        v1.put((byte) 1);
+        v1.putLong(1000L);
+        for (int i = 0; i < 5; i++) {
+            v1.putShort((short) 1).put((byte) 'x');
+        }
+        v1.putDouble(20).putDouble(22).putDouble(18).putInt(60);
+        v1.flip();
+
+        assertEquals(2, WeatherSnapshotFile.VERSION);
+        assertNull(WeatherSnapshotFile.decode(v1, KEY));
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.weatherforecast.dto;
+
+import com.example.weatherforecast.util.GsonProvider;
+import com.google.gson.Gson;
+
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests de ForecastResponseAdapter: mismo resultado que la deserialización por reflexión,
+ * ida y vuelta por write/read y campos desconocidos ignorados
+ */
+public class ForecastResponseAdapterTest {
+    private final Gson adapterGson = GsonProvider.get();
+
+    // Respuesta de /forecast con el formato real de OpenWeather (40 franjas de 3 horas)
+    static String forecastJson(int points) {
+        StringBuilder json = new StringBuilder(points * 600);
+        json.append("{\"cod\":\"200\",\"message\":0,\"cnt\":").append(points).append(",\"list\":[");
+        long dt = 1700000000L;
+        for (int i = 0; i < points; i++) {
+            if (i > 0) json.append(',');
+            double temp = 10 + (i % 12) * 0.75;
+            int id = i % 3 == 0 ? 500 : (i % 3 == 1 ? 800 : 803);
+            json.append("{\"dt\":").append(dt + i * 10800L)
+                    .append(",\"main\":{\"temp\":").append(String.format(Locale.ROOT, "%.2f", temp))
+                    .append(",\"feels_like\":9.1,\"temp_min\":").append(String.format(Locale.ROOT, "%.2f", temp - 1))
+                    .append(",\"temp_max\":").append(String.format(Locale.ROOT, "%.2f", temp + 1))
+                    .append(",\"pressure\":1015,\"sea_level\":1015,\"grnd_level\":945,\"humidity\":70,\"temp_kf\":0.4},")
+                    .append("\"weather\":[{\"id\":").append(id)
+                    .append(",\"main\":\"Clouds\",\"description\":\"nubes\",\"icon\":\"04d\"}],")
+                    .append("\"clouds\":{\"all\":75},\"wind\":{\"speed\":3.1,\"deg\":200,\"gust\":5.4},")
+                    .append("\"visibility\":10000,\"pop\":0.2,\"sys\":{\"pod\":\"d\"},")
+                    .append("\"dt_txt\":\"2023-11-14 ").append(String.format(Locale.ROOT, "%02d", (i * 3) % 24))
+                    .append(":00:00\"}");
+        }
+        json.append("],\"city\":{\"id\":3117735,\"name\":\"Madrid\",\"coord\":{\"lat\":40.4165,\"lon\":-3.7026},")
+                .append("\"country\":\"ES\",\"population\":1000000,\"timezone\":3600,")
+                .append("\"sunrise\":1699945000,\"sunset\":1699981000}}");
+        return json.toString();
+    }
+
+    @Test
+    public void read_matchesReflectiveGson() {
+        String json = forecastJson(40);
+        ForecastResponse expected = new Gson().fromJson(json, ForecastResponse.class);
+        ForecastResponse actual = adapterGson.fromJson(json, ForecastResponse.class);
+
+        assertEquals(40, actual.getList().size());
+        assertResponseEquals(expected, actual);
+    }
+
+    @Test
+    public void writeThenRead_roundTrips() {
+        ForecastResponse original = adapterGson.fromJson(forecastJson(40), ForecastResponse.class);
+        String json = adapterGson.toJson(original, ForecastResponse.class);
+
+        assertResponseEquals(original, adapterGson.fromJson(json, ForecastResponse.class));
+        // Lo que escribe el adaptador también lo entiende Gson por reflexión
+        assertResponseEquals(original, new Gson().fromJson(json, ForecastResponse.class));
+    }
+
+    @Test
+    public void read_skipsUnknownFieldsAtEveryLevel() {
+        String json = "{\"city\":{\"name\":\"X\",\"coord\":{\"lat\":1}},\"list\":[{\"extra\":[1,[2,{\"z\":null}]],"
+                + "\"dt\":1700000000,\"main\":{\"temp_kf\":1,\"temp\":7.5,\"feels_like\":{\"a\":1}},"
+                + "\"weather\":[{\"id\":211,\"unknown\":true,\"icon\":\"11d\"},{\"id\":800}],"
+                + "\"sys\":{\"pod\":\"n\"},\"dt_txt\":\"2023-11-14 22:00:00\"}],\"cnt\":1}";
+
+        ForecastResponse response = adapterGson.fromJson(json, ForecastResponse.class);
+
+        assertEquals(1, response.getList().size());
+        ForecastResponse.TimePoint point = response.getList().get(0);
+        assertEquals(1700000000L, point.getTimestamp());
+        assertEquals("2023-11-14 22:00:00", point.getDateTimeText());
+        assertEquals(7.5, point.getMain().getTemperature(), 0.0);
+        assertEquals(1, point.getWeather().size());
+        assertEquals(211, point.getWeather().get(0).getId());
+        assertEquals("11d", point.getWeather().get(0).getIcon());
+        assertNull(point.getWeather().get(0).getMain());
+    }
+
+    @Test
+    public void read_handlesNullsAndMissingSections() {
+        ForecastResponse response = adapterGson.fromJson(
+                "{\"list\":[{\"dt_txt\":null,\"main\":null,\"weather\":[]}]}", ForecastResponse.class);
+
+        ForecastResponse.TimePoint point = response.getList().get(0);
+        assertEquals(0L, point.getTimestamp());
+        assertNull(point.getDateTimeText());
+        assertNull(point.getMain());
+        assertTrue(point.getWeather().isEmpty());
+        assertNull(adapterGson.fromJson("{}", ForecastResponse.class).getList());
+        assertNull(adapterGson.fromJson("null", ForecastResponse.class));
+    }
+
+    private static void assertResponseEquals(ForecastResponse expected, ForecastResponse actual) {
+        assertEquals(expected.getList().size(), actual.getList().size());
+        for (int i = 0; i < expected.getList().size(); i++) {
+            ForecastResponse.TimePoint e = expected.getList().get(i);
+            ForecastResponse.TimePoint a = actual.getList().get(i);
+            assertEquals(e.getTimestamp(), a.getTimestamp());
+            assertEquals(e.getDateTimeText(), a.getDateTimeText());
+            assertEquals(e.getMain().getTemperature(), a.getMain().getTemperature(), 0.0);
+            assertEquals(e.getMain().getMaxTemperature(), a.getMain().getMaxTemperature(), 0.0);
+            assertEquals(e.getMain().getMinTemperature(), a.getMain().getMinTemperature(), 0.0);
+            ForecastResponse.Weather ew = e.getWeather().get(0);
+            ForecastResponse.Weather aw = a.getWeather().get(0);
+            assertEquals(ew.getId(), aw.getId());
+            assertEquals(ew.getMain(), aw.getMain());
+            assertEquals(ew.getDescription(), aw.getDescription());
+            assertEquals(ew.getIcon(), aw.getIcon());
+        }
+    }
+}
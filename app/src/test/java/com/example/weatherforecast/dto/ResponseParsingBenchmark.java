@@ -0,0 +1,58 @@
+package com.example.weatherforecast.dto;
+
+import com.example.weatherforecast.Benchmarks;
+import com.example.weatherforecast.util.GsonProvider;
+import com.google.gson.Gson;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compara el tiempo de parseo y los bytes reservados por respuesta de los TypeAdapter de
+ * streaming frente a la deserialización por reflexión de Gson (new Gson()).
+ * Las dos variantes se alternan varias rondas para que el JIT no favorezca a la segunda.
+ * Imprime los resultados; solo comprueba que ambos caminos leen lo mismo
+ */
+public class ResponseParsingBenchmark {
+    private static final int ROUNDS = 3;
+    // /forecast es unas 20 veces más grande que /weather, así que necesita menos repeticiones
+    private static final int FORECAST_ITERATIONS = 2_000;
+    private static final int WEATHER_ITERATIONS = 40_000;
+
+    @Test
+    public void forecastResponse_adapterVsReflection() throws Exception {
+        final String json = ForecastResponseAdapterTest.forecastJson(40);
+        final Gson reflective = new Gson();
+        final Gson adapter = GsonProvider.get();
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            Benchmarks.Result slow = Benchmarks.measure("forecast (40 franjas) reflexión #" + round,
+                    FORECAST_ITERATIONS, FORECAST_ITERATIONS,
+                    () -> reflective.fromJson(json, ForecastResponse.class).getList().size());
+            Benchmarks.Result fast = Benchmarks.measure("forecast (40 franjas) adaptador #" + round,
+                    FORECAST_ITERATIONS, FORECAST_ITERATIONS,
+                    () -> adapter.fromJson(json, ForecastResponse.class).getList().size());
+
+            assertEquals(slow.checksum, fast.checksum);
+        }
+    }
+
+    @Test
+    public void weatherResponse_adapterVsReflection() throws Exception {
+        final String json = WeatherResponseAdapterTest.FULL_RESPONSE;
+        final Gson reflective = new Gson();
+        final Gson adapter = GsonProvider.get();
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            Benchmarks.Result slow = Benchmarks.measure("weather reflexión #" + round,
+                    WEATHER_ITERATIONS, WEATHER_ITERATIONS,
+                    () -> reflective.fromJson(json, WeatherResponse.class).getMain().getHumidity());
+            Benchmarks.Result fast = Benchmarks.measure("weather adaptador #" + round,
+                    WEATHER_ITERATIONS, WEATHER_ITERATIONS,
+                    () -> adapter.fromJson(json, WeatherResponse.class).getMain().getHumidity());
+
+            assertEquals(slow.checksum, fast.checksum);
+        }
+    }
+}
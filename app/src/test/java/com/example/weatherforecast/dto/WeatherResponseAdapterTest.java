@@ -0,0 +1,112 @@
+package com.example.weatherforecast.dto;
+
+import com.example.weatherforecast.util.GsonProvider;
+import com.google.gson.Gson;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests de WeatherResponseAdapter: mismo resultado que la deserialización por reflexión,
+ * ida y vuelta por write/read y campos desconocidos ignorados
+ */
+public class WeatherResponseAdapterTest {
+    // Respuesta real de /weather con todos los campos que la app no usa
+    static final String FULL_RESPONSE = "{"
+            + "\"coord\":{\"lon\":-3.7026,\"lat\":40.4165},"
+            + "\"weather\":[{\"id\":501,\"main\":\"Rain\",\"description\":\"lluvia moderada\",\"icon\":\"10d\"},"
+            + "{\"id\":701,\"main\":\"Mist\",\"description\":\"niebla\",\"icon\":\"50d\"}],"
+            + "\"base\":\"stations\","
+            + "\"main\":{\"temp\":12.34,\"feels_like\":11.2,\"temp_min\":10.5,\"temp_max\":14.1,"
+            + "\"pressure\":1012,\"humidity\":81,\"sea_level\":1012,\"grnd_level\":940},"
+            + "\"visibility\":10000,"
+            + "\"wind\":{\"speed\":4.12,\"deg\":250,\"gust\":7.2},"
+            + "\"rain\":{\"1h\":1.5},"
+            + "\"clouds\":{\"all\":75},"
+            + "\"dt\":1700000000,"
+            + "\"sys\":{\"type\":2,\"id\":2007545,\"country\":\"ES\",\"sunrise\":1699945000,\"sunset\":1699981000},"
+            + "\"timezone\":3600,\"id\":3117735,\"name\":\"Madrid\",\"cod\":200}";
+
+    private final Gson adapterGson = GsonProvider.get();
+
+    @Test
+    public void read_matchesReflectiveGson() {
+        WeatherResponse expected = new Gson().fromJson(FULL_RESPONSE, WeatherResponse.class);
+        WeatherResponse actual = adapterGson.fromJson(FULL_RESPONSE, WeatherResponse.class);
+
+        assertEquals("Madrid", actual.getCityName());
+        assertEquals(expected.getCityName(), actual.getCityName());
+        assertEquals(expected.getSys().getCountry(), actual.getSys().getCountry());
+        assertMainEquals(expected.getMain(), actual.getMain());
+        // El adaptador solo conserva la primera condición, que es la única que usa la app
+        assertEquals(1, actual.getWeather().size());
+        assertWeatherEquals(expected.getWeather().get(0), actual.getWeather().get(0));
+        assertEquals(501, actual.getWeather().get(0).getId());
+    }
+
+    @Test
+    public void writeThenRead_roundTrips() {
+        WeatherResponse original = adapterGson.fromJson(FULL_RESPONSE, WeatherResponse.class);
+        String json = adapterGson.toJson(original, WeatherResponse.class);
+        WeatherResponse copy = adapterGson.fromJson(json, WeatherResponse.class);
+
+        assertEquals(original.getCityName(), copy.getCityName());
+        assertEquals(original.getSys().getCountry(), copy.getSys().getCountry());
+        assertMainEquals(original.getMain(), copy.getMain());
+        assertEquals(original.getWeather().size(), copy.getWeather().size());
+        assertWeatherEquals(original.getWeather().get(0), copy.getWeather().get(0));
+
+        // Lo que escribe el adaptador también lo entiende Gson por reflexión
+        WeatherResponse reflective = new Gson().fromJson(json, WeatherResponse.class);
+        assertEquals(original.getCityName(), reflective.getCityName());
+        assertWeatherEquals(original.getWeather().get(0), reflective.getWeather().get(0));
+    }
+
+    @Test
+    public void read_skipsUnknownFieldsAtEveryLevel() {
+        String json = "{\"extra\":{\"a\":[1,2,{\"b\":null}]},\"name\":\"Lugo\",\"list\":[[]],"
+                + "\"sys\":{\"sunrise\":1,\"nested\":{\"x\":true},\"country\":\"ES\"},"
+                + "\"main\":{\"pressure\":1000,\"temp\":3.5,\"unknown\":[\"z\"],\"humidity\":90},"
+                + "\"weather\":[{\"foo\":{\"bar\":1},\"id\":600,\"icon\":\"13n\"}],"
+                + "\"trailing\":\"value\"}";
+
+        WeatherResponse response = adapterGson.fromJson(json, WeatherResponse.class);
+
+        assertEquals("Lugo", response.getCityName());
+        assertEquals("ES", response.getSys().getCountry());
+        assertEquals(3.5, response.getMain().getTemperature(), 0.0);
+        assertEquals(90, response.getMain().getHumidity());
+        WeatherResponse.Weather weather = response.getWeather().get(0);
+        assertEquals(600, weather.getId());
+        assertEquals("13n", weather.getIcon());
+        assertNull(weather.getMain());
+        assertNull(weather.getDescription());
+    }
+
+    @Test
+    public void read_handlesNullsAndMissingSections() {
+        WeatherResponse response = adapterGson.fromJson(
+                "{\"name\":null,\"sys\":null,\"weather\":[]}", WeatherResponse.class);
+
+        assertNull(response.getCityName());
+        assertNull(response.getSys());
+        assertNull(response.getMain());
+        assertTrue(response.getWeather().isEmpty());
+        assertNull(adapterGson.fromJson("null", WeatherResponse.class));
+    }
+
+    private static void assertMainEquals(WeatherResponse.Main expected, WeatherResponse.Main actual) {
+        assertEquals(expected.getTemperature(), actual.getTemperature(), 0.0);
+        assertEquals(expected.getMaxTemperature(), actual.getMaxTemperature(), 0.0);
+        assertEquals(expected.getMinTemperature(), actual.getMinTemperature(), 0.0);
+        assertEquals(expected.getHumidity(), actual.getHumidity());
+    }
+
+    private static void assertWeatherEquals(WeatherResponse.Weather expected, WeatherResponse.Weather actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getMain(), actual.getMain());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getIcon(), actual.getIcon());
+    }
+}
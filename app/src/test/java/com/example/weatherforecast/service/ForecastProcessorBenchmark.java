@@ -0,0 +1,125 @@
+package com.example.weatherforecast.service;
+
+import com.example.weatherforecast.Benchmarks;
+import com.example.weatherforecast.dto.ForecastResponse;
+import com.example.weatherforecast.model.ForecastSeries;
+import com.example.weatherforecast.util.WeatherIconMapper;
+
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compara la serie horaria de una sola pasada con la versión anterior de
+ * processHourlyForecast, que para cada hora recorría la lista parseando dt_txt.
+ * Comprueba que ambas dan las mismas temperaturas y condiciones e imprime los tiempos
+ */
+public class ForecastProcessorBenchmark {
+    private static final int ROUNDS = 3;
+    private static final int ITERATIONS = 2_000;
+
+    private final WeatherIconMapper iconMapper = new WeatherIconMapper();
+    private final ForecastProcessor processor = new ForecastProcessor(iconMapper);
+
+    @Test
+    public void hourlyForecast_singlePassVsLegacy() throws Exception {
+        // 40 franjas de 3 horas, como la respuesta real de /forecast
+        final ForecastResponse response = ForecastProcessorTest.forecast(40, true,
+                new double[]{4.5, 9.25, 13, 11.75, 6}, new String[]{"01d", "03d", "10d", "13n"});
+        final long now = ForecastProcessorTest.BASE + 3 * ForecastProcessorTest.HOUR / 2;
+
+        ForecastSeries series = processor.processHourlyForecast(response, now);
+        LegacyHour[] legacy = legacyHourly(response, now);
+        assertEquals(legacy.length, series.size());
+        for (int hour = 0; hour < legacy.length; hour++) {
+            assertEquals(legacy[hour].temperature, series.getTemperature(hour), 1e-4);
+            assertEquals(iconMapper.getConditionCode(legacy[hour].icon), series.getCondition(hour));
+        }
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            Benchmarks.measure("hourly anterior #" + round, ITERATIONS / 4, ITERATIONS / 4,
+                    () -> legacyHourly(response, now).length);
+            Benchmarks.measure("hourly una pasada #" + round, ITERATIONS, ITERATIONS,
+                    () -> processor.processHourlyForecast(response, now).size());
+        }
+    }
+
+    private static final class LegacyHour {
+        final double temperature;
+        final String icon;
+
+        LegacyHour(double temperature, String icon) {
+            this.temperature = temperature;
+            this.icon = icon;
+        }
+    }
+
+    // Copia del algoritmo anterior (sin formatear textos). dt_txt se lee en UTC, que es
+    // como lo envía la API; la versión original usaba la zona del dispositivo
+    private static LegacyHour[] legacyHourly(ForecastResponse response, long now) throws ParseException {
+        SimpleDateFormat inputFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
+        inputFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        List<ForecastResponse.TimePoint> points = response.getList();
+        LegacyHour[] hours = new LegacyHour[24];
+
+        Calendar currentCal = Calendar.getInstance();
+        currentCal.setTimeInMillis(now);
+
+        for (int hour = 0; hour < 24; hour++) {
+            Calendar targetCal = (Calendar) currentCal.clone();
+            targetCal.add(Calendar.HOUR_OF_DAY, hour);
+
+            ForecastResponse.TimePoint before = null;
+            ForecastResponse.TimePoint after = null;
+
+            for (int i = 0; i < points.size() - 1; i++) {
+                ForecastResponse.TimePoint current = points.get(i);
+                ForecastResponse.TimePoint next = points.get(i + 1);
+
+                Date currentDate = inputFormat.parse(current.getDateTimeText());
+                Date nextDate = inputFormat.parse(next.getDateTimeText());
+
+                if (currentDate.getTime() <= targetCal.getTimeInMillis() &&
+                        nextDate.getTime() > targetCal.getTimeInMillis()) {
+                    before = current;
+                    after = next;
+                    break;
+                }
+            }
+
+            if (before == null || after == null) {
+                ForecastResponse.TimePoint nearest = null;
+                long minTimeDiff = Long.MAX_VALUE;
+                for (ForecastResponse.TimePoint point : points) {
+                    long timeDiff = Math.abs(inputFormat.parse(point.getDateTimeText()).getTime()
+                            - targetCal.getTimeInMillis());
+                    if (timeDiff < minTimeDiff) {
+                        minTimeDiff = timeDiff;
+                        nearest = point;
+                    }
+                }
+                hours[hour] = new LegacyHour(nearest.getMain().getTemperature(),
+                        nearest.getWeather().get(0).getIcon());
+                continue;
+            }
+
+            Date beforeDate = inputFormat.parse(before.getDateTimeText());
+            Date afterDate = inputFormat.parse(after.getDateTimeText());
+            double ratio = (double) (targetCal.getTimeInMillis() - beforeDate.getTime())
+                    / (afterDate.getTime() - beforeDate.getTime());
+            double interpolatedTemp = before.getMain().getTemperature() +
+                    ratio * (after.getMain().getTemperature() - before.getMain().getTemperature());
+
+            hours[hour] = new LegacyHour(interpolatedTemp, before.getWeather().get(0).getIcon());
+        }
+        return hours;
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.weatherforecast.service;
+
+import com.example.weatherforecast.dto.ForecastResponse;
+import com.example.weatherforecast.model.ForecastSeries;
+import com.example.weatherforecast.util.GsonProvider;
+import com.example.weatherforecast.util.WeatherIconMapper;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests de la serie horaria de ForecastProcessor: interpolación con el cursor,
+ * horas antes del primer punto y después del último, y fechas sin "dt"
+ */
+public class ForecastProcessorTest {
+    static final long HOUR = 60 * 60 * 1000L;
+    static final long BASE = 1700006400000L; // 2023-11-15 00:00:00 UTC
+
+    private final WeatherIconMapper iconMapper = new WeatherIconMapper();
+    private final ForecastProcessor processor = new ForecastProcessor(iconMapper);
+
+    // Respuesta de /forecast con un punto cada 3 horas desde BASE. Si withDt es false
+    // solo se envía dt_txt, como en respuestas antiguas o incompletas
+    static ForecastResponse forecast(int points, boolean withDt, double[] temps, String[] icons) {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.ROOT);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+
+        StringBuilder json = new StringBuilder("{\"list\":[");
+        for (int i = 0; i < points; i++) {
+            long epoch = BASE + i * 3 * HOUR;
+            if (i > 0) json.append(',');
+            json.append('{');
+            if (withDt) {
+                json.append("\"dt\":").append(epoch / 1000).append(',');
+            }
+            json.append("\"dt_txt\":\"").append(format.format(new Date(epoch))).append("\",")
+                    .append("\"main\":{\"temp\":").append(temps[i % temps.length])
+                    .append(",\"temp_min\":0,\"temp_max\":0},")
+                    .append("\"weather\":[{\"id\":800,\"icon\":\"").append(icons[i % icons.length]).append("\"}]}");
+        }
+        json.append("]}");
+        return GsonProvider.get().fromJson(json.toString(), ForecastResponse.class);
+    }
+
+    @Test
+    public void interpolatesBetweenSurroundingPoints() {
+        ForecastResponse response = forecast(4, true, new double[]{10, 16, 13, 7}, new String[]{"01d", "10d"});
+
+        ForecastSeries series = processor.processHourlyForecast(response, BASE);
+
+        assertEquals(24, series.size());
+        assertEquals(BASE, series.getEpoch(0));
+        assertEquals(BASE + 23 * HOUR, series.getEpoch(23));
+        assertEquals(10f, series.getTemperature(0), 1e-4);
+        assertEquals(12f, series.getTemperature(1), 1e-4);
+        assertEquals(14f, series.getTemperature(2), 1e-4);
+        assertEquals(16f, series.getTemperature(3), 1e-4);
+        assertEquals(15f, series.getTemperature(4), 1e-4);
+        assertEquals(7f, series.getTemperature(9), 1e-4);
+        // La condición es la del punto anterior a la hora
+        assertEquals(iconMapper.getConditionCode("01d"), series.getCondition(2));
+        assertEquals(iconMapper.getConditionCode("10d"), series.getCondition(3));
+    }
+
+    @Test
+    public void hoursBeforeFirstPoint_useFirstPoint() {
+        ForecastResponse response = forecast(3, true, new double[]{10, 16, 22}, new String[]{"13d", "01d"});
+
+        ForecastSeries series = processor.processHourlyForecast(response, BASE - 2 * HOUR);
+
+        assertEquals(10f, series.getTemperature(0), 1e-4);
+        assertEquals(10f, series.getTemperature(1), 1e-4);
+        assertEquals(iconMapper.getConditionCode("13d"), series.getCondition(0));
+        // A partir del primer punto ya se interpola
+        assertEquals(10f, series.getTemperature(2), 1e-4);
+        assertEquals(12f, series.getTemperature(3), 1e-4);
+    }
+
+    @Test
+    public void hoursPastLastPoint_useLastPoint() {
+        ForecastResponse response = forecast(3, true, new double[]{10, 16, 22}, new String[]{"01d", "01d", "50n"});
+
+        ForecastSeries series = processor.processHourlyForecast(response, BASE + 4 * HOUR);
+
+        assertEquals(20f, series.getTemperature(1), 1e-4);
+        // El último punto está en BASE + 6h: desde ahí se repite su temperatura y su condición
+        for (int hour = 2; hour < 24; hour++) {
+            assertEquals(22f, series.getTemperature(hour), 1e-4);
+            assertEquals(iconMapper.getConditionCode("50n"), series.getCondition(hour));
+        }
+
+        ForecastSeries allPast = processor.processHourlyForecast(response, BASE + 48 * HOUR);
+        assertEquals(24, allPast.size());
+        assertEquals(22f, allPast.getTemperature(0), 1e-4);
+        assertEquals(22f, allPast.getTemperature(23), 1e-4);
+    }
+
+    @Test
+    public void missingDt_fallsBackToDtTxtInUtc() {
+        double[] temps = {4, 9, 1, 12, 6};
+        String[] icons = {"01d", "02d", "10d"};
+        ForecastResponse withDt = forecast(12, true, temps, icons);
+        ForecastResponse withoutDt = forecast(12, false, temps, icons);
+
+        assertEquals(0L, withoutDt.getList().get(0).getTimestamp());
+        assertEquals(processor.processHourlyForecast(withDt, BASE + HOUR / 2),
+                processor.processHourlyForecast(withoutDt, BASE + HOUR / 2));
+    }
+
+    @Test
+    public void unparseableDate_reusesPreviousEpoch() {
+        ForecastResponse response = GsonProvider.get().fromJson("{\"list\":["
+                + "{\"dt\":" + BASE / 1000 + ",\"main\":{\"temp\":10}},"
+                + "{\"dt_txt\":\"no es una fecha\",\"main\":{\"temp\":50}},"
+                + "{\"dt\":" + (BASE / 1000 + 3 * 3600) + ",\"main\":{\"temp\":16}}]}", ForecastResponse.class);
+
+        ForecastSeries series = processor.processHourlyForecast(response, BASE + HOUR);
+
+        // El punto sin fecha se coloca en BASE y no rompe el orden: se interpola desde él
+        assertEquals(24, series.size());
+        assertEquals(50f - 34f / 3f, series.getTemperature(0), 1e-3);
+        assertEquals(16f, series.getTemperature(2), 1e-4);
+    }
+
+    @Test
+    public void emptyResponse_givesEmptySeries() {
+        assertTrue(processor.processHourlyForecast(
+                GsonProvider.get().fromJson("{\"list\":[]}", ForecastResponse.class), BASE).isEmpty());
+        assertTrue(processor.processHourlyForecast(
+                GsonProvider.get().fromJson("{}", ForecastResponse.class), BASE).isEmpty());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.weatherforecast.service;
+
+import com.example.weatherforecast.Benchmarks;
+import com.example.weatherforecast.model.CurrentWeather;
+import com.example.weatherforecast.model.OutfitRecommendation;
+import com.example.weatherforecast.model.UserPreferences;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compara el tiempo y las reservas por recomendación de OutfitService (tablas precalculadas)
+ * con LegacyOutfitRules (las reglas anteriores, que creaban las listas en cada llamada).
+ * Las entradas se generan al azar con semilla fija. Imprime los resultados
+ */
+public class OutfitServiceBenchmark {
+    private static final int INPUTS = 4096; // Potencia de 2 para recorrerlas con una máscara
+    private static final int ROUNDS = 3;
+    private static final int ITERATIONS = 500_000;
+
+    @Test
+    public void tablesVsLegacyRules() throws Exception {
+        final CurrentWeather[] weathers = new CurrentWeather[INPUTS];
+        final OutfitRecommendation.Style[] styles = new OutfitRecommendation.Style[INPUTS];
+        final UserPreferences[] preferences = new UserPreferences[INPUTS];
+        Random random = new Random(42);
+        for (int i = 0; i < INPUTS; i++) {
+            double temperature = -15 + random.nextDouble() * 55;
+            weathers[i] = new CurrentWeather("Ciudad", "ES", temperature, temperature, temperature,
+                    "", "", "", random.nextInt(101), random.nextInt(1 << 7));
+            styles[i] = OutfitRecommendation.Style.values()[random.nextInt(3)];
+            preferences[i] = new UserPreferences()
+                    .withGender(UserPreferences.Gender.values()[random.nextInt(3)])
+                    .withColdTolerance(UserPreferences.Tolerance.values()[random.nextInt(3)])
+                    .withHeatTolerance(UserPreferences.Tolerance.values()[random.nextInt(3)]);
+        }
+
+        final OutfitService service = new OutfitService();
+        final LegacyOutfitRules legacy = new LegacyOutfitRules();
+        for (int i = 0; i < INPUTS; i++) {
+            assertTrue(OutfitServiceEquivalenceTest.sameOutfit(
+                    legacy.getOutfitRecommendation(weathers[i], styles[i], preferences[i]),
+                    service.getOutfitRecommendation(weathers[i], styles[i], preferences[i])));
+        }
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            final int[] next = {0};
+            Benchmarks.measure("reglas anteriores #" + round, ITERATIONS / 5, ITERATIONS / 5, () -> {
+                int i = next[0]++ & (INPUTS - 1);
+                return legacy.getOutfitRecommendation(weathers[i], styles[i], preferences[i])
+                        .getAccessories().size();
+            });
+            Benchmarks.measure("tablas precalculadas #" + round, ITERATIONS, ITERATIONS, () -> {
+                int i = next[0]++ & (INPUTS - 1);
+                return service.getOutfitRecommendation(weathers[i], styles[i], preferences[i])
+                        .getAccessories().size();
+            });
+        }
+    }
+}
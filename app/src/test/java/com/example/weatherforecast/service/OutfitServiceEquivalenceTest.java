@@ -0,0 +1,104 @@
+package com.example.weatherforecast.service;
+
+import com.example.weatherforecast.model.CurrentWeather;
+import com.example.weatherforecast.model.OutfitRecommendation;
+import com.example.weatherforecast.model.UserPreferences;
+
+import org.junit.Test;
+
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compara OutfitService (tablas precalculadas) con LegacyOutfitRules (las reglas anteriores)
+ * en todas las combinaciones de estilo, género, tolerancias, máscara de condiciones y humedad,
+ * y en temperaturas a ambos lados de cada límite de franja
+ */
+public class OutfitServiceEquivalenceTest {
+    // Límites de las reglas: franjas (5, 14, 22, 28) y zonas de ajuste por tolerancia/humedad (15, 22)
+    private static final double[] EDGES = {5.0, 14.0, 15.0, 22.0, 28.0};
+    // Ajustes por tolerancia y por humedad; sus sumas desplazan los límites de franja
+    private static final double[] TOLERANCE_SHIFTS = {0, -3.0, 2.0, 3.0, -2.0};
+    private static final double[] HUMIDITY_SHIFTS = {0, -2.0, 1.0, 3.0, -1.5};
+    // Valores a ambos lados de los umbrales de humedad (30 y 70)
+    private static final int[] HUMIDITIES = {0, 29, 30, 31, 50, 69, 70, 71, 100};
+    // Todas las combinaciones de WeatherConditions (7 bits)
+    private static final int CONDITION_MASKS = 1 << 7;
+
+    // Temperaturas de una rejilla de -30 a 50 más, para cada límite, el valor exacto y los
+    // doubles inmediatamente anterior y posterior tras cualquier ajuste
+    static double[] temperatures() {
+        TreeSet<Double> values = new TreeSet<>();
+        for (double t = -30; t <= 50; t += 0.5) {
+            values.add(t);
+        }
+        for (double edge : EDGES) {
+            for (double tolerance : TOLERANCE_SHIFTS) {
+                for (double humidity : HUMIDITY_SHIFTS) {
+                    double t = edge - tolerance - humidity;
+                    values.add(t);
+                    values.add(Math.nextDown(t));
+                    values.add(Math.nextUp(t));
+                }
+            }
+        }
+        double[] result = new double[values.size()];
+        int i = 0;
+        for (double value : values) {
+            result[i++] = value;
+        }
+        return result;
+    }
+
+    @Test
+    public void tables_matchLegacyRulesEverywhere() {
+        OutfitService service = new OutfitService();
+        LegacyOutfitRules legacy = new LegacyOutfitRules();
+        double[] temperatures = temperatures();
+        long compared = 0;
+
+        for (UserPreferences.Gender gender : UserPreferences.Gender.values()) {
+            for (UserPreferences.Tolerance cold : UserPreferences.Tolerance.values()) {
+                for (UserPreferences.Tolerance heat : UserPreferences.Tolerance.values()) {
+                    UserPreferences preferences = new UserPreferences()
+                            .withGender(gender).withColdTolerance(cold).withHeatTolerance(heat);
+                    for (OutfitRecommendation.Style style : OutfitRecommendation.Style.values()) {
+                        for (double temperature : temperatures) {
+                            for (int humidity : HUMIDITIES) {
+                                for (int mask = 0; mask < CONDITION_MASKS; mask++) {
+                                    CurrentWeather weather = new CurrentWeather("Ciudad", "ES", temperature,
+                                            temperature, temperature, "", "", "", humidity, mask);
+                                    assertSameOutfit(legacy.getOutfitRecommendation(weather, style, preferences),
+                                            service.getOutfitRecommendation(weather, style, preferences),
+                                            temperature, humidity, mask, style, preferences);
+                                    compared++;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        System.out.println("Combinaciones comparadas: " + compared);
+    }
+
+    private static void assertSameOutfit(OutfitRecommendation expected, OutfitRecommendation actual,
+                                         double temperature, int humidity, int mask,
+                                         OutfitRecommendation.Style style, UserPreferences preferences) {
+        if (!sameOutfit(expected, actual)) {
+            fail("Distinto para t=" + temperature + " h=" + humidity + " mask=" + mask + " " + style +
+                    " " + preferences.getGender() + " frío=" + preferences.getColdTolerance() +
+                    " calor=" + preferences.getHeatTolerance());
+        }
+    }
+
+    static boolean sameOutfit(OutfitRecommendation a, OutfitRecommendation b) {
+        return a.getStyle() == b.getStyle() &&
+                a.getTopItems().equals(b.getTopItems()) &&
+                a.getBottomItems().equals(b.getBottomItems()) &&
+                a.getFootwear().equals(b.getFootwear()) &&
+                a.getOuterWear().equals(b.getOuterWear()) &&
+                a.getAccessories().equals(b.getAccessories());
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.weatherforecast.service;
+
+import com.example.weatherforecast.model.OutfitRecommendation;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de la tabla de recomendaciones precalculadas de OutfitService
+ */
+public class OutfitServiceTableTest {
+    private static final int TOTAL = OutfitService.BAND_COUNT * OutfitService.STYLE_COUNT *
+            OutfitService.GENDER_COUNT * OutfitService.HUMID_COUNT * OutfitService.OVERLAY_COUNT;
+
+    @Test
+    public void recommendationKeyIsABijection() {
+        assertEquals(TOTAL, OutfitService.RECOMMENDATIONS.length);
+
+        boolean[] seen = new boolean[TOTAL];
+        for (int band = 0; band < OutfitService.BAND_COUNT; band++) {
+            for (int s = 0; s < OutfitService.STYLE_COUNT; s++) {
+                for (int g = 0; g < OutfitService.GENDER_COUNT; g++) {
+                    for (int humid = 0; humid < OutfitService.HUMID_COUNT; humid++) {
+                        for (int overlays = 0; overlays < OutfitService.OVERLAY_COUNT; overlays++) {
+                            int key = OutfitService.recommendationKey(band, s, g, humid, overlays);
+                            assertTrue("Clave fuera de rango: " + key, key >= 0 && key < TOTAL);
+                            assertFalse("Clave repetida: " + key, seen[key]);
+                            seen[key] = true;
+                        }
+                    }
+                }
+            }
+        }
+        // Tantas combinaciones distintas como posiciones: se cubren todas
+        for (int key = 0; key < TOTAL; key++) {
+            assertTrue("Posición sin combinación: " + key, seen[key]);
+        }
+    }
+
+    @Test
+    public void everySlotMatchesCompose() {
+        for (int band = 0; band < OutfitService.BAND_COUNT; band++) {
+            for (int s = 0; s < OutfitService.STYLE_COUNT; s++) {
+                for (int g = 0; g < OutfitService.GENDER_COUNT; g++) {
+                    for (int humid = 0; humid < OutfitService.HUMID_COUNT; humid++) {
+                        for (int overlays = 0; overlays < OutfitService.OVERLAY_COUNT; overlays++) {
+                            OutfitRecommendation stored = OutfitService.RECOMMENDATIONS[
+                                    OutfitService.recommendationKey(band, s, g, humid, overlays)];
+                            assertNotNull(stored);
+                            assertTrue(OutfitServiceEquivalenceTest.sameOutfit(
+                                    OutfitService.compose(band, s, g, humid, overlays), stored));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void returnedListsAreUnmodifiable() {
+        // Las instancias se comparten entre llamadas, nadie debe poder cambiarlas
+        for (OutfitRecommendation recommendation : OutfitService.RECOMMENDATIONS) {
+            assertUnmodifiable(recommendation.getTopItems());
+            assertUnmodifiable(recommendation.getBottomItems());
+            assertUnmodifiable(recommendation.getFootwear());
+            assertUnmodifiable(recommendation.getOuterWear());
+            assertUnmodifiable(recommendation.getAccessories());
+        }
+    }
+
+    private static void assertUnmodifiable(List<String> items) {
+        try {
+            items.add("Prenda");
+            fail("La lista se puede modificar: " + items);
+        } catch (UnsupportedOperationException expected) {
+            // Correcto
+        }
+        if (!items.isEmpty()) {
+            try {
+                items.set(0, "Prenda");
+                fail("La lista se puede modificar: " + items);
+            } catch (UnsupportedOperationException expected) {
+                // Correcto
+            }
+        }
+    }
+}
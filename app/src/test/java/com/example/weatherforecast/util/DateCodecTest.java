@@ -0,0 +1,65 @@
+package com.example.weatherforecast.util;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests de DateCodec: formateo en hora local y cambio de zona horaria
+ */
+public class DateCodecTest {
+    private static final long INSTANT = 1700006400000L; // 2023-11-15 00:00:00 UTC
+
+    private final TimeZone original = TimeZone.getDefault();
+
+    @After
+    public void restoreTimeZone() {
+        TimeZone.setDefault(original);
+        DateCodec.refreshTimeZone();
+    }
+
+    @Test
+    public void refreshTimeZone_appliesNewDefaultZone() {
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+        DateCodec.refreshTimeZone();
+        assertEquals("2023-11-15 00:00:00", DateCodec.formatDateTime(INSTANT));
+        long utcDay = DateCodec.toEpochDay(INSTANT);
+
+        // Hasta que se refresca se sigue usando la zona guardada
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+        assertEquals("2023-11-15 00:00:00", DateCodec.formatDateTime(INSTANT));
+
+        DateCodec.refreshTimeZone();
+        assertEquals("2023-11-14 19:00:00", DateCodec.formatDateTime(INSTANT));
+        assertEquals(utcDay - 1, DateCodec.toEpochDay(INSTANT));
+        assertEquals("19:00", DateCodec.formatHour(INSTANT));
+    }
+
+    @Test
+    public void startOfDay_isLocalMidnight() {
+        TimeZone.setDefault(TimeZone.getTimeZone("Europe/Madrid"));
+        DateCodec.refreshTimeZone();
+
+        long day = DateCodec.toEpochDay(INSTANT);
+        assertEquals("2023-11-15 00:00:00", DateCodec.formatDateTime(DateCodec.startOfDay(day)));
+        assertEquals("Mié", DateCodec.dayAbbreviation(day));
+    }
+
+    @Test
+    public void dayOfWeek_beforeAndAfterEpoch() {
+        assertEquals(4, DateCodec.dayOfWeek(0));   // 1970-01-01, jueves
+        assertEquals(3, DateCodec.dayOfWeek(-1));  // 1969-12-31, miércoles
+        assertEquals(0, DateCodec.dayOfWeek(-4));  // 1969-12-28, domingo
+        assertEquals(3, DateCodec.dayOfWeek(DateCodec.parseIsoEpochDay("2023-11-15")));
+        assertEquals(6, DateCodec.dayOfWeek(DateCodec.parseIsoEpochDay("1900-01-06")));
+    }
+
+    @Test
+    public void parseUtcDateTime_readsDtTxt() {
+        assertEquals(INSTANT, DateCodec.parseUtcDateTime("2023-11-15 00:00:00"));
+        assertEquals(DateCodec.parseIsoEpochDay("2023-11-15"), DateCodec.parseDayMonthYearEpochDay("15-11-2023"));
+    }
+}